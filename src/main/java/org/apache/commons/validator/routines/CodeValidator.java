@@ -17,6 +17,7 @@
 package org.apache.commons.validator.routines;
 
 import java.io.Serializable;
+import java.util.regex.Pattern;
 
 import org.apache.commons.validator.GenericValidator;
 import org.apache.commons.validator.routines.checkdigit.CheckDigit;
@@ -64,16 +65,213 @@ import org.apache.commons.validator.routines.checkdigit.CheckDigit;
  * expression (that is, use the {@code (?:   )} notation).
  * <br>
  * Or just avoid using parentheses except for the parts you want to capture
+ * <p>
+ * Before the regular expression is applied the trimmed input passes a {@link Prefilter}
+ * which rejects codes of impossible length, with characters that cannot occur or without
+ * the literal prefix of the expression. It is derived from simple regular expressions
+ * (and the minimum/maximum length when the expression captures the whole code) or can be
+ * given explicitly.
+ * </p>
  *
  * @since 1.4
  */
 public final class CodeValidator implements Serializable {
 
+    /**
+     * Cheap checks of the trimmed code which run before the regular expression:
+     * the length window, the allowed characters and a literal prefix.
+     *
+     * @since 2.10.6
+     */
+    public static final class Prefilter implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * Derives the prefilter from the regular expressions and lengths of a code validator.
+         * Only checks which cannot reject a valid code are derived.
+         *
+         * @return the prefilter or {@code null} if nothing can be derived
+         */
+        static Prefilter derive(final RegexValidator regexValidator, final int minLength, final int maxLength) {
+            RegexSummary summary = null;
+            boolean wholeCode = true;
+            if (regexValidator != null) {
+                // subclasses may validate differently
+                if (regexValidator.getClass() != RegexValidator.class) {
+                    return null;
+                }
+                for (final Pattern pattern : regexValidator.getPatterns()) {
+                    final RegexSummary next = pattern.flags() == 0 ? RegexSummary.parse(pattern.pattern()) : null;
+                    if (next == null) {
+                        return null;
+                    }
+                    wholeCode &= next.wholeCapture;
+                    summary = summary == null ? next : summary.or(next);
+                }
+            }
+            int min = summary == null ? 0 : summary.min;
+            int max = summary == null ? RegexSummary.UNBOUNDED : summary.max;
+            if (wholeCode) {
+                // the length is checked on the code returned by the expression, that is the whole code
+                min = Math.max(min, minLength);
+                max = maxLength >= 0 ? Math.min(max, maxLength) : max;
+            }
+            final long[] ascii = summary == null || summary.allowsAll() ? null : summary.ascii.clone();
+            final String prefix = summary == null ? "" : summary.prefix;
+            if (min <= 1 && max == RegexSummary.UNBOUNDED && ascii == null && prefix.isEmpty()) {
+                return null;
+            }
+            return new Prefilter(min, max == RegexSummary.UNBOUNDED ? -1 : max, ascii, summary != null && summary.nonAscii, prefix);
+        }
+
+        /** The minimum length */
+        private final int minLength;
+
+        /** The maximum length or -1 */
+        private final int maxLength;
+
+        /** The allowed ASCII characters, bit c of ascii[c / 64], or {@code null} if all characters are allowed */
+        private final long[] ascii;
+
+        /** Whether non-ASCII characters are allowed */
+        private final boolean nonAscii;
+
+        /** The literal prefix */
+        private final String prefix;
+
+        /**
+         * Constructs a prefilter.
+         *
+         * @param minLength The minimum length of the trimmed code
+         * @param maxLength The maximum length of the trimmed code, -1 for no limit
+         * @param allowedChars The characters which may occur or {@code null} for any,
+         * characters outside ASCII are not distinguished: if one is allowed all are
+         * @param prefix The literal prefix of every code or {@code null}
+         */
+        public Prefilter(final int minLength, final int maxLength, final String allowedChars, final String prefix) {
+            this(minLength, maxLength, asciiBits(allowedChars), allowsNonAscii(allowedChars), prefix == null ? "" : prefix);
+        }
+
+        /**
+         * Gets the bit mask of the ASCII characters in {@code chars} or {@code null} if {@code chars} is {@code null}.
+         */
+        private static long[] asciiBits(final String chars) {
+            if (chars == null) {
+                return null;
+            }
+            final long[] bits = new long[2];
+            for (int i = 0; i < chars.length(); i++) {
+                final char c = chars.charAt(i);
+                if (c < ASCII) {
+                    bits[c >>> 6] |= 1L << c;
+                }
+            }
+            return bits;
+        }
+
+        /**
+         * Tests whether {@code chars} contains a character outside ASCII.
+         */
+        private static boolean allowsNonAscii(final String chars) {
+            if (chars != null) {
+                for (int i = 0; i < chars.length(); i++) {
+                    if (chars.charAt(i) >= ASCII) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        private Prefilter(final int minLength, final int maxLength, final long[] ascii, final boolean nonAscii, final String prefix) {
+            this.minLength = minLength;
+            this.maxLength = maxLength;
+            this.ascii = ascii;
+            this.nonAscii = nonAscii;
+            this.prefix = prefix;
+        }
+
+        /**
+         * Gets the maximum length.
+         *
+         * @return The maximum length or -1 for no limit
+         */
+        public int getMaxLength() {
+            return maxLength;
+        }
+
+        /**
+         * Gets the minimum length.
+         *
+         * @return The minimum length
+         */
+        public int getMinLength() {
+            return minLength;
+        }
+
+        /**
+         * Gets the literal prefix.
+         *
+         * @return The prefix, empty if none
+         */
+        public String getPrefix() {
+            return prefix;
+        }
+
+        /**
+         * Tests whether a character is allowed.
+         *
+         * @param c The character
+         * @return {@code true} if the character may occur in a code
+         */
+        public boolean isAllowed(final char c) {
+            if (ascii == null) {
+                return true;
+            }
+            return c < ASCII ? (ascii[c >>> 6] & 1L << c) != 0 : nonAscii;
+        }
+
+        /**
+         * Tests whether a trimmed code passes the prefilter.
+         *
+         * @param code The trimmed code
+         * @return {@code false} if the code cannot be valid
+         */
+        public boolean test(final String code) {
+            return code != null && test(code, 0, code.length());
+        }
+
+        /**
+         * Tests the code between {@code start} (inclusive) and {@code end} (exclusive).
+         */
+        boolean test(final String code, final int start, final int end) {
+            final int length = end - start;
+            if (length < minLength || maxLength >= 0 && length > maxLength || !code.startsWith(prefix, start)) {
+                return false;
+            }
+            if (ascii != null) {
+                for (int i = start + prefix.length(); i < end; i++) {
+                    if (!isAllowed(code.charAt(i))) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+    }
+
     private static final long serialVersionUID = 446960910870938233L;
 
+    /** Characters below are kept in the prefilter bit mask */
+    private static final int ASCII = 128;
+
     /** The format regular expression validator. */
     private final RegexValidator regexValidator;
 
+    /** The checks before the regular expression or {@code null}. */
+    private final Prefilter prefilter;
+
     /** The minimum length of the code. */
     private final int minLength;
 
@@ -118,10 +316,28 @@ public final class CodeValidator implements Serializable {
      */
     public CodeValidator(final RegexValidator regexValidator, final int minLength, final int maxLength,
             final CheckDigit checkdigit) {
+        this(regexValidator, minLength, maxLength, checkdigit, Prefilter.derive(regexValidator, minLength, maxLength));
+    }
+
+    /**
+     * Constructs a code validator with a specified regular expression
+     * validator, minimum/maximum length, {@link CheckDigit} validation
+     * and an explicit {@link Prefilter}.
+     *
+     * @param regexValidator The format regular expression validator
+     * @param minLength The minimum length of the code
+     * @param maxLength The maximum length of the code
+     * @param checkdigit The check digit validation routine
+     * @param prefilter The checks of the trimmed code before the regular expression, {@code null} for none
+     * @since 2.10.6
+     */
+    public CodeValidator(final RegexValidator regexValidator, final int minLength, final int maxLength,
+            final CheckDigit checkdigit, final Prefilter prefilter) {
         this.regexValidator = regexValidator;
         this.minLength = minLength;
         this.maxLength = maxLength;
         this.checkdigit = checkdigit;
+        this.prefilter = prefilter;
     }
 
     /**
@@ -162,10 +378,7 @@ public final class CodeValidator implements Serializable {
      */
     public CodeValidator(final String regex, final int minLength, final int maxLength,
             final CheckDigit checkdigit) {
-        this.regexValidator = GenericValidator.isBlankOrNull(regex) ? null : new RegexValidator(regex);
-        this.minLength = minLength;
-        this.maxLength = maxLength;
-        this.checkdigit = checkdigit;
+        this(GenericValidator.isBlankOrNull(regex) ? null : new RegexValidator(regex), minLength, maxLength, checkdigit);
     }
 
     /**
@@ -206,6 +419,16 @@ public final class CodeValidator implements Serializable {
         return minLength;
     }
 
+    /**
+     * Gets the checks of the trimmed code before the regular expression.
+     *
+     * @return The prefilter or {@code null}
+     * @since 2.10.6
+     */
+    public Prefilter getPrefilter() {
+        return prefilter;
+    }
+
     /**
      * Gets the <em>regular expression</em> validator.
      * <p>
@@ -234,7 +457,7 @@ public final class CodeValidator implements Serializable {
      * {@code false}
      */
     public boolean isValid(final String input) {
-        return validate(input) != null;
+        return validateView(input) != null;
     }
 
     /**
@@ -250,19 +473,52 @@ public final class CodeValidator implements Serializable {
      * if invalid
      */
     public Object validate(final String input) {
+        final CharSequence code = validateView(input);
+        return code == null ? null : code.toString();
+    }
+
+    /**
+     * Validate the code returning either a view of the valid code or
+     * {@code null} if invalid.
+     * <p>
+     * Like {@link #validate(String)} but neither the trimmed input nor the
+     * groups matched by the {@link RegexValidator} are copied, the result reads
+     * the characters of the input and is passed as is to
+     * {@link CheckDigit#isValid(CharSequence)}.
+     * </p>
+     *
+     * @param input The code to validate
+     * @return The code if valid, otherwise {@code null}
+     * if invalid
+     * @since 2.10.6
+     */
+    public CharSequence validateView(final String input) {
         if (input == null) {
             return null;
         }
-        String code = input.trim();
-        if (code.isEmpty()) {
+        int start = 0;
+        int end = input.length();
+        while (start < end && input.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && input.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        if (start == end || prefilter != null && !prefilter.test(input, start, end)) {
             return null;
         }
         // validate/reformat using regular expression
-        if (regexValidator != null) {
-            code = regexValidator.validate(code);
-            if (code == null) {
-                return null;
-            }
+        final CharSequence code;
+        if (regexValidator == null) {
+            code = GroupSequence.of(input, new int[] { start, end }, 1);
+        } else if (regexValidator.getClass() == RegexValidator.class) {
+            code = regexValidator.validateView(input, start, end);
+        } else {
+            // subclasses may override validate(String)
+            code = regexValidator.validate(input.substring(start, end));
+        }
+        if (code == null) {
+            return null;
         }
         // check the length (must be done after validate as that can change the code)
         if (minLength >= 0 && code.length() < minLength ||
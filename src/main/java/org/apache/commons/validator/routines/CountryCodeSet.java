@@ -0,0 +1,161 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.validator.routines;
+
+/**
+ * Immutable set of upper case alpha-2 or alpha-3 country codes.
+ * <p>
+ * Membership is kept in a bit set indexed by the letters of the code
+ * (26&sup2; bits for alpha-2, 26&sup3; bits for alpha-3), so a lookup is a
+ * couple of array accesses and never creates a String.
+ * </p>
+ *
+ * @since 2.10.6
+ */
+final class CountryCodeSet {
+
+    private static final int LETTERS = 26;
+
+    /** All ISO 3166-1 alpha-3 codes of {@link Iso3166_1Alpha_3#COUNTRY_CODES} */
+    static final CountryCodeSet ALPHA_3 = of(3, Iso3166_1Alpha_3.COUNTRY_CODES);
+
+    /**
+     * Creates a set from a comma separated list of codes, a trailing comma is allowed.
+     *
+     * @param codeLength the length of the codes, 2 or 3
+     * @param codes comma separated codes
+     * @return the set
+     * @throws IllegalArgumentException if a code does not consist of {@code codeLength} upper case letters
+     */
+    static CountryCodeSet of(final int codeLength, final String codes) {
+        return of(codeLength, codes.split(","));
+    }
+
+    /**
+     * Creates a set from an array of codes.
+     *
+     * @param codeLength the length of the codes, 2 or 3
+     * @param codes the codes
+     * @return the set
+     * @throws IllegalArgumentException if a code does not consist of {@code codeLength} upper case letters
+     */
+    static CountryCodeSet of(final int codeLength, final String... codes) {
+        final CountryCodeSet set = new CountryCodeSet(codeLength);
+        for (final String code : codes) {
+            final int index = set.index(code, 0);
+            if (index < 0 || code.length() != codeLength) {
+                throw new IllegalArgumentException("Invalid country code '" + code + "'");
+            }
+            set.bits[index >>> 6] |= 1L << index;
+        }
+        return set;
+    }
+
+    private final int codeLength;
+
+    private final long[] bits;
+
+    private CountryCodeSet(final int codeLength) {
+        if (codeLength < 2 || codeLength > 3) {
+            throw new IllegalArgumentException("Invalid code length " + codeLength);
+        }
+        this.codeLength = codeLength;
+        int size = 1;
+        for (int i = 0; i < codeLength; i++) {
+            size *= LETTERS;
+        }
+        this.bits = new long[(size + Long.SIZE - 1) / Long.SIZE];
+    }
+
+    /**
+     * Tests whether the value is a code of this set.
+     *
+     * @param code the value to test, may be null
+     * @return {@code true} if the set contains the code
+     */
+    boolean contains(final CharSequence code) {
+        return code != null && code.length() == codeLength && contains(code, 0);
+    }
+
+    /**
+     * Tests whether the characters starting at {@code start} are a code of this set.
+     *
+     * @param text the text containing the code
+     * @param start the index of the first character of the code
+     * @return {@code true} if the set contains the code
+     */
+    boolean contains(final CharSequence text, final int start) {
+        final int index = index(text, start);
+        return index >= 0 && (bits[index >>> 6] & 1L << index) != 0;
+    }
+
+    /**
+     * Gets the code length of this set.
+     *
+     * @return 2 or 3
+     */
+    int getCodeLength() {
+        return codeLength;
+    }
+
+    private int index(final CharSequence text, final int start) {
+        if (start < 0 || start + codeLength > text.length()) {
+            return -1;
+        }
+        int index = 0;
+        for (int i = start; i < start + codeLength; i++) {
+            final int letter = text.charAt(i) - 'A';
+            if (letter < 0 || letter >= LETTERS) {
+                return -1;
+            }
+            index = index * LETTERS + letter;
+        }
+        return index;
+    }
+
+    /**
+     * Returns a new set with the codes of this set that are not in {@code other}.
+     *
+     * @param other the codes to remove
+     * @return the difference
+     */
+    CountryCodeSet minus(final CountryCodeSet other) {
+        return combine(other, true);
+    }
+
+    /**
+     * Returns a new set with the codes of this set and {@code other}.
+     *
+     * @param other the codes to add
+     * @return the union
+     */
+    CountryCodeSet plus(final CountryCodeSet other) {
+        return combine(other, false);
+    }
+
+    private CountryCodeSet combine(final CountryCodeSet other, final boolean remove) {
+        if (other.codeLength != codeLength) {
+            throw new IllegalArgumentException("Code length " + other.codeLength + " does not match " + codeLength);
+        }
+        final CountryCodeSet result = new CountryCodeSet(codeLength);
+        for (int i = 0; i < bits.length; i++) {
+            result.bits[i] = remove ? bits[i] & ~other.bits[i] : bits[i] | other.bits[i];
+        }
+        return result;
+    }
+
+}
@@ -18,8 +18,16 @@ package org.apache.commons.validator.routines;
 
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
 
 import org.apache.commons.validator.GenericValidator;
 import org.apache.commons.validator.routines.checkdigit.CheckDigit;
@@ -75,6 +83,13 @@ import org.apache.commons.validator.routines.checkdigit.LuhnCheckDigit;
  * This can be combined with a list of {@code CodeValidator}s
  * </p>
  * <p>
+ * The predefined card types and those defined by {@link CreditCardRange}s are compiled
+ * into a trie of their IIN prefixes, so a single scan of the number finds the card type
+ * and verifies the Luhn check digit. Other {@code CodeValidator}s are tried in order.
+ * The detected card type is available from {@link #getCardType(String)}.
+ * Large sets of ranges, such as BIN tables, are searched in a {@link CreditCardRangeTable}.
+ * </p>
+ * <p>
  * More information can be found in Michael Gilleland's essay
  * <a href="https://web.archive.org/web/20120614072656/http://www.merriampark.com/anatomycc.htm">Anatomy of Credit Card Numbers</a>.
  * </p>
@@ -144,6 +159,613 @@ public class CreditCardValidator implements Serializable {
         }
     }
 
+    /**
+     * Hit counts of the card types which are not in the {@link IinTrie}, so the most
+     * frequent ones can be tried first.
+     * <p>
+     * The order is an immutable array which is replaced now and then, about every
+     * {@link #INTERVAL} hits, so readers never lock.
+     * </p>
+     */
+    private static final class AdaptiveOrder implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        /** Average number of hits between reorderings, a power of two */
+        private static final int INTERVAL = 1024;
+
+        private final LongAdder[] hits;
+
+        private volatile int[] order;
+
+        AdaptiveOrder(final int[] indexes, final int size) {
+            this.hits = new LongAdder[size];
+            for (final int index : indexes) {
+                hits[index] = new LongAdder();
+            }
+            this.order = indexes.clone();
+        }
+
+        int[] getOrder() {
+            return order;
+        }
+
+        void hit(final int index) {
+            hits[index].increment();
+            // sampling instead of a shared counter keeps concurrent callers apart
+            if ((ThreadLocalRandom.current().nextInt() & INTERVAL - 1) == 0) {
+                reorder();
+            }
+        }
+
+        /**
+         * Publishes the card types sorted by descending hits, ties keep their order.
+         */
+        void reorder() {
+            final int[] next = order.clone();
+            final long[] counts = new long[next.length];
+            for (int i = 0; i < next.length; i++) {
+                counts[i] = hits[next[i]].sum();
+            }
+            boolean changed = false;
+            for (int i = 1; i < next.length; i++) {
+                final int index = next[i];
+                final long count = counts[i];
+                int j = i - 1;
+                while (j >= 0 && counts[j] < count) {
+                    next[j + 1] = next[j];
+                    counts[j + 1] = counts[j];
+                    j--;
+                    changed = true;
+                }
+                next[j + 1] = index;
+                counts[j + 1] = count;
+            }
+            if (changed) {
+                order = next;
+            }
+        }
+    }
+
+    /**
+     * Table of many {@link CreditCardRange}s, for example a BIN table of an acquirer.
+     * <p>
+     * The prefixes of the ranges are normalized to the same number of digits (low padded with
+     * 0, high padded with 9) and cut at their bounds into disjoint segments. Each segment stores,
+     * per valid length, the first range given to the constructor which covers it, so finding the
+     * range of a card number is a binary search over primitive arrays, however the ranges nest
+     * or overlap.
+     * </p>
+     * <p>
+     * All ranges must consist of digits (at most 18) and the valid lengths must not be
+     * shorter than the longest prefix.
+     * </p>
+     *
+     * @since 2.10.6
+     */
+    public static final class CreditCardRangeTable implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        /** Most prefix digits which fit into a long */
+        private static final int MAX_WIDTH = 18;
+
+        /**
+         * Creates a table if the ranges are supported.
+         *
+         * @return the table or {@code null}
+         */
+        static CreditCardRangeTable create(final CreditCardRange[] ranges) {
+            int width = 0;
+            for (final CreditCardRange range : ranges) {
+                if (range.low == null || lengthMask(range) < 0) {
+                    return null;
+                }
+                width = Math.max(width, width(range));
+            }
+            for (final CreditCardRange range : ranges) {
+                final long mask = lengthMask(range);
+                if (mask != 0 && Long.numberOfTrailingZeros(mask) < width) {
+                    return null;
+                }
+            }
+            return width > MAX_WIDTH ? null : new CreditCardRangeTable(ranges, width);
+        }
+
+        /** Number of prefix digits */
+        private final int width;
+
+        /** Number of ranges */
+        private final int size;
+
+        /** First prefix of each segment, ascending; a segment ends where the next one starts */
+        private final long[] starts;
+
+        /** Entries of segment i are entryStarts[i] to entryStarts[i + 1] - 1 */
+        private final int[] entryStarts;
+
+        /** Lengths owned by the entry, bit n for length n; the entries of a segment are disjoint */
+        private final long[] entryMasks;
+
+        /** Index in the constructor argument of the range owning the lengths of the entry */
+        private final int[] entryIndexes;
+
+        /**
+         * Creates a table of ranges.
+         *
+         * @param ranges the ranges
+         * @throws IllegalArgumentException if a range is not numeric, has more than 18 digits or
+         * allows lengths shorter than the longest prefix
+         */
+        public CreditCardRangeTable(final CreditCardRange[] ranges) {
+            this(ranges, check(ranges));
+        }
+
+        private static int check(final CreditCardRange[] ranges) {
+            if (ranges == null) {
+                throw new IllegalArgumentException("Card ranges are missing");
+            }
+            final CreditCardRangeTable table = create(ranges);
+            if (table == null) {
+                throw new IllegalArgumentException("Card ranges must be numeric, at most " + MAX_WIDTH
+                        + " digits and not longer than the valid lengths");
+            }
+            return table.width;
+        }
+
+        private CreditCardRangeTable(final CreditCardRange[] ranges, final int width) {
+            final int size = ranges.length;
+            final long[] low = new long[size];
+            final long[] end = new long[size]; // exclusive
+            final long[] mask = new long[size];
+            final long[] points = new long[2 * size];
+            for (int i = 0; i < size; i++) {
+                low[i] = toLong(pad(ranges[i].low, width, '0'));
+                end[i] = toLong(pad(ranges[i].high == null ? ranges[i].low : ranges[i].high, width, '9')) + 1;
+                mask[i] = lengthMask(ranges[i]);
+                points[2 * i] = low[i];
+                points[2 * i + 1] = end[i];
+            }
+            Arrays.sort(points);
+            final Integer[] byLow = new Integer[size];
+            final Integer[] byEnd = new Integer[size];
+            for (int i = 0; i < size; i++) {
+                byLow[i] = i;
+                byEnd[i] = i;
+            }
+            Arrays.sort(byLow, (a, b) -> Long.compare(low[a], low[b]));
+            Arrays.sort(byEnd, (a, b) -> Long.compare(end[a], end[b]));
+            // sweep over the segment bounds keeping the ranges covering the current segment
+            final TreeSet<Integer> active = new TreeSet<>();
+            final int[] lengthCounts = new int[Long.SIZE];
+            long[] segmentStarts = new long[Math.max(1, points.length)];
+            int[] segmentEntries = new int[segmentStarts.length + 1];
+            long[] masks = new long[Math.max(1, size)];
+            int[] indexes = new int[masks.length];
+            int segments = 0;
+            int entries = 0;
+            int added = 0;
+            int removed = 0;
+            for (int p = 0; p < points.length; p++) {
+                final long point = points[p];
+                if (p > 0 && point == points[p - 1]) {
+                    continue;
+                }
+                for (; removed < size && end[byEnd[removed]] == point; removed++) {
+                    active.remove(byEnd[removed]);
+                    count(lengthCounts, mask[byEnd[removed]], -1);
+                }
+                for (; added < size && low[byLow[added]] == point; added++) {
+                    active.add(byLow[added]);
+                    count(lengthCounts, mask[byLow[added]], 1);
+                }
+                long lengths = 0;
+                for (int n = 0; n < Long.SIZE; n++) {
+                    if (lengthCounts[n] > 0) {
+                        lengths |= 1L << n;
+                    }
+                }
+                final int first = entries;
+                long covered = 0;
+                for (final Iterator<Integer> it = active.iterator(); covered != lengths && it.hasNext();) {
+                    final int index = it.next();
+                    final long owned = mask[index] & ~covered;
+                    if (owned != 0) {
+                        if (entries == masks.length) {
+                            masks = Arrays.copyOf(masks, entries * 2);
+                            indexes = Arrays.copyOf(indexes, entries * 2);
+                        }
+                        masks[entries] = owned;
+                        indexes[entries] = index;
+                        entries++;
+                        covered |= owned;
+                    }
+                }
+                // merge with the previous segment if it has the same entries
+                if (segments > 0 && Arrays.equals(masks, segmentEntries[segments - 1], first, masks, first, entries)
+                        && Arrays.equals(indexes, segmentEntries[segments - 1], first, indexes, first, entries)) {
+                    entries = first;
+                    continue;
+                }
+                segmentStarts[segments] = point;
+                segmentEntries[segments] = first;
+                segments++;
+            }
+            segmentEntries[segments] = entries;
+            this.width = width;
+            this.size = size;
+            this.starts = Arrays.copyOf(segmentStarts, segments);
+            this.entryStarts = Arrays.copyOf(segmentEntries, segments + 1);
+            this.entryMasks = Arrays.copyOf(masks, entries);
+            this.entryIndexes = Arrays.copyOf(indexes, entries);
+        }
+
+        private static void count(final int[] lengthCounts, final long mask, final int delta) {
+            for (long bits = mask; bits != 0; bits &= bits - 1) {
+                lengthCounts[Long.numberOfTrailingZeros(bits)] += delta;
+            }
+        }
+
+        private static long toLong(final String digits) {
+            return digits.isEmpty() ? 0 : Long.parseLong(digits);
+        }
+
+        /**
+         * Finds the range which contains the card number.
+         * <p>
+         * The number must consist of digits and its length must be valid for the range.
+         * If several ranges match, the one given first to the constructor is returned.
+         * </p>
+         *
+         * @param card the card number
+         * @return the index of the range in the constructor argument or -1 if none contains the number
+         */
+        public int indexOf(final String card) {
+            if (card == null) {
+                return -1;
+            }
+            final int length = card.length();
+            if (length < width || length > IinTrie.MAX_LENGTH) {
+                return -1;
+            }
+            long key = 0;
+            for (int i = 0; i < length; i++) {
+                final char c = card.charAt(i);
+                if (c < '0' || c > '9') {
+                    return -1;
+                }
+                if (i < width) {
+                    key = key * 10 + c - '0'; // CHECKSTYLE IGNORE MagicNumber
+                }
+            }
+            final long lengthBit = 1L << length;
+            final int segment = upperBound(key) - 1;
+            if (segment < 0) {
+                return -1;
+            }
+            for (int i = entryStarts[segment]; i < entryStarts[segment + 1]; i++) {
+                if ((entryMasks[i] & lengthBit) != 0) {
+                    return entryIndexes[i];
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Tests whether a range contains the card number.
+         *
+         * @param card the card number
+         * @return {@code true} if a range contains the number
+         */
+        public boolean contains(final String card) {
+            return indexOf(card) >= 0;
+        }
+
+        /**
+         * Gets the number of ranges.
+         *
+         * @return the number of ranges
+         */
+        public int size() {
+            return size;
+        }
+
+        /** Gets the index of the first segment starting after the key */
+        private int upperBound(final long key) {
+            int low = 0;
+            int high = starts.length;
+            while (low < high) {
+                final int mid = low + high >>> 1;
+                if (starts[mid] <= key) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+
+    /**
+     * Digit trie over the IIN prefixes of the card types which are defined by
+     * {@link CreditCardRange}s and use the Luhn check digit.
+     * <p>
+     * Each node may carry entries (card type index and a bit mask of the valid lengths).
+     * A single scan of the number walks the trie, picks the first card type whose prefix
+     * and length match, and sums the Luhn check digit on the way.
+     * </p>
+     */
+    static final class IinTrie implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        /** Longest number the length masks can represent */
+        static final int MAX_LENGTH = Long.SIZE - 1;
+
+        /** Card types with more ranges are left to the {@link CreditCardRangeTable} */
+        static final int MAX_RANGES = 256;
+
+        private static final int RADIX = 10;
+
+        /** Luhn value of a doubled digit */
+        private static final int[] LUHN_DOUBLED = {0, 2, 4, 6, 8, 1, 3, 5, 7, 9}; // CHECKSTYLE IGNORE MagicNumber
+
+        /**
+         * Compiles the card types.
+         *
+         * @param cardTypes the card types in order of precedence
+         * @return the trie, card types which cannot be compiled are listed in {@link #uncompiled}
+         */
+        static IinTrie compile(final List<CodeValidator> cardTypes) {
+            final Builder builder = new Builder();
+            final List<Integer> uncompiled = new ArrayList<>();
+            for (int i = 0; i < cardTypes.size(); i++) {
+                final CreditCardRange[] ranges = getRanges(cardTypes.get(i));
+                if (ranges == null || !builder.add(i, ranges)) {
+                    uncompiled.add(i);
+                }
+            }
+            return builder.build(uncompiled);
+        }
+
+        /**
+         * Gets the IIN ranges of a card type if it only checks digits, ranges and the Luhn check digit.
+         */
+        private static CreditCardRange[] getRanges(final CodeValidator cardType) {
+            if (!(cardType.getCheckDigit() instanceof LuhnCheckDigit) || cardType.getMinLength() >= 0 || cardType.getMaxLength() >= 0) {
+                return null;
+            }
+            if (cardType.getRegexValidator() instanceof RangeRegexValidator) {
+                return ((RangeRegexValidator) cardType.getRegexValidator()).ranges;
+            }
+            return BRAND_RANGES.get(cardType);
+        }
+
+        /** Child node per node and digit, 0 if none */
+        private final int[] children;
+
+        /** Entries of node n are firstEntry[n] to firstEntry[n + 1] - 1 */
+        private final int[] firstEntry;
+
+        /** Card type index of an entry */
+        private final int[] entryType;
+
+        /** Valid lengths of an entry, bit n for length n */
+        private final long[] entryLengths;
+
+        /** Card types which are not in the trie, ascending */
+        final int[] uncompiled;
+
+        private IinTrie(final int[] children, final int[] firstEntry, final int[] entryType, final long[] entryLengths, final int[] uncompiled) {
+            this.children = children;
+            this.firstEntry = firstEntry;
+            this.entryType = entryType;
+            this.entryLengths = entryLengths;
+            this.uncompiled = uncompiled;
+        }
+
+        /**
+         * Finds the first compiled card type which accepts the card number.
+         *
+         * @param card the card number, surrounding whitespace is ignored as by {@link CodeValidator}
+         * @return the card type index or -1 if none matches or the check digit is wrong
+         */
+        int find(final String card) {
+            int start = 0;
+            int end = card.length();
+            while (start < end && card.charAt(start) <= ' ') {
+                start++;
+            }
+            while (end > start && card.charAt(end - 1) <= ' ') {
+                end--;
+            }
+            final int length = end - start;
+            if (length == 0 || length > MAX_LENGTH) {
+                return -1;
+            }
+            final long lengthBit = 1L << length;
+            int found = match(0, lengthBit, Integer.MAX_VALUE);
+            int node = 0;
+            int total = 0;
+            for (int i = start; i < end; i++) {
+                final int digit = card.charAt(i) - '0';
+                if (digit < 0 || digit >= RADIX) {
+                    return -1;
+                }
+                if (node >= 0) {
+                    node = children[node * RADIX + digit] - 1;
+                    if (node >= 0) {
+                        found = match(node, lengthBit, found);
+                    }
+                }
+                total += (end - i) % 2 == 0 ? LUHN_DOUBLED[digit] : digit;
+            }
+            return found != Integer.MAX_VALUE && total != 0 && total % RADIX == 0 ? found : -1;
+        }
+
+        private int match(final int node, final long lengthBit, final int found) {
+            int result = found;
+            for (int e = firstEntry[node]; e < firstEntry[node + 1]; e++) {
+                if ((entryLengths[e] & lengthBit) != 0 && entryType[e] < result) {
+                    result = entryType[e];
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Collects the prefixes of the card types.
+         */
+        private static final class Builder {
+
+            /** Child node + 1 per node and digit, 0 if none */
+            private int[] children = new int[RADIX * 16]; // CHECKSTYLE IGNORE MagicNumber
+            private final List<Map<Integer, Long>> entries = new ArrayList<>();
+
+            Builder() {
+                entries.add(new LinkedHashMap<>()); // root
+            }
+
+            /**
+             * Adds the ranges of a card type.
+             *
+             * @return false if a range cannot be represented in the trie, nothing is added then
+             */
+            boolean add(final int type, final CreditCardRange[] ranges) {
+                final long[] masks = new long[ranges.length];
+                for (int r = 0; r < ranges.length; r++) {
+                    masks[r] = lengthMask(ranges[r]);
+                    if (masks[r] < 0) {
+                        return false;
+                    }
+                }
+                for (int r = 0; r < ranges.length; r++) {
+                    if (masks[r] != 0) {
+                        final String low = ranges[r].low;
+                        final String high = ranges[r].high == null ? low : ranges[r].high;
+                        final int width = width(ranges[r]);
+                        addRange(0, 0, pad(low, width, '0'), pad(high, width, '9'), true, true, type, masks[r]);
+                    }
+                }
+                return true;
+            }
+
+            /**
+             * Adds the nodes for all prefixes between low and high (same width) below a node.
+             */
+            private void addRange(final int node, final int depth, final String low, final String high,
+                    final boolean lowBound, final boolean highBound, final int type, final long mask) {
+                if (depth == low.length() || !lowBound && !highBound) {
+                    entries.get(node).merge(type, mask, (a, b) -> a | b);
+                    return;
+                }
+                final int from = lowBound ? low.charAt(depth) - '0' : 0;
+                final int to = highBound ? high.charAt(depth) - '0' : RADIX - 1;
+                for (int digit = from; digit <= to; digit++) {
+                    addRange(child(node, digit), depth + 1, low, high, lowBound && digit == from, highBound && digit == to, type, mask);
+                }
+            }
+
+            private int child(final int node, final int digit) {
+                final int slot = node * RADIX + digit;
+                if (children[slot] == 0) {
+                    final int created = entries.size();
+                    entries.add(new LinkedHashMap<>());
+                    if ((created + 1) * RADIX > children.length) {
+                        children = Arrays.copyOf(children, children.length * 2);
+                    }
+                    children[slot] = created + 1;
+                }
+                return children[slot] - 1;
+            }
+
+            IinTrie build(final List<Integer> uncompiled) {
+                final int nodes = entries.size();
+                final int[] firstEntry = new int[nodes + 1];
+                int count = 0;
+                for (int n = 0; n < nodes; n++) {
+                    firstEntry[n] = count;
+                    count += entries.get(n).size();
+                }
+                firstEntry[nodes] = count;
+                final int[] entryType = new int[count];
+                final long[] entryLengths = new long[count];
+                int e = 0;
+                for (int n = 0; n < nodes; n++) {
+                    for (final Map.Entry<Integer, Long> entry : entries.get(n).entrySet()) {
+                        entryType[e] = entry.getKey();
+                        entryLengths[e++] = entry.getValue();
+                    }
+                }
+                final int[] skipped = new int[uncompiled.size()];
+                for (int i = 0; i < skipped.length; i++) {
+                    skipped[i] = uncompiled.get(i);
+                }
+                return new IinTrie(Arrays.copyOf(children, nodes * RADIX), firstEntry, entryType, entryLengths, skipped);
+            }
+        }
+    }
+
+    /**
+     * Regular expression validator of {@link #createRangeValidator(CreditCardRange[], CheckDigit)}.
+     */
+    private static final class RangeRegexValidator extends RegexValidator {
+        private static final long serialVersionUID = 1L;
+
+        /** The ranges, only kept if there are few enough for the {@link IinTrie} */
+        private final transient CreditCardRange[] ranges;
+
+        /** The ranges in a table or {@code null} if not supported */
+        private final CreditCardRangeTable table;
+
+        /** The ranges if they are not supported by the table */
+        private final transient CreditCardRange[] unsupported;
+
+        RangeRegexValidator(final CreditCardRange[] ranges) {
+            // must be numeric (rest of validation is done later)
+            super("(\\d+)");
+            this.table = CreditCardRangeTable.create(ranges);
+            this.unsupported = table == null ? ranges.clone() : null;
+            this.ranges = ranges.length <= IinTrie.MAX_RANGES ? ranges.clone() : null;
+        }
+
+        @Override
+        public boolean isValid(final String value) {
+            return validate(value) != null;
+        }
+
+        @Override
+        public String[] match(final String value) {
+            return new String[] { validate(value) };
+        }
+
+        @Override
+        // must return full string
+        public String validate(final String value) {
+            if (table != null) {
+                return value != null && table.contains(value) ? value : null;
+            }
+            if (super.match(value) != null) {
+                final int length = value.length();
+                for (final CreditCardRange range : unsupported) {
+                    if (validLength(length, range)) {
+                        if (range.high == null) { // single prefix only
+                            if (value.startsWith(range.low)) {
+                                return value;
+                            }
+                        } else if (range.low.compareTo(value) <= 0 // no need to trim value here
+                                &&
+                        // here we have to ignore digits beyond the prefix
+                                range.high.compareTo(value.substring(0, range.high.length())) >= 0) {
+                            return value;
+                        }
+                    }
+                }
+            }
+            return null;
+        }
+    }
+
     private static final long serialVersionUID = 5955978921148959496L;
 
     private static final int MIN_CC_LENGTH = 12; // minimum allowed length
@@ -242,7 +864,8 @@ public class CreditCardValidator implements Serializable {
      * <li>644xxx - 65xxxx (16)</li>
      * </ul>
      */
-    private static final RegexValidator DISCOVER_REGEX = new RegexValidator("^(6011\\d{12,13})$", "^(64[4-9]\\d{13})$", "^(65\\d{14})$", "^(62[2-8]\\d{13})$");
+    private static final RegexValidator DISCOVER_REGEX = new RegexValidator(new String[] {
+            "^(6011\\d{12,13})$", "^(64[4-9]\\d{13})$", "^(65\\d{14})$", "^(62[2-8]\\d{13})$" }, true, true);
 
     /** Discover Card Validator */
     public static final CodeValidator DISCOVER_VALIDATOR = new CodeValidator(DISCOVER_REGEX, LUHN_VALIDATOR);
@@ -253,9 +876,9 @@ public class CreditCardValidator implements Serializable {
      * <li>3528xx - 3589xx (16)</li>
      * </ul>
      */
-    private static final RegexValidator JCB_REGEX = new RegexValidator(
+    private static final RegexValidator JCB_REGEX = new RegexValidator(new String[] {
             "^(352[8-9]\\d{12})$",
-            "^(35[3-8]\\d{13})$");
+            "^(35[3-8]\\d{13})$" }, true, true);
 
     /** JCB Card Validator */
     public static final CodeValidator JCB_VALIDATOR = new CodeValidator(JCB_REGEX, LUHN_VALIDATOR);
@@ -267,7 +890,7 @@ public class CreditCardValidator implements Serializable {
      * <li>51xxx - 55xxx (16)</li>
      * </ul>
      */
-    private static final RegexValidator MASTERCARD_REGEX = new RegexValidator(
+    private static final RegexValidator MASTERCARD_REGEX = new RegexValidator(new String[] {
             "^(5[1-5]\\d{14})$",   // 51 - 55 (pre Oct 2016)
             // valid from October 2016
             "^(2221\\d{12})$",     // 222100 - 222199
@@ -276,7 +899,7 @@ public class CreditCardValidator implements Serializable {
             "^(2[3-6]\\d{14})$",   // 230000 - 269999
             "^(27[01]\\d{13})$",   // 270000 - 271999
             "^(2720\\d{12})$"      // 272000 - 272099
-        );
+        }, true, true);
 
     /** Mastercard Card Validator */
     public static final CodeValidator MASTERCARD_VALIDATOR = new CodeValidator(MASTERCARD_REGEX, LUHN_VALIDATOR);
@@ -305,47 +928,97 @@ public class CreditCardValidator implements Serializable {
      */
     public static final CodeValidator VPAY_VALIDATOR = new CodeValidator("^(4)(\\d{12,18})$", LUHN_VALIDATOR);
 
-    // package protected for unit test access
-    static CodeValidator createRangeValidator(final CreditCardRange[] creditCardRanges, final CheckDigit digitCheck) {
-        return new CodeValidator(
-                // must be numeric (rest of validation is done later)
-                new RegexValidator("(\\d+)") {
-                    private static final long serialVersionUID = 1L;
-                    private final transient CreditCardRange[] ccr = creditCardRanges.clone();
-
-                    @Override
-                    public boolean isValid(final String value) {
-                        return validate(value) != null;
-                    }
+    /**
+     * The IIN ranges of the predefined validators, they must match the regular expressions.
+     */
+    private static final Map<CodeValidator, CreditCardRange[]> BRAND_RANGES = new IdentityHashMap<>();
 
-                    @Override
-                    public String[] match(final String value) {
-                        return new String[] { validate(value) };
-                    }
+    static {
+        BRAND_RANGES.put(AMEX_VALIDATOR, new CreditCardRange[] {
+                new CreditCardRange("34", null, 15, 15),
+                new CreditCardRange("37", null, 15, 15) });
+        BRAND_RANGES.put(DINERS_VALIDATOR, new CreditCardRange[] {
+                new CreditCardRange("300", "305", 14, 14),
+                new CreditCardRange("3095", null, 14, 14),
+                new CreditCardRange("36", null, 14, 14),
+                new CreditCardRange("38", "39", 14, 14) });
+        BRAND_RANGES.put(DISCOVER_VALIDATOR, new CreditCardRange[] {
+                new CreditCardRange("6011", null, 16, 17),
+                new CreditCardRange("644", "649", 16, 16),
+                new CreditCardRange("65", null, 16, 16),
+                new CreditCardRange("622", "628", 16, 16) });
+        BRAND_RANGES.put(JCB_VALIDATOR, new CreditCardRange[] {
+                new CreditCardRange("3528", "3589", 16, 16) });
+        BRAND_RANGES.put(MASTERCARD_VALIDATOR, new CreditCardRange[] {
+                new CreditCardRange("51", "55", 16, 16),
+                new CreditCardRange("2221", "2720", 16, 16) });
+        BRAND_RANGES.put(VISA_VALIDATOR, new CreditCardRange[] {
+                new CreditCardRange("4", null, new int[] {13, 16}) });
+        BRAND_RANGES.put(VPAY_VALIDATOR, new CreditCardRange[] {
+                new CreditCardRange("4", null, 13, 19) });
+    }
 
-                    @Override
-                    // must return full string
-                    public String validate(final String value) {
-                        if (super.match(value) != null) {
-                            final int length = value.length();
-                            for (final CreditCardRange range : ccr) {
-                                if (validLength(length, range)) {
-                                    if (range.high == null) { // single prefix only
-                                        if (value.startsWith(range.low)) {
-                                            return value;
-                                        }
-                                    } else if (range.low.compareTo(value) <= 0 // no need to trim value here
-                                            &&
-                                    // here we have to ignore digits beyond the prefix
-                                            range.high.compareTo(value.substring(0, range.high.length())) >= 0) {
-                                        return value;
-                                    }
-                                }
-                            }
-                        }
-                        return null;
-                    }
-                }, digitCheck);
+    /**
+     * Gets the valid lengths of a range as bit mask, or -1 if the range is not suitable for the
+     * {@link IinTrie} and {@link CreditCardRangeTable}.
+     * The range must consist of digits and every valid length must cover the prefixes,
+     * otherwise the string comparison of {@code createRangeValidator} behaves differently.
+     */
+    static long lengthMask(final CreditCardRange range) {
+        if (range.low == null || !isDigits(range.low) || range.high != null && !isDigits(range.high)) {
+            return -1;
+        }
+        long mask = 0;
+        if (range.lengths != null) {
+            for (final int length : range.lengths) {
+                if (length > IinTrie.MAX_LENGTH) {
+                    return -1;
+                }
+                if (length > 0) {
+                    mask |= 1L << length;
+                }
+            }
+        } else {
+            if (range.maxLen > IinTrie.MAX_LENGTH) {
+                return -1;
+            }
+            for (int length = Math.max(range.minLen, 1); length <= range.maxLen; length++) {
+                mask |= 1L << length;
+            }
+        }
+        if (mask != 0 && Long.numberOfTrailingZeros(mask) < width(range)) {
+            return -1;
+        }
+        return mask;
+    }
+
+    private static boolean isDigits(final String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) < '0' || value.charAt(i) > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String pad(final String value, final int width, final char filler) {
+        final StringBuilder buffer = new StringBuilder(width).append(value);
+        while (buffer.length() < width) {
+            buffer.append(filler);
+        }
+        return buffer.toString();
+    }
+
+    /**
+     * Gets the number of prefix digits of a range.
+     */
+    static int width(final CreditCardRange range) {
+        return Math.max(range.low.length(), range.high == null ? 0 : range.high.length());
+    }
+
+    // package protected for unit test access
+    static CodeValidator createRangeValidator(final CreditCardRange[] creditCardRanges, final CheckDigit digitCheck) {
+        return new CodeValidator(new RangeRegexValidator(creditCardRanges), digitCheck);
     }
 
     /**
@@ -402,6 +1075,16 @@ public class CreditCardValidator implements Serializable {
      */
     private final List<CodeValidator> cardTypes = new ArrayList<>();
 
+    /**
+     * The compiled card types.
+     */
+    private final IinTrie iinTrie;
+
+    /**
+     * The hit counts if the card types are tried in adaptive order, otherwise {@code null}.
+     */
+    private final AdaptiveOrder adaptiveOrder;
+
     /**
      * Constructs a new CreditCardValidator with default options.
      * The default options are:
@@ -416,10 +1099,31 @@ public class CreditCardValidator implements Serializable {
      * @param creditCardValidators Set of valid code validators
      */
     public CreditCardValidator(final CodeValidator[] creditCardValidators) {
+        this(creditCardValidators, false);
+    }
+
+    /**
+     * Constructs a new CreditCardValidator with the specified {@link CodeValidator}s,
+     * optionally trying them in adaptive order.
+     * <p>
+     * In adaptive order the card types which are not compiled into the IIN trie
+     * (for example those with custom regular expressions) are tried most frequently
+     * matched first. The order is updated now and then from hit counts. Validity is
+     * not affected, but if several card types accept a number {@link #getCardType(String)}
+     * may return another one than the first configured.
+     * </p>
+     *
+     * @param creditCardValidators Set of valid code validators
+     * @param adaptiveOrder whether to try the card types most frequently matched first
+     * @since 2.10.6
+     */
+    public CreditCardValidator(final CodeValidator[] creditCardValidators, final boolean adaptiveOrder) {
         if (creditCardValidators == null) {
             throw new IllegalArgumentException("Card validators are missing");
         }
         Collections.addAll(cardTypes, creditCardValidators);
+        iinTrie = IinTrie.compile(cardTypes);
+        this.adaptiveOrder = adaptiveOrder ? new AdaptiveOrder(iinTrie.uncompiled, cardTypes.size()) : null;
     }
 
     /**
@@ -441,6 +1145,8 @@ public class CreditCardValidator implements Serializable {
         }
         Collections.addAll(cardTypes, creditCardValidators);
         Collections.addAll(cardTypes, createRangeValidator(creditCardRanges, LUHN_VALIDATOR));
+        iinTrie = IinTrie.compile(cardTypes);
+        adaptiveOrder = null;
     }
 
     /**
@@ -453,6 +1159,8 @@ public class CreditCardValidator implements Serializable {
             throw new IllegalArgumentException("Card ranges are missing");
         }
         Collections.addAll(cardTypes, createRangeValidator(creditCardRanges, LUHN_VALIDATOR));
+        iinTrie = IinTrie.compile(cardTypes);
+        adaptiveOrder = null;
     }
 
     /**
@@ -493,6 +1201,8 @@ public class CreditCardValidator implements Serializable {
         if (isOn(options, JCB)) {
             cardTypes.add(JCB_VALIDATOR);
         }
+        iinTrie = IinTrie.compile(cardTypes);
+        adaptiveOrder = null;
     }
 
     /**
@@ -507,6 +1217,53 @@ public class CreditCardValidator implements Serializable {
         return (options & flag) > 0;
     }
 
+    /**
+     * Gets the card type which accepts the card number.
+     * <p>
+     * If several card types accept the number, the first one in the order
+     * they were configured is returned.
+     * </p>
+     *
+     * @param card The card number to validate.
+     * @return The card type, for example {@link #VISA_VALIDATOR}, or {@code null}
+     * if the card number is invalid.
+     * @since 2.10.6
+     */
+    public CodeValidator getCardType(final String card) {
+        if (GenericValidator.isBlankOrNull(card)) {
+            return null;
+        }
+        final int index = indexOf(card);
+        return index < 0 ? null : cardTypes.get(index);
+    }
+
+    /**
+     * Finds the first card type which accepts the card number.
+     */
+    private int indexOf(final String card) {
+        final int found = iinTrie.find(card);
+        if (adaptiveOrder != null) {
+            if (found < 0) {
+                for (final int index : adaptiveOrder.getOrder()) {
+                    if (cardTypes.get(index).isValid(card)) {
+                        adaptiveOrder.hit(index);
+                        return index;
+                    }
+                }
+            }
+            return found;
+        }
+        for (final int index : iinTrie.uncompiled) {
+            if (found >= 0 && index > found) {
+                break;
+            }
+            if (cardTypes.get(index).isValid(card)) {
+                return index;
+            }
+        }
+        return found;
+    }
+
     /**
      * Checks if the field is a valid credit card number.
      * @param card The card number to validate.
@@ -516,12 +1273,7 @@ public class CreditCardValidator implements Serializable {
         if (GenericValidator.isBlankOrNull(card)) {
             return false;
         }
-        for (final CodeValidator cardType : cardTypes) {
-            if (cardType.isValid(card)) {
-                return true;
-            }
-        }
-        return false;
+        return indexOf(card) >= 0;
     }
 
     /**
@@ -534,15 +1286,23 @@ public class CreditCardValidator implements Serializable {
         if (GenericValidator.isBlankOrNull(card)) {
             return null;
         }
-        Object result = null;
-        for (final CodeValidator cardType : cardTypes) {
-            result = cardType.validate(card);
+        final int found = iinTrie.find(card);
+        if (found >= 0 && adaptiveOrder != null) {
+            return card.trim();
+        }
+        for (final int index : adaptiveOrder != null ? adaptiveOrder.getOrder() : iinTrie.uncompiled) {
+            if (found >= 0 && index > found) {
+                break;
+            }
+            final Object result = cardTypes.get(index).validate(card);
             if (result != null) {
+                if (adaptiveOrder != null) {
+                    adaptiveOrder.hit(index);
+                }
                 return result;
             }
         }
-        return null;
-
+        return found >= 0 ? card.trim() : null;
     }
 
 }
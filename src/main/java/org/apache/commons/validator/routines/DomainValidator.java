@@ -16,11 +16,24 @@
  */
 package org.apache.commons.validator.routines;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
 import java.io.Serializable;
 import java.net.IDN;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * <p><strong>Domain name</strong> validation routines.</p>
@@ -112,6 +125,118 @@ public class DomainValidator implements Serializable {
         ;
     }
 
+    /**
+     * Bounded cache of the conversions of non-ASCII domain names to punycode, see {@link DomainValidator#setIDNCacheSize(int)}.
+     * <p>
+     * Hits are lock free. When the cache is full a miss evicts an entry with the CLOCK algorithm,
+     * which approximates evicting the least recently used entry.
+     * </p>
+     *
+     * @since 2.10.6
+     */
+    public static final class IDNCache {
+
+        /** A cached conversion */
+        private static final class Entry {
+            private final String key;
+            private final String value;
+            private volatile boolean referenced;
+
+            Entry(final String key, final String value) {
+                this.key = key;
+                this.value = value;
+            }
+        }
+
+        private final ConcurrentHashMap<String, Entry> entries;
+
+        /** The clock, guarded by this */
+        private final Entry[] ring;
+
+        /** The clock hand, guarded by this */
+        private int hand;
+
+        private final LongAdder hits = new LongAdder();
+
+        private final LongAdder misses = new LongAdder();
+
+        private IDNCache(final int maximumSize) {
+            this.entries = new ConcurrentHashMap<>(maximumSize * 4 / 3 + 1); // CHECKSTYLE IGNORE MagicNumber
+            this.ring = new Entry[maximumSize];
+        }
+
+        private String get(final String key) {
+            final Entry entry = entries.get(key);
+            if (entry == null) {
+                misses.increment();
+                return null;
+            }
+            if (!entry.referenced) {
+                entry.referenced = true;
+            }
+            hits.increment();
+            return entry.value;
+        }
+
+        private synchronized void put(final String key, final String value) {
+            if (entries.containsKey(key)) {
+                return;
+            }
+            while (true) {
+                final Entry victim = ring[hand];
+                if (victim == null || !victim.referenced) {
+                    if (victim != null) {
+                        entries.remove(victim.key);
+                    }
+                    final Entry entry = new Entry(key, value);
+                    ring[hand] = entry;
+                    entries.put(key, entry);
+                    hand = (hand + 1) % ring.length;
+                    return;
+                }
+                // second chance
+                victim.referenced = false;
+                hand = (hand + 1) % ring.length;
+            }
+        }
+
+        /**
+         * Gets the number of lookups which found a conversion.
+         *
+         * @return the number of hits.
+         */
+        public long getHits() {
+            return hits.sum();
+        }
+
+        /**
+         * Gets the maximum number of conversions kept.
+         *
+         * @return the maximum size.
+         */
+        public int getMaximumSize() {
+            return ring.length;
+        }
+
+        /**
+         * Gets the number of lookups which had to convert the domain name.
+         *
+         * @return the number of misses.
+         */
+        public long getMisses() {
+            return misses.sum();
+        }
+
+        /**
+         * Gets the number of conversions kept.
+         *
+         * @return the size.
+         */
+        public int size() {
+            return entries.size();
+        }
+    }
+
     private static class IDNBUGHOLDER {
         private static final boolean IDN_TOASCII_PRESERVES_TRAILING_DOTS = keepsTrailingDot();
         private static boolean keepsTrailingDot() {
@@ -141,6 +266,120 @@ public class DomainValidator implements Serializable {
         }
     }
 
+    /**
+     * Immutable hash table of all TLDs of an instance with their categories.
+     * <p>
+     * The built-in tables and the overrides are merged once, so a lookup is one
+     * case-insensitive probe over a range of the input instead of several binary searches
+     * over lower-cased copies.
+     * </p>
+     */
+    static final class TldTable implements Serializable {
+
+        private static final long serialVersionUID = 1L;
+
+        /** Category of {@link ArrayType#INFRASTRUCTURE_RO} */
+        static final int INFRASTRUCTURE = 1;
+
+        /** Category of {@link ArrayType#GENERIC_RO} and its overrides */
+        static final int GENERIC = 2;
+
+        /** Category of {@link ArrayType#COUNTRY_CODE_RO} and its overrides */
+        static final int COUNTRY_CODE = 4;
+
+        /** Category of {@link ArrayType#LOCAL_RO} and its overrides */
+        static final int LOCAL = 8;
+
+        /**
+         * Hashes a range folding ASCII upper case letters to lower case.
+         */
+        private static int hash(final CharSequence text, final int start, final int end) {
+            int hash = 0;
+            for (int i = start; i < end; i++) {
+                hash = 31 * hash + toLowerCase(text.charAt(i)); // CHECKSTYLE IGNORE MagicNumber
+            }
+            return hash ^ hash >>> 16; // CHECKSTYLE IGNORE MagicNumber
+        }
+
+        private static char toLowerCase(final char c) {
+            return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+        }
+
+        /** The IANA tables the table was compiled from, see {@link DomainValidator#updateTLDs(Reader)} */
+        private final transient String[][] source;
+
+        /** Keys, lower case, open addressing with linear probing */
+        private final String[] keys;
+
+        /** Categories of the keys */
+        private final byte[] categories;
+
+        /**
+         * Merges the TLDs of each category.
+         *
+         * @param source the IANA tables the TLDs are based on
+         * @param tlds the TLDs, lower case, indexed by category bit (infrastructure, generic, country code, local)
+         * @param minus the TLDs removed from a category, indexed the same way
+         */
+        TldTable(final String[][] source, final String[][] tlds, final String[][] minus) {
+            this.source = source;
+            final Map<String, Integer> merged = new HashMap<>();
+            for (int bit = 0; bit < tlds.length; bit++) {
+                final Set<String> removed = new HashSet<>(Arrays.asList(minus[bit]));
+                for (final String tld : tlds[bit]) {
+                    if (!removed.contains(tld)) {
+                        merged.merge(tld, 1 << bit, (a, b) -> a | b);
+                    }
+                }
+            }
+            final int capacity = Integer.highestOneBit(Math.max(merged.size(), 1) * 2) << 1;
+            keys = new String[capacity];
+            categories = new byte[capacity];
+            for (final Map.Entry<String, Integer> entry : merged.entrySet()) {
+                final String key = entry.getKey();
+                int slot = hash(key, 0, key.length()) & capacity - 1;
+                while (keys[slot] != null) {
+                    slot = slot + 1 & capacity - 1;
+                }
+                keys[slot] = key;
+                categories[slot] = entry.getValue().byteValue();
+            }
+        }
+
+        /**
+         * Gets the categories of a TLD, ASCII letters are compared case-insensitively.
+         *
+         * @param text the text containing the TLD
+         * @param start the start of the TLD
+         * @param end the end (exclusive) of the TLD
+         * @return the category bits, 0 if the TLD is unknown
+         */
+        int get(final CharSequence text, final int start, final int end) {
+            final int mask = keys.length - 1;
+            int slot = hash(text, start, end) & mask;
+            String key;
+            while ((key = keys[slot]) != null) {
+                if (matches(key, text, start, end)) {
+                    return categories[slot];
+                }
+                slot = slot + 1 & mask;
+            }
+            return 0;
+        }
+
+        private static boolean matches(final String key, final CharSequence text, final int start, final int end) {
+            if (key.length() != end - start) {
+                return false;
+            }
+            for (int i = start; i < end; i++) {
+                if (key.charAt(i - start) != toLowerCase(text.charAt(i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
     // Regular expression strings for hostnames (derived from RFC2396 and RFC 1123)
 
     private static class LazyHolder { // IODH
@@ -166,26 +405,14 @@ public class DomainValidator implements Serializable {
 
     private static final long serialVersionUID = -4407125112880174009L;
 
-    // RFC2396: domainlabel   = alphanum | alphanum *( alphanum | "-" ) alphanum
-    // Max 63 characters
-    private static final String DOMAIN_LABEL_REGEX = "\\p{Alnum}(?>[\\p{Alnum}-]{0,61}\\p{Alnum})?";
+    /** Maximum length ({@value}) of a label */
+    private static final int MAX_LABEL_LENGTH = 63;
 
-    // RFC2396 toplabel = alpha | alpha *( alphanum | "-" ) alphanum
-    // Max 63 characters
-    private static final String TOP_LABEL_REGEX = "\\p{Alpha}(?>[\\p{Alnum}-]{0,61}\\p{Alnum})?";
+    /** Result of {@link #scanDomain(CharSequence, int, int)} for a single label */
+    static final int SINGLE_LABEL = -2;
 
-    /**
-     * The above instances must only be returned via the getInstance() methods.
-     * This is to ensure that the override data arrays are properly protected.
-     */
-
-    // RFC2396 hostname = *( domainlabel "." ) toplabel [ "." ]
-    // Note that the regex currently requires both a domain label and a top level label, whereas
-    // the RFC does not. This is because the regex is used to detect if a TLD is present.
-    // If the match fails, input is checked against DOMAIN_LABEL_REGEX (hostnameRegex)
-    // RFC1123 sec 2.1 allows hostnames to start with a digit
-    private static final String DOMAIN_NAME_REGEX =
-            "^(?:" + DOMAIN_LABEL_REGEX + "\\.)+(" + TOP_LABEL_REGEX + ")\\.?$";
+    /** Result of {@link #scanDomain(CharSequence, int, int)} for invalid syntax */
+    static final int INVALID_SYNTAX = -1;
     private static final String UNEXPECTED_ENUM_VALUE = "Unexpected enum value: ";
 
     // WARNING: this array MUST be sorted, otherwise it cannot be searched reliably using binary search
@@ -1792,14 +2019,17 @@ public class DomainValidator implements Serializable {
     /*
      * This field is used to detect whether the getInstance has been called.
      * After this, the method updateTLDOverride is not allowed to be called.
-     * This field does not need to be volatile since it is only accessed from
-     * synchronized methods.
+     * It is only set while holding the class lock, like the override arrays are updated,
+     * so a getInstance which sees it set also sees the final overrides without locking.
      */
-    private static boolean inUse; //NOPMD @GuardedBy("this")
+    private static volatile boolean inUse;
+
+    /** Cache of unicodeToASCII, null if disabled. */
+    private static volatile IDNCache idnCache;
     /*
      * These arrays are mutable.
      * They can only be updated by the updateTLDOverride method, and readers must first get an instance
-     * using the getInstance methods which are all (now) synchronized.
+     * using the getInstance methods which all call markInUse.
      * The only other access is via getTLDEntries which is now synchronized.
      */
     // WARNING: this array MUST be sorted, otherwise it cannot be searched reliably using binary search
@@ -1822,15 +2052,21 @@ public class DomainValidator implements Serializable {
     // WARNING: this array MUST be sorted, otherwise it cannot be searched reliably using binary search
     private static String[] localTLDsPlus = EMPTY_STRING_ARRAY; //NOPMD @GuardedBy("this")
 
+    /*
+     * The IANA infrastructure, generic and country code TLDs, sorted.
+     * Replaced as a whole by updateTLDs, instances recompile their tables when they see a new snapshot.
+     */
+    private static volatile String[][] ianaTLDs = { INFRASTRUCTURE_TLDS, GENERIC_TLDS, COUNTRY_CODE_TLDS };
+
     /**
-     * Tests if a sorted array contains the specified key
-     *
-     * @param sortedArray the array to search.
-     * @param key the key to find.
-     * @return {@code true} if the array contains the key.
+     * Prevents further updates of the overrides, only the first call takes the class lock.
      */
-    private static boolean arrayContains(final String[] sortedArray, final String key) {
-        return Arrays.binarySearch(sortedArray, key) >= 0;
+    private static void markInUse() {
+        if (!inUse) {
+            synchronized (DomainValidator.class) {
+                inUse = true;
+            }
+        }
     }
 
     /**
@@ -1838,8 +2074,8 @@ public class DomainValidator implements Serializable {
      *
      * @return the singleton instance of this validator.
      */
-    public static synchronized DomainValidator getInstance() {
-        inUse = true;
+    public static DomainValidator getInstance() {
+        markInUse();
         return LazyHolder.DOMAIN_VALIDATOR;
     }
 
@@ -1849,8 +2085,8 @@ public class DomainValidator implements Serializable {
      * @param allowLocal Whether local addresses are considered valid.
      * @return the singleton instance of this validator.
      */
-    public static synchronized DomainValidator getInstance(final boolean allowLocal) {
-        inUse = true;
+    public static DomainValidator getInstance(final boolean allowLocal) {
+        markInUse();
         if (allowLocal) {
             return LazyHolder.DOMAIN_VALIDATOR_WITH_LOCAL;
         }
@@ -1867,8 +2103,8 @@ public class DomainValidator implements Serializable {
      * @return an instance of this validator.
      * @since 1.7
      */
-    public static synchronized DomainValidator getInstance(final boolean allowLocal, final List<Item> items) {
-        inUse = true;
+    public static DomainValidator getInstance(final boolean allowLocal, final List<Item> items) {
+        markInUse();
         return new DomainValidator(allowLocal, items);
     }
 
@@ -1902,13 +2138,13 @@ public class DomainValidator implements Serializable {
             array = localTLDsPlus;
             break;
         case GENERIC_RO:
-            array = GENERIC_TLDS;
+            array = ianaTLDs[1];
             break;
         case COUNTRY_CODE_RO:
-            array = COUNTRY_CODE_TLDS;
+            array = ianaTLDs[2];
             break;
         case INFRASTRUCTURE_RO:
-            array = INFRASTRUCTURE_TLDS;
+            array = ianaTLDs[0];
             break;
         case LOCAL_RO:
             array = LOCAL_TLDS;
@@ -1919,14 +2155,81 @@ public class DomainValidator implements Serializable {
         return Arrays.copyOf(array, array.length); // clone the array
     }
 
+    /**
+     * Scans the syntax of a domain name in one pass without creating any objects.
+     * <p>
+     * The grammar follows RFC2396 and RFC1123 sec 2.1 (which allows labels to start with a digit):
+     * </p>
+     * <pre>
+     * domainlabel = alphanum | alphanum *( alphanum | "-" ) alphanum ; max 63 characters
+     * toplabel    = alpha | alpha *( alphanum | "-" ) alphanum     ; max 63 characters
+     * hostname    = 1*( domainlabel "." ) toplabel [ "." ]
+     * </pre>
+     * <p>
+     * Note that unlike the RFC a hostname requires both a domain label and a top level label,
+     * to detect if a TLD is present. A single domain label without a dot is reported separately
+     * as it may be a local hostname. Only ASCII letters and digits are alphanumeric.
+     * </p>
+     *
+     * @param domain the text containing the domain name
+     * @param start the start of the domain name
+     * @param end the end (exclusive) of the domain name
+     * @return the start of the top level label (which ends before the optional trailing dot),
+     * {@link #SINGLE_LABEL} or {@link #INVALID_SYNTAX}
+     */
+    static int scanDomain(final CharSequence domain, final int start, final int end) {
+        int labelStart = start;
+        int lastLabel = INVALID_SYNTAX;
+        int labels = 0;
+        for (int i = start; i < end; i++) {
+            final char c = domain.charAt(i);
+            if (c == '.') {
+                final int length = i - labelStart;
+                if (length == 0 || length > MAX_LABEL_LENGTH || domain.charAt(i - 1) == '-') {
+                    return INVALID_SYNTAX;
+                }
+                lastLabel = labelStart;
+                labels++;
+                labelStart = i + 1;
+            } else if (!isAlnum(c) && (c != '-' || i == labelStart)) {
+                return INVALID_SYNTAX;
+            }
+        }
+        final int length = end - labelStart;
+        if (length == 0) {
+            // trailing dot, only after a top level label
+            if (labels < 2) {
+                return INVALID_SYNTAX;
+            }
+        } else {
+            if (length > MAX_LABEL_LENGTH || domain.charAt(end - 1) == '-') {
+                return INVALID_SYNTAX;
+            }
+            if (labels == 0) {
+                return SINGLE_LABEL;
+            }
+            lastLabel = labelStart;
+        }
+        return isAlpha(domain.charAt(lastLabel)) ? lastLabel : INVALID_SYNTAX;
+    }
+
+    private static boolean isAlpha(final char c) {
+        return c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z';
+    }
+
+    private static boolean isAlnum(final char c) {
+        return isAlpha(c) || c >= '0' && c <= '9';
+    }
+
     /*
      * Tests whether input contains only ASCII. Treats null as all ASCII.
      */
     private static boolean isOnlyASCII(final String input) {
-        if (input == null) {
-            return true;
-        }
-        for (int i = 0; i < input.length(); i++) {
+        return input == null || isOnlyASCII(input, 0, input.length());
+    }
+
+    private static boolean isOnlyASCII(final CharSequence input, final int start, final int end) {
+        for (int i = start; i < end; i++) {
             if (input.charAt(i) > 0x7F) { // CHECKSTYLE IGNORE MagicNumber
                 return false;
             }
@@ -1934,8 +2237,41 @@ public class DomainValidator implements Serializable {
         return true;
     }
 
+    /**
+     * Enables, resizes or disables the cache of the conversions of non-ASCII domain names to punycode.
+     * <p>
+     * The conversion is expensive, a cache pays off when the same internationalized domain names recur.
+     * ASCII domain names are never converted nor cached. The cache is disabled by default.
+     * </p>
+     *
+     * @param maximumSize the maximum number of conversions kept, 0 disables the cache.
+     * Any previous cache is discarded together with its counters.
+     * @throws IllegalArgumentException if the size is negative.
+     * @since 2.10.6
+     */
+    public static void setIDNCacheSize(final int maximumSize) {
+        if (maximumSize < 0) {
+            throw new IllegalArgumentException("Invalid cache size: " + maximumSize);
+        }
+        idnCache = maximumSize == 0 ? null : new IDNCache(maximumSize);
+    }
+
+    /**
+     * Gets the cache of the conversions of non-ASCII domain names to punycode, to inspect its counters.
+     *
+     * @return the cache or {@code null} if it is disabled.
+     * @see #setIDNCacheSize(int)
+     * @since 2.10.6
+     */
+    public static IDNCache getIDNCache() {
+        return idnCache;
+    }
+
     /**
      * Converts potentially Unicode input to punycode. If conversion fails, returns the original input.
+     * <p>
+     * ASCII input is returned as is without any processing, other input may be looked up in the {@link IDNCache}.
+     * </p>
      *
      * @param input the string to convert, not null.
      * @return converted input, or original input if conversion fails.
@@ -1945,6 +2281,19 @@ public class DomainValidator implements Serializable {
         if (isOnlyASCII(input)) { // skip possibly expensive processing
             return input;
         }
+        final IDNCache cache = idnCache;
+        if (cache == null) {
+            return convertToASCII(input);
+        }
+        String ascii = cache.get(input);
+        if (ascii == null) {
+            ascii = convertToASCII(input);
+            cache.put(input, ascii);
+        }
+        return ascii;
+    }
+
+    private static String convertToASCII(final String input) {
         try {
             final String ascii = IDN.toASCII(input);
             if (IDNBUGHOLDER.IDN_TOASCII_PRESERVES_TRAILING_DOTS) {
@@ -2039,6 +2388,82 @@ public class DomainValidator implements Serializable {
         }
     }
 
+    /**
+     * Replaces the IANA TLDs of all instances, including the shared ones, with a copy of the IANA list
+     * <a href="https://data.iana.org/TLD/tlds-alpha-by-domain.txt">tlds-alpha-by-domain.txt</a>.
+     * <p>
+     * Unlike {@link #updateTLDOverride(ArrayType, String[])} this may be called at any time. Validation in progress
+     * uses either the old or the new TLDs, never a mix. TLDs which are missing from the list are no longer valid,
+     * the overrides and the local TLDs are still applied. New TLDs of two letters are treated as country codes,
+     * others as generic TLDs.
+     * </p>
+     * <p>
+     * The list has one TLD per line, lines starting with {@code #} are comments.
+     * </p>
+     *
+     * @param reader the list, not closed
+     * @throws IOException if the list cannot be read
+     * @throws IllegalArgumentException if a TLD is not a valid top level label or the list is empty
+     * @since 2.10.6
+     */
+    public static synchronized void updateTLDs(final Reader reader) throws IOException {
+        final List<String> infrastructure = new ArrayList<>();
+        final List<String> generic = new ArrayList<>();
+        final List<String> countryCode = new ArrayList<>();
+        final BufferedReader lines = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+        String line;
+        while ((line = lines.readLine()) != null) {
+            final String tld = line.trim().toLowerCase(Locale.ENGLISH);
+            if (tld.isEmpty() || tld.startsWith("#")) {
+                continue;
+            }
+            if (scanDomain(tld, 0, tld.length()) != SINGLE_LABEL || !isAlpha(tld.charAt(0))) {
+                throw new IllegalArgumentException("Invalid TLD: " + line);
+            }
+            if (Arrays.binarySearch(INFRASTRUCTURE_TLDS, tld) >= 0) {
+                infrastructure.add(tld);
+            } else if (Arrays.binarySearch(COUNTRY_CODE_TLDS, tld) >= 0
+                    || Arrays.binarySearch(GENERIC_TLDS, tld) < 0 && tld.length() == 2) {
+                countryCode.add(tld);
+            } else {
+                generic.add(tld);
+            }
+        }
+        if (infrastructure.isEmpty() && generic.isEmpty() && countryCode.isEmpty()) {
+            throw new IllegalArgumentException("No TLDs");
+        }
+        ianaTLDs = new String[][] { sorted(infrastructure), sorted(generic), sorted(countryCode) };
+    }
+
+    /**
+     * Replaces the IANA TLDs of all instances with a copy of the IANA list in a file.
+     *
+     * @param file the list in US-ASCII, see {@link #updateTLDs(Reader)}
+     * @throws IOException if the list cannot be read
+     * @throws IllegalArgumentException if a TLD is not a valid top level label or the list is empty
+     * @since 2.10.6
+     */
+    public static void updateTLDs(final Path file) throws IOException {
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.US_ASCII)) {
+            updateTLDs(reader);
+        }
+    }
+
+    /**
+     * Restores the IANA TLDs built into this version, undoing {@link #updateTLDs(Reader)}.
+     *
+     * @since 2.10.6
+     */
+    public static synchronized void resetTLDs() {
+        ianaTLDs = new String[][] { INFRASTRUCTURE_TLDS, GENERIC_TLDS, COUNTRY_CODE_TLDS };
+    }
+
+    private static String[] sorted(final List<String> tlds) {
+        final String[] array = tlds.stream().distinct().toArray(String[]::new);
+        Arrays.sort(array);
+        return array;
+    }
+
     /** Whether to allow local overrides. */
     private final boolean allowLocal;
 
@@ -2056,19 +2481,6 @@ public class DomainValidator implements Serializable {
     // .bl  country-code    Not assigned
     // .um  country-code    Not assigned
 
-    /**
-     * RegexValidator for matching domains.
-     */
-    private final RegexValidator domainRegex =
-            new RegexValidator(DOMAIN_NAME_REGEX);
-
-    /**
-     * RegexValidator for matching a local hostname
-     */
-    // RFC1123 sec 2.1 allows hostnames to start with a digit
-    private final RegexValidator hostnameRegex =
-            new RegexValidator(DOMAIN_LABEL_REGEX);
-
     /** Local override. */
     final String[] myCountryCodeTLDsMinus;
 
@@ -2090,6 +2502,9 @@ public class DomainValidator implements Serializable {
     /** Local override. */
     final String[] myLocalTLDsMinus;
 
+    /** All TLDs including the overrides, recompiled after {@link #updateTLDs(Reader)}. */
+    private volatile TldTable tldTable;
+
     /*
      * It is vital that instances are immutable. This is because the default instances are shared.
      */
@@ -2106,6 +2521,7 @@ public class DomainValidator implements Serializable {
         myGenericTLDsMinus = genericTLDsMinus;
         myLocalTLDsPlus = localTLDsPlus;
         myLocalTLDsMinus = localTLDsMinus;
+        tldTable = newTldTable();
     }
 
     /**
@@ -2166,6 +2582,55 @@ public class DomainValidator implements Serializable {
         myGenericTLDsPlus = genPlus;
         myLocalTLDsMinus = localMinus;
         myLocalTLDsPlus = localPlus;
+        tldTable = newTldTable();
+    }
+
+    private TldTable newTldTable() {
+        final String[][] iana = ianaTLDs;
+        return new TldTable(iana,
+                new String[][] { iana[0], concat(iana[1], myGenericTLDsPlus),
+                    concat(iana[2], myCountryCodeTLDsPlus), concat(LOCAL_TLDS, myLocalTLDsPlus) },
+                new String[][] { EMPTY_STRING_ARRAY, myGenericTLDsMinus, myCountryCodeTLDsMinus, myLocalTLDsMinus });
+    }
+
+    /**
+     * Gets the TLD table, recompiling it if the IANA TLDs have been updated.
+     */
+    private TldTable tldTable() {
+        TldTable table = tldTable;
+        if (table == null || table.source != ianaTLDs) {
+            // racing threads compile equal tables
+            table = newTldTable();
+            tldTable = table;
+        }
+        return table;
+    }
+
+    private static String[] concat(final String[] first, final String[] second) {
+        final String[] result = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, result, first.length, second.length);
+        return result;
+    }
+
+    /**
+     * Gets the categories of a TLD, see {@link TldTable}.
+     * <p>
+     * ASCII input is looked up in place, as if lower-cased and without a leading dot.
+     * </p>
+     */
+    private int tldCategories(final String tld) {
+        if (isOnlyASCII(tld)) {
+            return tldCategories(tld, tld.startsWith(".") ? 1 : 0, tld.length());
+        }
+        final String key = chompLeadingDot(unicodeToASCII(tld).toLowerCase(Locale.ENGLISH));
+        return tldTable().get(key, 0, key.length());
+    }
+
+    /**
+     * Gets the categories of a TLD in a range of ASCII text, see {@link TldTable}.
+     */
+    int tldCategories(final CharSequence text, final int start, final int end) {
+        return tldTable().get(text, start, end);
     }
 
     private String chompLeadingDot(final String str) {
@@ -2235,14 +2700,34 @@ public class DomainValidator implements Serializable {
         // Unicode is never shorter than punycode, so check punycode
         // if domain did not convert, then it will be caught by ASCII
         // checks in the regexes below
-        if (ascii.length() > MAX_DOMAIN_LENGTH) {
+        return isValidASCII(ascii, 0, ascii.length());
+    }
+
+    /**
+     * Tests whether a range of text is a valid domain name, see {@link #isValid(String)}.
+     * ASCII text is checked in place.
+     *
+     * @param text the text containing the domain name
+     * @param start the start of the domain name
+     * @param end the end (exclusive) of the domain name
+     * @return true if the range is a valid domain name
+     */
+    boolean isValid(final CharSequence text, final int start, final int end) {
+        if (!isOnlyASCII(text, start, end)) {
+            return isValid(text.subSequence(start, end).toString());
+        }
+        return isValidASCII(text, start, end);
+    }
+
+    private boolean isValidASCII(final CharSequence ascii, final int start, final int end) {
+        if (end - start > MAX_DOMAIN_LENGTH) {
             return false;
         }
-        final String[] groups = domainRegex.match(ascii);
-        if (groups != null && groups.length > 0) {
-            return isValidTld(groups[0]);
+        final int tld = scanDomain(ascii, start, end);
+        if (tld >= 0) {
+            return isValidTld(tldCategories(ascii, tld, ascii.charAt(end - 1) == '.' ? end - 1 : end));
         }
-        return allowLocal && hostnameRegex.isValid(ascii);
+        return allowLocal && tld == SINGLE_LABEL;
     }
 
     /**
@@ -2253,8 +2738,7 @@ public class DomainValidator implements Serializable {
      * @return true if the parameter is a country code TLD.
      */
     public boolean isValidCountryCodeTld(final String ccTld) {
-        final String key = chompLeadingDot(unicodeToASCII(ccTld).toLowerCase(Locale.ENGLISH));
-        return (arrayContains(COUNTRY_CODE_TLDS, key) || arrayContains(myCountryCodeTLDsPlus, key)) && !arrayContains(myCountryCodeTLDsMinus, key);
+        return (tldCategories(ccTld) & TldTable.COUNTRY_CODE) != 0;
     }
 
     // package protected for unit test access
@@ -2271,8 +2755,7 @@ public class DomainValidator implements Serializable {
         if (ascii.length() > MAX_DOMAIN_LENGTH) {
             return false;
         }
-        final String[] groups = domainRegex.match(ascii);
-        return groups != null && groups.length > 0 || hostnameRegex.isValid(ascii);
+        return scanDomain(ascii, 0, ascii.length()) != INVALID_SYNTAX;
     }
 
     /**
@@ -2283,8 +2766,7 @@ public class DomainValidator implements Serializable {
      * @return true if the parameter is a generic TLD.
      */
     public boolean isValidGenericTld(final String gTld) {
-        final String key = chompLeadingDot(unicodeToASCII(gTld).toLowerCase(Locale.ENGLISH));
-        return (arrayContains(GENERIC_TLDS, key) || arrayContains(myGenericTLDsPlus, key)) && !arrayContains(myGenericTLDsMinus, key);
+        return (tldCategories(gTld) & TldTable.GENERIC) != 0;
     }
 
     /**
@@ -2295,8 +2777,7 @@ public class DomainValidator implements Serializable {
      * @return true if the parameter is an infrastructure TLD.
      */
     public boolean isValidInfrastructureTld(final String iTld) {
-        final String key = chompLeadingDot(unicodeToASCII(iTld).toLowerCase(Locale.ENGLISH));
-        return arrayContains(INFRASTRUCTURE_TLDS, key);
+        return (tldCategories(iTld) & TldTable.INFRASTRUCTURE) != 0;
     }
 
     /**
@@ -2307,9 +2788,7 @@ public class DomainValidator implements Serializable {
      * @return true if the parameter is a local TLD.
      */
     public boolean isValidLocalTld(final String lTld) {
-        final String key = chompLeadingDot(unicodeToASCII(lTld).toLowerCase(Locale.ENGLISH));
-        return (arrayContains(LOCAL_TLDS, key) || arrayContains(myLocalTLDsPlus, key))
-                && !arrayContains(myLocalTLDsMinus, key);
+        return (tldCategories(lTld) & TldTable.LOCAL) != 0;
     }
 
     /**
@@ -2324,11 +2803,29 @@ public class DomainValidator implements Serializable {
      * @return true if the parameter is a TLD.
      */
     public boolean isValidTld(final String tld) {
-        if (allowLocal && isValidLocalTld(tld)) {
+        return isValidTld(tldCategories(tld));
+    }
+
+    /**
+     * Tests whether a range of text is a TLD, see {@link #isValidTld(String)}.
+     * ASCII text is looked up in place.
+     *
+     * @param text the text containing the TLD
+     * @param start the start of the TLD
+     * @param end the end (exclusive) of the TLD
+     * @return true if the range is a TLD
+     */
+    boolean isValidTld(final CharSequence text, final int start, final int end) {
+        if (!isOnlyASCII(text, start, end)) {
+            return isValidTld(text.subSequence(start, end).toString());
+        }
+        return isValidTld(tldCategories(text, start < end && text.charAt(start) == '.' ? start + 1 : start, end));
+    }
+
+    private boolean isValidTld(final int categories) {
+        if (allowLocal && (categories & TldTable.LOCAL) != 0) {
             return true;
         }
-        return isValidInfrastructureTld(tld)
-                || isValidGenericTld(tld)
-                || isValidCountryCodeTld(tld);
+        return (categories & (TldTable.INFRASTRUCTURE | TldTable.GENERIC | TldTable.COUNTRY_CODE)) != 0;
     }
 }
@@ -17,8 +17,10 @@
 package org.apache.commons.validator.routines;
 
 import java.io.Serializable;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.IntStream;
 
 /**
  * <p>Perform email validations.</p>
@@ -34,20 +36,132 @@ import java.util.regex.Pattern;
  */
 public class EmailValidator implements Serializable {
 
+    /**
+     * The verdict for an email address.
+     *
+     * @since 2.10.6
+     */
+    public enum Verdict {
+
+        /** The address is valid. */
+        VALID,
+
+        /** The address is {@code null}, ends with a dot, has no user name or domain or has white space in the domain. */
+        INVALID_SYNTAX,
+
+        /** The user name is invalid. */
+        INVALID_USER,
+
+        /** The domain is invalid. */
+        INVALID_DOMAIN
+    }
+
+    /**
+     * The result of {@link EmailValidator#validateAll(Iterable, boolean)}: the verdict for each address.
+     *
+     * @since 2.10.6
+     */
+    public static final class BulkResult {
+
+        final Verdict[] verdicts;
+        int domainCount;
+
+        BulkResult(final int size) {
+            this.verdicts = new Verdict[size];
+        }
+
+        /**
+         * Gets the number of distinct domains which were validated.
+         *
+         * @return the number of distinct domains of addresses with valid syntax and user name
+         */
+        public int getDomainCount() {
+            return domainCount;
+        }
+
+        /**
+         * Gets the number of invalid addresses.
+         *
+         * @return the number of invalid addresses
+         */
+        public int getInvalidCount() {
+            return verdicts.length - getValidCount();
+        }
+
+        /**
+         * Gets the number of valid addresses.
+         *
+         * @return the number of valid addresses
+         */
+        public int getValidCount() {
+            int total = 0;
+            for (final Verdict verdict : verdicts) {
+                if (verdict == Verdict.VALID) {
+                    total++;
+                }
+            }
+            return total;
+        }
+
+        /**
+         * Gets the verdict for an address, which tells why it was rejected.
+         *
+         * @param index the position of the address in the validated addresses
+         * @return the verdict
+         */
+        public Verdict getVerdict(final int index) {
+            return verdicts[index];
+        }
+
+        /**
+         * Gets whether an address is valid.
+         *
+         * @param index the position of the address in the validated addresses
+         * @return {@code true} if the address is valid
+         */
+        public boolean isValid(final int index) {
+            return verdicts[index] == Verdict.VALID;
+        }
+
+        /**
+         * Gets the number of validated addresses.
+         *
+         * @return the number of validated addresses
+         */
+        public int size() {
+            return verdicts.length;
+        }
+    }
+
     private static final long serialVersionUID = 1705927040799295880L;
 
-    private static final String SPECIAL_CHARS = "\\p{Cntrl}\\(\\)<>@,;:'\\\\\\\"\\.\\[\\]";
-    private static final String VALID_CHARS = "(\\\\.)|[^\\s" + SPECIAL_CHARS + "]";
-    private static final String QUOTED_USER = "(\"(\\\\\"|[^\"])*\")";
-    private static final String WORD = "((" + VALID_CHARS + "|')+|" + QUOTED_USER + ")";
+    /**
+     * Characters which are not allowed unquoted in the user name, besides white space and control characters.
+     */
+    private static final String SPECIAL_CHARS = "()<>@,;:\\\".[]";
+
+    /*
+     * States of the user name scanner, which tracks all the ways the input read so far can be split into
+     * dot separated words, that is atoms of unquoted characters and quoted strings.
+     */
+
+    /** At the start of a word */
+    private static final int WORD_START = 1;
 
-    private static final String EMAIL_REGEX = "^(.+)@(\\S+)$";
-    private static final String IP_DOMAIN_REGEX = "^\\[(.*)\\]$";
-    private static final String USER_REGEX = "^" + WORD + "(\\." + WORD + ")*$";
+    /** In an atom */
+    private static final int ATOM = 2;
 
-    private static final Pattern EMAIL_PATTERN = Pattern.compile(EMAIL_REGEX);
-    private static final Pattern IP_DOMAIN_PATTERN = Pattern.compile(IP_DOMAIN_REGEX);
-    private static final Pattern USER_PATTERN = Pattern.compile(USER_REGEX);
+    /** In an atom after a backslash, which escapes any character */
+    private static final int ATOM_ESCAPE = 4;
+
+    /** In a quoted string */
+    private static final int QUOTED = 8;
+
+    /** In a quoted string after a backslash, which may escape a quote */
+    private static final int QUOTED_BACKSLASH = 16;
+
+    /** After a quoted string */
+    private static final int QUOTED_END = 32;
 
     private static final int MAX_USERNAME_LEN = 64;
 
@@ -165,6 +279,98 @@ public class EmailValidator implements Serializable {
         this.domainValidator = domainValidator;
     }
 
+    /**
+     * Tests whether a character ends a line, these are not matched by {@code .} in a regular expression.
+     */
+    private static boolean isLineTerminator(final char c) {
+        return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+    }
+
+    /**
+     * Tests whether a character is allowed unescaped in an atom of the user name.
+     */
+    private static boolean isAtomChar(final char c) {
+        return c > ' ' && c != '\u007F' && SPECIAL_CHARS.indexOf(c) < 0;
+    }
+
+    /**
+     * Tests whether a range of text is a valid user name: dot separated words, each either an atom of
+     * characters not in {@link #SPECIAL_CHARS}, white space and control characters (any character may be
+     * escaped with a backslash) or a quoted string (quotes inside are escaped with a backslash).
+     * <p>
+     * The scanner runs the states of all possible splits at once, so it takes linear time even for
+     * ambiguous input like escaped quotes followed by dots in a quoted string.
+     * </p>
+     */
+    private static boolean isValidUser(final CharSequence text, final int start, final int end) {
+        if (end - start > MAX_USERNAME_LEN) {
+            return false;
+        }
+        int states = WORD_START;
+        for (int i = start; i < end && states != 0; i++) {
+            final char c = text.charAt(i);
+            int next = 0;
+            if ((states & WORD_START) != 0 && c == '"') {
+                next |= QUOTED;
+            }
+            if ((states & (WORD_START | ATOM)) != 0) {
+                if (c == '\\') {
+                    next |= ATOM_ESCAPE;
+                } else if (isAtomChar(c)) {
+                    next |= ATOM;
+                }
+            }
+            if ((states & (ATOM | QUOTED_END)) != 0 && c == '.') {
+                next |= WORD_START;
+            }
+            if ((states & ATOM_ESCAPE) != 0 && !isLineTerminator(c)) {
+                next |= ATOM;
+            }
+            if ((states & (QUOTED | QUOTED_BACKSLASH)) != 0) {
+                if (c == '"') {
+                    // after a backslash a quote either is escaped or ends the string
+                    next |= (states & QUOTED_BACKSLASH) != 0 ? QUOTED | QUOTED_END : QUOTED_END;
+                } else {
+                    next |= c == '\\' ? QUOTED_BACKSLASH : QUOTED;
+                }
+            }
+            states = next;
+        }
+        return (states & (ATOM | QUOTED_END)) != 0;
+    }
+
+    /**
+     * Finds the {@code @} which separates the user name from the domain: the last one which is not at the end.
+     * The user name must not contain line terminators and the domain must not contain white space.
+     *
+     * @return the index of the separator or -1 if the address has no valid structure
+     */
+    private static int indexOfDomainSeparator(final String email) {
+        if (email == null || email.endsWith(".")) { // check this first - it's cheap!
+            return -1;
+        }
+        final int at = email.lastIndexOf('@', email.length() - 2);
+        if (at <= 0) {
+            return -1;
+        }
+        for (int i = 0; i < email.length(); i++) {
+            final char c = email.charAt(i);
+            if (i < at ? isLineTerminator(c) : c == ' ' || c >= '\t' && c <= '\r') {
+                return -1;
+            }
+        }
+        return at;
+    }
+
+    private static int hashDomain(final String email, final int at) {
+        int hash = 0;
+        for (int i = at + 1; i < email.length(); i++) {
+            hash = 31 * hash + email.charAt(i); // CHECKSTYLE IGNORE MagicNumber
+        }
+        hash *= 0x9E3779B9; // CHECKSTYLE IGNORE MagicNumber
+        return hash ^ hash >>> 16; // CHECKSTYLE IGNORE MagicNumber
+    }
+
     /**
      * <p>Checks if a field has a valid e-mail address.</p>
      *
@@ -173,21 +379,124 @@ public class EmailValidator implements Serializable {
      * @return true if the email address is valid.
      */
     public boolean isValid(final String email) {
-        if (email == null || email.endsWith(".")) { // check this first - it's cheap!
-            return false;
-        }
         // Check the whole email address structure
-        final Matcher emailMatcher = EMAIL_PATTERN.matcher(email);
-        if (!emailMatcher.matches()) {
-            return false;
+        final int at = indexOfDomainSeparator(email);
+        return at >= 0 && isValidUser(email, at) && isValidDomain(email, at);
+    }
+
+    /**
+     * Tests whether the domain after the separator is valid.
+     */
+    private boolean isValidDomain(final String email, final int at) {
+        if (getClass() != EmailValidator.class) {
+            // subclasses may override the checks of the parts
+            return isValidDomain(email.substring(at + 1));
         }
-        if (!isValidUser(emailMatcher.group(1))) {
-            return false;
+        return isValidDomain(email, at + 1, email.length());
+    }
+
+    /**
+     * Tests whether the user name before the separator is valid.
+     */
+    private boolean isValidUser(final String email, final int at) {
+        if (getClass() != EmailValidator.class) {
+            // subclasses may override the checks of the parts
+            return isValidUser(email.substring(0, at));
         }
-        if (!isValidDomain(emailMatcher.group(2))) {
-            return false;
+        return isValidUser(email, 0, at);
+    }
+
+    /**
+     * Validates email addresses, see {@link #validateAll(Iterable, boolean)}.
+     *
+     * @param emails The values validation is being performed on
+     * @return the verdict for each address
+     * @since 2.10.6
+     */
+    public BulkResult validateAll(final Iterable<String> emails) {
+        return validateAll(emails, false);
+    }
+
+    /**
+     * Validates email addresses.
+     * <p>
+     * The user name of every address is checked, but each distinct domain is validated only once,
+     * which saves most of the work for lists with many addresses per domain. Domains are compared
+     * exactly, so differently cased spellings of a domain are validated separately.
+     * Optionally the user names and the distinct domains are checked in parallel.
+     * </p>
+     *
+     * @param emails The values validation is being performed on
+     * @param parallel whether the addresses and domains should be checked in parallel
+     * @return the verdict for each address, in iteration order
+     * @since 2.10.6
+     */
+    public BulkResult validateAll(final Iterable<String> emails, final boolean parallel) {
+        final String[] values;
+        if (emails instanceof Collection) {
+            values = ((Collection<String>) emails).toArray(new String[0]);
+        } else {
+            final List<String> list = new ArrayList<>();
+            emails.forEach(list::add);
+            values = list.toArray(new String[0]);
         }
-        return true;
+        final BulkResult result = new BulkResult(values.length);
+        final int[] separators = new int[values.length];
+        final IntStream addresses = IntStream.range(0, values.length);
+        (parallel ? addresses.parallel() : addresses).forEach(index -> {
+            final int at = indexOfDomainSeparator(values[index]);
+            if (at < 0) {
+                result.verdicts[index] = Verdict.INVALID_SYNTAX;
+            } else if (!isValidUser(values[index], at)) {
+                result.verdicts[index] = Verdict.INVALID_USER;
+            }
+            separators[index] = at;
+        });
+
+        // number the distinct domains, the table holds the first address (+ 1) with each domain
+        final int[] table = new int[Integer.highestOneBit(Math.max(values.length, 1) * 2) << 1];
+        final int mask = table.length - 1;
+        final int[] domainOf = new int[values.length];
+        final int[] firsts = new int[values.length];
+        int domains = 0;
+        for (int index = 0; index < values.length; index++) {
+            if (result.verdicts[index] != null) {
+                continue;
+            }
+            final String email = values[index];
+            final int at = separators[index];
+            int slot = hashDomain(email, at) & mask;
+            int entry;
+            while ((entry = table[slot]) != 0) {
+                final String other = values[entry - 1];
+                final int otherAt = separators[entry - 1];
+                if (other.length() - otherAt == email.length() - at && other.regionMatches(otherAt, email, at, email.length() - at)) {
+                    break;
+                }
+                slot = slot + 1 & mask;
+            }
+            if (entry == 0) {
+                table[slot] = index + 1;
+                firsts[domains] = index;
+                domainOf[index] = domains++;
+            } else {
+                domainOf[index] = domainOf[entry - 1];
+            }
+        }
+
+        final boolean[] validDomains = new boolean[domains];
+        final IntStream distinct = IntStream.range(0, domains);
+        (parallel ? distinct.parallel() : distinct).forEach(domain -> {
+            final int first = firsts[domain];
+            validDomains[domain] = isValidDomain(values[first], separators[first]);
+        });
+        for (int index = 0; index < values.length; index++) {
+            if (result.verdicts[index] == null) {
+                result.verdicts[index] = validDomains[domainOf[index]] ? Verdict.VALID : Verdict.INVALID_DOMAIN;
+            }
+        }
+        result.domainCount = domains;
+        return result;
     }
 
     /**
@@ -197,19 +506,30 @@ public class EmailValidator implements Serializable {
      * @return true if the email address's domain is valid.
      */
     protected boolean isValidDomain(final String domain) {
-        // see if domain is an IP address in brackets
-        final Matcher ipDomainMatcher = IP_DOMAIN_PATTERN.matcher(domain);
+        return isValidDomain(domain, 0, domain.length());
+    }
 
-        if (ipDomainMatcher.matches()) {
+    /**
+     * Tests whether a range of text is a valid domain of an email address, without copying symbolic names.
+     */
+    private boolean isValidDomain(final String text, final int start, final int end) {
+        // see if domain is an IP address in brackets
+        if (end - start >= 2 && text.charAt(start) == '[' && text.charAt(end - 1) == ']') {
+            for (int i = start + 1; i < end - 1; i++) {
+                if (isLineTerminator(text.charAt(i))) {
+                    return false;
+                }
+            }
             final InetAddressValidator inetAddressValidator =
                     InetAddressValidator.getInstance();
-            return inetAddressValidator.isValid(ipDomainMatcher.group(1));
+            return inetAddressValidator.isValid(text, start + 1, end - 1);
         }
         // Domain is symbolic name
         if (allowTld) {
-            return domainValidator.isValid(domain) || !domain.startsWith(".") && domainValidator.isValidTld(domain);
+            return domainValidator.isValid(text, start, end)
+                    || start < end && text.charAt(start) != '.' && domainValidator.isValidTld(text, start, end);
         }
-        return domainValidator.isValid(domain);
+        return domainValidator.isValid(text, start, end);
     }
 
     /**
@@ -220,11 +540,11 @@ public class EmailValidator implements Serializable {
      */
     protected boolean isValidUser(final String user) {
 
-        if (user == null || user.length() > MAX_USERNAME_LEN) {
+        if (user == null) {
             return false;
         }
 
-        return USER_PATTERN.matcher(user).matches();
+        return isValidUser(user, 0, user.length());
     }
 
 }
@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.validator.routines;
+
+/**
+ * Read only view of ranges of a String, such as the groups matched by a regular expression.
+ * <p>
+ * The characters are not copied, {@link #toString()} creates the String when it is needed.
+ * </p>
+ *
+ * @since 2.10.6
+ */
+final class GroupSequence implements CharSequence {
+
+    /**
+     * Creates a view of the ranges of a value.
+     *
+     * @param value the value
+     * @param bounds start and end (exclusive) of each range, ranges of length 0 are allowed
+     * @param count the number of ranges
+     * @return the view, or the value itself if one range covers all of it
+     */
+    static CharSequence of(final String value, final int[] bounds, final int count) {
+        if (count == 1 && bounds[0] == 0 && bounds[1] == value.length()) {
+            return value;
+        }
+        int length = 0;
+        for (int i = 0; i < count; i++) {
+            length += bounds[2 * i + 1] - bounds[2 * i];
+        }
+        return new GroupSequence(value, bounds, count, length);
+    }
+
+    private final String value;
+
+    /** Start and end of each range */
+    private final int[] bounds;
+
+    private final int count;
+
+    private final int length;
+
+    private GroupSequence(final String value, final int[] bounds, final int count, final int length) {
+        this.value = value;
+        this.bounds = bounds;
+        this.count = count;
+        this.length = length;
+    }
+
+    @Override
+    public char charAt(final int index) {
+        if (index >= 0) {
+            int offset = index;
+            for (int i = 0; i < count; i++) {
+                final int start = bounds[2 * i];
+                final int size = bounds[2 * i + 1] - start;
+                if (offset < size) {
+                    return value.charAt(start + offset);
+                }
+                offset -= size;
+            }
+        }
+        throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + length);
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public CharSequence subSequence(final int start, final int end) {
+        return toString().subSequence(start, end);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder buffer = new StringBuilder(length);
+        for (int i = 0; i < count; i++) {
+            buffer.append(value, bounds[2 * i], bounds[2 * i + 1]);
+        }
+        return buffer.toString();
+    }
+}
@@ -16,11 +16,10 @@
  */
 package org.apache.commons.validator.routines;
 
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 import org.apache.commons.validator.routines.checkdigit.IBANCheckDigit;
 
@@ -56,6 +55,10 @@ import org.apache.commons.validator.routines.checkdigit.IBANCheckDigit;
  * <p>
  * The singleton default instance cannot be modified in this way.
  * </p>
+ * <p>
+ * The format of a country is compiled when an IBAN of that country is validated for the first time,
+ * use {@link #preload(String...)} to compile formats in advance.
+ * </p>
  * @since 1.5.0
  */
 public class IBANValidator {
@@ -79,7 +82,7 @@ public class IBANValidator {
 
         final String countryCode;
         final String[] otherCountryCodes;
-        final RegexValidator regexValidator;
+        private final LazyRegexValidator format;
 
         /**
          * Used to avoid unnecessary regex matching.
@@ -92,9 +95,11 @@ public class IBANValidator {
          * @param countryCode the country code
          * @param ibanLength the length of the IBAN
          * @param regexWithCC the regex to use to check the format, the regex MUST start with the country code.
+         * @throws java.util.regex.PatternSyntaxException if the regex is malformed
          */
         public Validator(final String countryCode, final int ibanLength, final String regexWithCC) {
             this(countryCode, ibanLength, regexWithCC.substring(countryCode.length()), new String[] {});
+            format.checkSyntax();
         }
 
         /**
@@ -113,13 +118,13 @@ public class IBANValidator {
             }
             this.countryCode = countryCode;
             this.otherCountryCodes = otherCountryCodes.clone();
-            final List<String> regexList = new ArrayList<>(this.otherCountryCodes.length + 1);
-            regexList.add(countryCode + regexWithoutCC);
-            for (final String otherCc : otherCountryCodes) {
-                regexList.add(otherCc + regexWithoutCC);
+            final String[] regexs = new String[this.otherCountryCodes.length + 1];
+            regexs[0] = countryCode + regexWithoutCC;
+            for (int i = 0; i < this.otherCountryCodes.length; i++) {
+                regexs[i + 1] = this.otherCountryCodes[i] + regexWithoutCC;
             }
+            this.format = new LazyRegexValidator(regexs);
             this.ibanLength = ibanLength;
-            this.regexValidator = new RegexValidator(regexList);
         }
 
         /**
@@ -134,17 +139,25 @@ public class IBANValidator {
 
         /**
          * Gets the RegexValidator.
+         * The format is compiled on first use.
          *
          * @return the RegexValidator.
          * @since 1.8
          */
         public RegexValidator getRegexValidator() {
-            return regexValidator;
+            return format.get();
         }
     }
 
     private static final int SHORT_CODE_LEN = 2;
 
+    /** Number of leading characters (country code and check digits) moved to the end for the checksum */
+    private static final int CHECKSUM_SHIFT = 4;
+
+    private static final int MODULUS_97 = 97;
+
+    private static final int LETTERS = 26;
+
     /*
      * Note: the IBAN PDF registry file implies that IBANs can contain lower-case letters.
      * However, several other documents state that IBANs must be upper-case only.
@@ -288,6 +301,12 @@ public class IBANValidator {
 
     private final ConcurrentMap<String, Validator> validatorMap;
 
+    /**
+     * The entries of {@link #validatorMap} with a country code of two letters A-Z,
+     * indexed by {@link #indexOf(char, char)}, so a country can be looked up without creating a key.
+     */
+    private final AtomicReferenceArray<Validator> countryIndex = new AtomicReferenceArray<>(LETTERS * LETTERS);
+
     /**
      * Create a default IBAN validator.
      */
@@ -302,6 +321,7 @@ public class IBANValidator {
      */
     public IBANValidator(final Validator[] validators) {
         this.validatorMap = createValidators(validators);
+        validatorMap.forEach(this::index);
     }
 
     private ConcurrentMap<String, Validator> createValidators(final Validator[] validators) {
@@ -334,8 +354,29 @@ public class IBANValidator {
         if (code == null || code.length() < SHORT_CODE_LEN) { // ensure we can extract the code
             return null;
         }
-        final String key = code.substring(0, SHORT_CODE_LEN);
-        return validatorMap.get(key);
+        return getValidator(code.charAt(0), code.charAt(1));
+    }
+
+    private Validator getValidator(final char first, final char second) {
+        final int index = indexOf(first, second);
+        if (index >= 0) {
+            return countryIndex.get(index);
+        }
+        return validatorMap.get(new String(new char[] { first, second }));
+    }
+
+    private static int indexOf(final char first, final char second) {
+        if (first < 'A' || first > 'Z' || second < 'A' || second > 'Z') {
+            return -1;
+        }
+        return (first - 'A') * LETTERS + second - 'A';
+    }
+
+    private void index(final String countryCode, final Validator validator) {
+        final int index = indexOf(countryCode.charAt(0), countryCode.charAt(1));
+        if (index >= 0) {
+            countryIndex.set(index, validator);
+        }
     }
 
     /**
@@ -348,6 +389,26 @@ public class IBANValidator {
         return getValidator(code) != null;
     }
 
+    /**
+     * Compiles the formats of the given countries in advance,
+     * so the first validation of an IBAN of these countries does not pay for it.
+     *
+     * @param countryCodes the ISO country codes, if none are given all registered formats are compiled
+     * @since 2.10.6
+     */
+    public void preload(final String... countryCodes) {
+        if (countryCodes == null || countryCodes.length == 0) {
+            validatorMap.values().forEach(Validator::getRegexValidator);
+            return;
+        }
+        for (final String countryCode : countryCodes) {
+            final Validator validator = getValidator(countryCode);
+            if (validator != null) {
+                validator.getRegexValidator();
+            }
+        }
+    }
+
     /**
      * Validate an IBAN Code
      *
@@ -358,6 +419,21 @@ public class IBANValidator {
         return validate(code) == IBANValidatorStatus.VALID;
     }
 
+    /**
+     * Validate an IBAN Code given in print format.
+     * <p>
+     * Space and hyphen separators are ignored and lower case letters are treated as upper case,
+     * for example {@code "de89 3704 0044 0532 0130 00"} is valid.
+     * </p>
+     *
+     * @param code The value validation is being performed on
+     * @return {@code true} if the value is valid
+     * @see #validateLenient(CharSequence, StringBuilder)
+     */
+    public boolean isValidPrintFormat(final String code) {
+        return validateLenient(code, null) == IBANValidatorStatus.VALID;
+    }
+
     /**
      * Installs a validator.
      * Will replace any existing entry which has the same countryCode.
@@ -375,7 +451,11 @@ public class IBANValidator {
             throw new IllegalStateException("The singleton validator cannot be modified");
         }
         if (length < 0) {
-            return validatorMap.remove(countryCode);
+            final Validator removed = validatorMap.remove(countryCode);
+            if (countryCode.length() == SHORT_CODE_LEN) {
+                index(countryCode, null);
+            }
+            return removed;
         }
         return setValidator(new Validator(countryCode, length, format));
     }
@@ -392,7 +472,9 @@ public class IBANValidator {
         if (this == DEFAULT_IBAN_VALIDATOR) {
             throw new IllegalStateException("The singleton validator cannot be modified");
         }
-        return validatorMap.put(validator.countryCode, validator);
+        final Validator previous = validatorMap.put(validator.countryCode, validator);
+        index(validator.countryCode, validator);
+        return previous;
     }
 
     /**
@@ -412,10 +494,133 @@ public class IBANValidator {
             return IBANValidatorStatus.INVALID_LENGTH;
         }
 
-        if (!formatValidator.regexValidator.isValid(code)) {
+        if (!formatValidator.getRegexValidator().isValid(code)) {
             return IBANValidatorStatus.INVALID_PATTERN;
         }
 
         return IBANCheckDigit.getInstance().isValid(code) ? IBANValidatorStatus.VALID : IBANValidatorStatus.INVALID_CHECKSUM;
     }
+
+    /**
+     * Validate an IBAN Code given in print format.
+     * <p>
+     * The input is scanned once: space and hyphen separators are skipped and lower case letters
+     * are folded to upper case while the MOD 97-10 checksum is accumulated.
+     * The country format is looked up by its two letters and an IBAN already in electronic format
+     * is matched in place; only an IBAN containing separators or lower case letters is copied
+     * once in electronic format for the pattern check.
+     * </p>
+     *
+     * @param code The value validation is being performed on, for example {@code "DE89 3704 0044 0532 0130 00"}
+     * @param electronicFormat if not {@code null} and the IBAN is valid,
+     * the IBAN in electronic format (upper case without separators) is appended to it
+     * @return {@link IBANValidatorStatus} for validation
+     * @since 2.10.6
+     */
+    public IBANValidatorStatus validateLenient(final CharSequence code, final StringBuilder electronicFormat) {
+        if (code == null) {
+            return IBANValidatorStatus.UNKNOWN_COUNTRY;
+        }
+        int length = 0;
+        int head = 0; // checksum of the first four characters
+        int headShift = 1; // 10^(digits of head) mod 97
+        int tail = 0; // checksum of the remaining characters
+        boolean alphanumeric = true;
+        boolean electronic = true; // no separators and no lower case letters
+        char country1 = 0;
+        char country2 = 0;
+        char check1 = 0;
+        char check2 = 0;
+        for (int i = 0; i < code.length(); i++) {
+            char c = code.charAt(i);
+            if (c == ' ' || c == '-') {
+                electronic = false;
+                continue;
+            }
+            if (c >= 'a' && c <= 'z') {
+                c = (char) (c - 'a' + 'A');
+                electronic = false;
+            }
+            final int value;
+            if (c >= '0' && c <= '9') {
+                value = c - '0';
+            } else if (c >= 'A' && c <= 'Z') {
+                value = c - 'A' + 10; // CHECKSTYLE IGNORE MagicNumber
+            } else {
+                value = 0;
+                alphanumeric = false;
+            }
+            final int factor = value < 10 ? 10 : 100; // CHECKSTYLE IGNORE MagicNumber
+            if (length < CHECKSUM_SHIFT) {
+                head = (head * factor + value) % MODULUS_97;
+                headShift = headShift * factor % MODULUS_97;
+                switch (length) {
+                case 0:
+                    country1 = c;
+                    break;
+                case 1:
+                    country2 = c;
+                    break;
+                case 2:
+                    check1 = c;
+                    break;
+                default:
+                    check2 = c;
+                    break;
+                }
+            } else {
+                tail = (tail * factor + value) % MODULUS_97;
+            }
+            length++;
+        }
+        if (length < SHORT_CODE_LEN) {
+            return IBANValidatorStatus.UNKNOWN_COUNTRY;
+        }
+        final Validator formatValidator = getValidator(country1, country2);
+        if (formatValidator == null) {
+            return IBANValidatorStatus.UNKNOWN_COUNTRY;
+        }
+        if (length != formatValidator.ibanLength) {
+            return IBANValidatorStatus.INVALID_LENGTH;
+        }
+        if (!alphanumeric) {
+            return IBANValidatorStatus.INVALID_PATTERN;
+        }
+        final CharSequence iban = electronic ? code : toElectronicFormat(code, length);
+        if (!formatValidator.getRegexValidator().isValid(iban)) {
+            return IBANValidatorStatus.INVALID_PATTERN;
+        }
+        // same as IBANCheckDigit: check digits 00, 01 and 99 are not possible
+        if (check1 < '0' || check1 > '9' || check2 < '0' || check2 > '9') {
+            return IBANValidatorStatus.INVALID_CHECKSUM;
+        }
+        final int checkDigits = (check1 - '0') * 10 + check2 - '0'; // CHECKSTYLE IGNORE MagicNumber
+        if (checkDigits < 2 || checkDigits > MODULUS_97 + 1 || (tail * headShift + head) % MODULUS_97 != 1) {
+            return IBANValidatorStatus.INVALID_CHECKSUM;
+        }
+        if (electronicFormat != null) {
+            electronicFormat.append(iban);
+        }
+        return IBANValidatorStatus.VALID;
+    }
+
+    /**
+     * Copies an IBAN given in print format in electronic format.
+     *
+     * @param code the IBAN in print format, containing only letters, digits and separators
+     * @param length the number of letters and digits
+     * @return the IBAN in upper case without separators
+     */
+    private static CharSequence toElectronicFormat(final CharSequence code, final int length) {
+        final StringBuilder buffer = new StringBuilder(length);
+        for (int i = 0; i < code.length(); i++) {
+            final char c = code.charAt(i);
+            if (c >= 'a' && c <= 'z') {
+                buffer.append((char) (c - 'a' + 'A'));
+            } else if (c != ' ' && c != '-') {
+                buffer.append(c);
+            }
+        }
+        return buffer;
+    }
 }
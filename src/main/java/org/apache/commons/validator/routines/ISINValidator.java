@@ -17,7 +17,6 @@
 package org.apache.commons.validator.routines;
 
 import java.io.Serializable;
-import java.util.Arrays;
 import java.util.Locale;
 
 import org.apache.commons.validator.routines.checkdigit.ISINCheckDigit;
@@ -423,10 +422,8 @@ public class ISINValidator implements Serializable {
             "ZZ",
     };
 
-    static {
-        Arrays.sort(CCODES); // we cannot assume the codes are sorted
-        Arrays.sort(SPECIALS); // Just in case ...
-    }
+    /** Bit set of CCODES and SPECIALS */
+    private static final CountryCodeSet COUNTRY_CODES = CountryCodeSet.of(2, CCODES).plus(CountryCodeSet.of(2, SPECIALS));
 
     /**
      * Gets the singleton instance of the ISIN validator.
@@ -448,7 +445,7 @@ public class ISINValidator implements Serializable {
     }
 
     private boolean checkCode(final String code) {
-        return Arrays.binarySearch(CCODES, code) >= 0 || Arrays.binarySearch(SPECIALS, code) >= 0;
+        return COUNTRY_CODES.contains(code, 0);
     }
 
     /**
@@ -462,7 +459,7 @@ public class ISINValidator implements Serializable {
     public boolean isValid(final String code) {
         final boolean valid = VALIDATOR.isValid(code);
         if (valid && checkCountryCode) {
-            return checkCode(code.substring(0, 2));
+            return checkCode(code);
         }
         return valid;
     }
@@ -476,7 +473,7 @@ public class ISINValidator implements Serializable {
     public Object validate(final String code) {
         final Object validate = VALIDATOR.validate(code);
         if (validate != null && checkCountryCode) {
-            return checkCode(code.substring(0, 2)) ? validate : null;
+            return checkCode(code) ? validate : null;
         }
         return validate;
     }
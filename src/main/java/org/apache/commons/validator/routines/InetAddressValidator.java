@@ -18,12 +18,6 @@
 package org.apache.commons.validator.routines;
 
 import java.io.Serializable;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
-import java.util.regex.Pattern;
-
-import org.apache.commons.validator.GenericValidator;
 
 /**
  * <p><strong>InetAddress</strong> validation and conversion routines ({@code java.net.InetAddress}).</p>
@@ -48,7 +42,14 @@ public class InetAddressValidator implements Serializable {
 
     private static final long serialVersionUID = -919201640201914789L;
 
-    private static final String IPV4_REGEX = "^(\\d{1,3})\\.(\\d{1,3})\\.(\\d{1,3})\\.(\\d{1,3})$";
+    // Number of octets in an IPv4 address
+    private static final int IPV4_OCTETS = 4;
+
+    // Max decimal digits in each IPv4 octet and in the IPv6 prefix length
+    private static final int MAX_DECIMAL_DIGITS = 3;
+
+    // Number of bytes in an IPv6 address
+    private static final int IPV6_BYTES = 16;
 
     // Max number of hex groups (separated by :) in an IPV6 address
     private static final int IPV6_MAX_HEX_GROUPS = 8;
@@ -56,18 +57,17 @@ public class InetAddressValidator implements Serializable {
     // Max hex digits in each IPv6 group
     private static final int IPV6_MAX_HEX_DIGITS_PER_GROUP = 4;
 
+    // Number of hex groups in a long
+    private static final int IPV6_HEX_GROUPS_PER_LONG = 4;
+
+    // Bits in each IPv6 group
+    private static final int IPV6_BITS_PER_GROUP = 16;
+
     /**
      * Singleton instance of this class.
      */
     private static final InetAddressValidator VALIDATOR = new InetAddressValidator();
 
-    private static final Pattern DIGITS_PATTERN = Pattern.compile("\\d{1,3}");
-
-    private static final Pattern ID_CHECK_PATTERN = Pattern.compile("[^\\s/%]+");
-
-    /** IPv4 RegexValidator */
-    private static final RegexValidator IPV4_VALIDATOR = new RegexValidator(IPV4_REGEX);
-
     /**
      * Returns the singleton instance of this validator.
      *
@@ -77,145 +77,347 @@ public class InetAddressValidator implements Serializable {
         return VALIDATOR;
     }
 
+    private static boolean isDigit(final char c) {
+        return c >= '0' && c <= '9';
+    }
+
     /**
-     * Constructs a new instance.
+     * Tests whether a range of text is blank like {@link String#trim()} would leave it empty.
      */
-    public InetAddressValidator() {
-        // empty
+    private static boolean isBlank(final CharSequence text, final int start, final int end) {
+        for (int i = start; i < end; i++) {
+            if (text.charAt(i) > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int indexOf(final CharSequence text, final char c, final int start, final int end) {
+        for (int i = start; i < end; i++) {
+            if (text.charAt(i) == c) {
+                return i;
+            }
+        }
+        return -1;
     }
 
     /**
-     * Checks if the specified string is a valid IPv4 or IPv6 address.
+     * Parses a group of an IPv6 address like {@code Integer.parseInt(group, 16)}.
      *
-     * @param inetAddress the string to validate
-     * @return true if the string validates as an IP address
+     * @return the value of the group or -1 if invalid
      */
-    public boolean isValid(final String inetAddress) {
-        return isValidInet4Address(inetAddress) || isValidInet6Address(inetAddress);
+    private static int parseHexGroup(final CharSequence text, final int start, final int end) {
+        if (end - start > IPV6_MAX_HEX_DIGITS_PER_GROUP) {
+            return -1;
+        }
+        int i = start;
+        final char first = text.charAt(i);
+        final boolean negative = first == '-';
+        if (negative || first == '+') {
+            if (end - start == 1) {
+                return -1;
+            }
+            i++;
+        }
+        int value = 0;
+        for (; i < end; i++) {
+            final int digit = Character.digit(text.charAt(i), BASE_16);
+            if (digit < 0) {
+                return -1;
+            }
+            value = value * BASE_16 + digit;
+        }
+        return negative && value != 0 ? -1 : value;
     }
 
     /**
-     * Validates an IPv4 address. Returns true if valid.
+     * Parses an IPv4 address in a range of text.
      *
-     * @param inet4Address the IPv4 address to validate
-     * @return true if the argument contains a valid IPv4 address
+     * @return the address as unsigned 32 bit value or -1 if invalid
      */
-    public boolean isValidInet4Address(final String inet4Address) {
-        // verify that address conforms to generic IPv4 format
-        final String[] groups = IPV4_VALIDATOR.match(inet4Address);
-        if (groups == null) {
-            return false;
-        }
-        // verify that address subgroups are legal
-        for (final String ipSegment : groups) {
-            if (GenericValidator.isBlankOrNull(ipSegment)) {
-                return false;
+    private static long parseInet4(final CharSequence text, final int start, final int end) {
+        long address = 0;
+        int i = start;
+        for (int octets = 1;; octets++) {
+            final int octetStart = i;
+            int octet = 0;
+            while (i < end && i - octetStart < MAX_DECIMAL_DIGITS && isDigit(text.charAt(i))) {
+                octet = octet * 10 + text.charAt(i++) - '0'; // CHECKSTYLE IGNORE MagicNumber
             }
-            int iIpSegment = 0;
-            try {
-                iIpSegment = Integer.parseInt(ipSegment);
-            } catch (final NumberFormatException e) {
-                return false;
+            if (i == octetStart || octet > IPV4_MAX_OCTET_VALUE || i - octetStart > 1 && text.charAt(octetStart) == '0') {
+                return -1;
             }
-            if (iIpSegment > IPV4_MAX_OCTET_VALUE || ipSegment.length() > 1 && ipSegment.startsWith("0")) {
-                return false;
+            address = address << Byte.SIZE | octet;
+            if (octets == IPV4_OCTETS) {
+                return i == end ? address : -1;
             }
+            if (i == end || text.charAt(i) != '.') {
+                return -1;
+            }
+            i++;
         }
-        return true;
     }
 
     /**
-     * Validates an IPv6 address. Returns true if valid.
+     * Parses an IPv6 address, with optional zone id and prefix length, in a range of text in one pass.
      *
-     * @param inet6Address the IPv6 address to validate
-     * @return true if the argument contains a valid IPv6 address
-     * @since 1.4.1
+     * @param text the text containing the address
+     * @param start the start of the address
+     * @param end the end (exclusive) of the address
+     * @param bytes receives the 16 bytes of a valid address, may be null
+     * @param words receives the high and low 64 bits of a valid address, may be null
+     * @return true if the range contains a valid IPv6 address
      */
-    public boolean isValidInet6Address(String inet6Address) {
-        String[] parts;
+    private static boolean parseInet6(final CharSequence text, final int start, final int end, final byte[] bytes, final long[] words) {
+        int addressEnd = end;
         // remove prefix size. This will appear after the zone id (if any)
-        parts = inet6Address.split("/", -1);
-        if (parts.length > 2) {
-            return false; // can only have one prefix specifier
-        }
-        if (parts.length == 2) {
-            if (!DIGITS_PATTERN.matcher(parts[1]).matches()) {
-                return false; // not a valid number
+        final int slash = indexOf(text, '/', start, end);
+        if (slash >= 0) {
+            if (indexOf(text, '/', slash + 1, end) >= 0 || end - slash - 1 < 1 || end - slash - 1 > MAX_DECIMAL_DIGITS) {
+                return false; // can only have one prefix specifier
+            }
+            int bits = 0;
+            for (int i = slash + 1; i < end; i++) {
+                if (!isDigit(text.charAt(i))) {
+                    return false; // not a valid number
+                }
+                bits = bits * 10 + text.charAt(i) - '0'; // CHECKSTYLE IGNORE MagicNumber
             }
-            final int bits = Integer.parseInt(parts[1]); // cannot fail because of RE check
-            if (bits < 0 || bits > MAX_BYTE) {
+            if (bits > MAX_BYTE) {
                 return false; // out of range
             }
+            addressEnd = slash;
         }
         // remove zone-id
-        parts = parts[0].split("%", -1);
-        // The id syntax is implementation independent, but it presumably cannot allow:
-        // whitespace, '/' or '%'
-        if (parts.length > 2 || parts.length == 2 && !ID_CHECK_PATTERN.matcher(parts[1]).matches()) {
-            return false; // invalid id
-        }
-        inet6Address = parts[0];
-        final boolean containsCompressedZeroes = inet6Address.contains("::");
-        if (containsCompressedZeroes && inet6Address.indexOf("::") != inet6Address.lastIndexOf("::")) {
-            return false;
-        }
-        final boolean startsWithCompressed = inet6Address.startsWith("::");
-        final boolean endsWithCompressed = inet6Address.endsWith("::");
-        final boolean endsWithSep = inet6Address.endsWith(":");
-        if (inet6Address.startsWith(":") && !startsWithCompressed || endsWithSep && !endsWithCompressed) {
-            return false;
-        }
-        String[] octets = inet6Address.split(":");
-        if (containsCompressedZeroes) {
-            final List<String> octetList = new ArrayList<>(Arrays.asList(octets));
-            if (endsWithCompressed) {
-                // String.split() drops ending empty segments
-                octetList.add("");
-            } else if (startsWithCompressed && !octetList.isEmpty()) {
-                octetList.remove(0);
+        final int percent = indexOf(text, '%', start, addressEnd);
+        if (percent >= 0) {
+            // The id syntax is implementation independent, but it presumably cannot allow:
+            // whitespace, '/' or '%'
+            if (percent + 1 == addressEnd) {
+                return false; // invalid id
+            }
+            for (int i = percent + 1; i < addressEnd; i++) {
+                final char c = text.charAt(i);
+                if (c == '%' || c == ' ' || c >= '\t' && c <= '\r') {
+                    return false; // invalid id
+                }
             }
-            octets = octetList.toArray(new String[0]);
+            addressEnd = percent;
         }
-        if (octets.length > IPV6_MAX_HEX_GROUPS) {
+        final int length = addressEnd - start;
+        final boolean startsWithCompressed = length >= 2 && text.charAt(start) == ':' && text.charAt(start + 1) == ':';
+        final boolean endsWithCompressed = length >= 2 && text.charAt(addressEnd - 1) == ':' && text.charAt(addressEnd - 2) == ':';
+        if (length >= 1 && (text.charAt(start) == ':' && !startsWithCompressed || text.charAt(addressEnd - 1) == ':' && !endsWithCompressed)) {
             return false;
         }
-        int validOctets = 0;
-        int emptyOctets = 0; // consecutive empty chunks
-        for (int index = 0; index < octets.length; index++) {
-            final String octet = octets[index];
-            if (GenericValidator.isBlankOrNull(octet)) {
-                emptyOctets++;
-                if (emptyOctets > 1) {
-                    return false;
+        // groups before "::" are placed by index, groups after it are shifted in from the right
+        long high = 0;
+        long low = 0;
+        long tailHigh = 0;
+        long tailLow = 0;
+        boolean compressed = false;
+        boolean previousBlank = false;
+        int groups = 0;
+        // a leading "::" starts with an empty group which does not count
+        int groupStart = startsWithCompressed ? start + 1 : start;
+        while (true) {
+            int groupEnd = groupStart;
+            while (groupEnd < addressEnd && text.charAt(groupEnd) != ':') {
+                groupEnd++;
+            }
+            final boolean last = groupEnd == addressEnd;
+            if (last && endsWithCompressed) {
+                break; // neither does the empty group after a trailing "::"
+            }
+            long value = 0;
+            int count = 1;
+            if (isBlank(text, groupStart, groupEnd)) {
+                if (previousBlank) {
+                    return false; // consecutive empty groups
                 }
-            } else {
-                emptyOctets = 0;
-                // Is last chunk an IPv4 address?
-                if (index == octets.length - 1 && octet.contains(".")) {
-                    if (!isValidInet4Address(octet)) {
-                        return false;
+                previousBlank = true;
+                if (groupStart == groupEnd && !last) {
+                    if (compressed) {
+                        return false; // only one "::"
                     }
-                    validOctets += 2;
-                    continue;
+                    compressed = true;
+                    count = 0;
+                    groups++;
                 }
-                if (octet.length() > IPV6_MAX_HEX_DIGITS_PER_GROUP) {
-                    return false;
+            } else {
+                previousBlank = false;
+                // Is last group an IPv4 address?
+                if (last && indexOf(text, '.', groupStart, groupEnd) >= 0) {
+                    value = parseInet4(text, groupStart, groupEnd);
+                    count = 2;
+                } else {
+                    value = parseHexGroup(text, groupStart, groupEnd);
                 }
-                int octetInt = 0;
-                try {
-                    octetInt = Integer.parseInt(octet, BASE_16);
-                } catch (final NumberFormatException e) {
+                if (value < 0) {
                     return false;
                 }
-                if (octetInt < 0 || octetInt > MAX_UNSIGNED_SHORT) {
-                    return false;
+            }
+            for (int i = count - 1; i >= 0; i--) {
+                final long group = value >>> i * IPV6_BITS_PER_GROUP & MAX_UNSIGNED_SHORT;
+                if (compressed) {
+                    tailHigh = tailHigh << IPV6_BITS_PER_GROUP | tailLow >>> Long.SIZE - IPV6_BITS_PER_GROUP;
+                    tailLow = tailLow << IPV6_BITS_PER_GROUP | group;
+                } else if (groups < IPV6_HEX_GROUPS_PER_LONG) {
+                    high |= group << (IPV6_HEX_GROUPS_PER_LONG - 1 - groups) * IPV6_BITS_PER_GROUP;
+                } else if (groups < IPV6_MAX_HEX_GROUPS) {
+                    low |= group << (IPV6_MAX_HEX_GROUPS - 1 - groups) * IPV6_BITS_PER_GROUP;
                 }
+                groups++;
+            }
+            if (groups > IPV6_MAX_HEX_GROUPS) {
+                return false;
+            }
+            if (last) {
+                break;
             }
-            validOctets++;
+            groupStart = groupEnd + 1;
+        }
+        if (groups < IPV6_MAX_HEX_GROUPS && !compressed) {
+            return false;
+        }
+        high |= tailHigh;
+        low |= tailLow;
+        if (bytes != null) {
+            for (int i = 0; i < Long.BYTES; i++) {
+                bytes[i] = (byte) (high >>> (Long.BYTES - 1 - i) * Byte.SIZE);
+                bytes[Long.BYTES + i] = (byte) (low >>> (Long.BYTES - 1 - i) * Byte.SIZE);
+            }
+        }
+        if (words != null) {
+            words[0] = high;
+            words[1] = low;
+        }
+        return true;
+    }
+
+    private static void checkLength(final int length, final int required) {
+        if (length < required) {
+            throw new IllegalArgumentException("Address array must have at least " + required + " elements");
         }
-        if (validOctets > IPV6_MAX_HEX_GROUPS || validOctets < IPV6_MAX_HEX_GROUPS && !containsCompressedZeroes) {
+    }
+
+    /**
+     * Constructs a new instance.
+     */
+    public InetAddressValidator() {
+        // empty
+    }
+
+    /**
+     * Checks if the specified string is a valid IPv4 or IPv6 address.
+     *
+     * @param inetAddress the string to validate
+     * @return true if the string validates as an IP address
+     */
+    public boolean isValid(final String inetAddress) {
+        return isValidInet4Address(inetAddress) || isValidInet6Address(inetAddress);
+    }
+
+    /**
+     * Checks if a range of text is a valid IPv4 or IPv6 address, without copying it.
+     */
+    boolean isValid(final CharSequence text, final int start, final int end) {
+        return isValidInet4Address(text, start, end) || parseInet6(text, start, end, null, null);
+    }
+
+    /**
+     * Validates an IPv4 address. Returns true if valid.
+     *
+     * @param inet4Address the IPv4 address to validate
+     * @return true if the argument contains a valid IPv4 address
+     */
+    public boolean isValidInet4Address(final String inet4Address) {
+        return inet4Address != null && isValidInet4Address(inet4Address, 0, inet4Address.length());
+    }
+
+    /**
+     * Validates an IPv4 address and converts it to bytes. Returns true if valid.
+     *
+     * @param inet4Address the IPv4 address to validate
+     * @param address receives the 4 bytes of a valid address in network byte order, may be null
+     * @return true if the argument contains a valid IPv4 address
+     * @throws IllegalArgumentException if the array has less than 4 elements
+     * @since 2.10.6
+     */
+    public boolean isValidInet4Address(final String inet4Address, final byte[] address) {
+        if (address != null) {
+            checkLength(address.length, IPV4_OCTETS);
+        }
+        if (inet4Address == null) {
+            return false;
+        }
+        final long value = parseInet4(inet4Address, 0, inet4Address.length());
+        if (value < 0) {
             return false;
         }
+        if (address != null) {
+            for (int i = 0; i < IPV4_OCTETS; i++) {
+                address[i] = (byte) (value >>> (IPV4_OCTETS - 1 - i) * Byte.SIZE);
+            }
+        }
         return true;
     }
+
+    /**
+     * Validates an IPv4 address in a range of text, without copying it.
+     */
+    boolean isValidInet4Address(final CharSequence text, final int start, final int end) {
+        return parseInet4(text, start, end) >= 0;
+    }
+
+    /**
+     * Validates an IPv6 address. Returns true if valid.
+     *
+     * @param inet6Address the IPv6 address to validate
+     * @return true if the argument contains a valid IPv6 address
+     * @since 1.4.1
+     */
+    public boolean isValidInet6Address(final String inet6Address) {
+        return parseInet6(inet6Address, 0, inet6Address.length(), null, null);
+    }
+
+    /**
+     * Validates an IPv6 address and converts it to bytes. Returns true if valid.
+     * <p>
+     * The zone id and prefix length are validated but not converted.
+     * </p>
+     *
+     * @param inet6Address the IPv6 address to validate
+     * @param address receives the 16 bytes of a valid address in network byte order, may be null
+     * @return true if the argument contains a valid IPv6 address
+     * @throws IllegalArgumentException if the array has less than 16 elements
+     * @since 2.10.6
+     */
+    public boolean isValidInet6Address(final String inet6Address, final byte[] address) {
+        if (address != null) {
+            checkLength(address.length, IPV6_BYTES);
+        }
+        return parseInet6(inet6Address, 0, inet6Address.length(), address, null);
+    }
+
+    /**
+     * Validates an IPv6 address and converts it to two longs. Returns true if valid.
+     * <p>
+     * The zone id and prefix length are validated but not converted.
+     * </p>
+     *
+     * @param inet6Address the IPv6 address to validate
+     * @param address receives the high 64 bits of a valid address in the first element and
+     * the low 64 bits in the second, may be null
+     * @return true if the argument contains a valid IPv6 address
+     * @throws IllegalArgumentException if the array has less than 2 elements
+     * @since 2.10.6
+     */
+    public boolean isValidInet6Address(final String inet6Address, final long[] address) {
+        if (address != null) {
+            checkLength(address.length, 2);
+        }
+        return parseInet6(inet6Address, 0, inet6Address.length(), null, address);
+    }
 }
@@ -2,6 +2,10 @@ package org.apache.commons.validator.routines;
 
 /**
  * A collection of IINs aka BINs.
+ * <p>
+ * For a data-driven lookup of issuer, brand, product and country by IIN
+ * see {@link IssuerIdentificationTable}.
+ * </p>
  *
  * @author EUG https://github.com/homebeaver
  * @since 2.10.5
@@ -0,0 +1,512 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.validator.routines;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Lookup table of Issuer Identification Numbers (IIN aka BIN) with issuer, brand, product and country.
+ * <p>
+ * The table is kept in a compact binary format which is searched in place, usually a
+ * memory-mapped file, so no per-issuer objects are created on the heap:
+ * </p>
+ * <pre>
+ * int     magic "IINT"
+ * int     version (1)
+ * int     number of entries n
+ * int     bit mask of the prefix lengths present
+ * short   width of issuer, brand, product and country (4 values)
+ * long[n] prefix keys, ascending
+ * byte[n][record width] ISO-8859-1 issuer, brand, product and country, padded with zero bytes
+ * </pre>
+ * <p>
+ * A lookup finds the longest prefix of the card number in the table with a binary search per
+ * prefix length present. Tables are created with the {@link Builder}, for example from CSV:
+ * </p>
+ * <pre>
+ * {@code new IssuerIdentificationTable.Builder().readCsv(reader).write(outputStream);}
+ * {@code IssuerIdentificationTable table = IssuerIdentificationTable.open(path);}
+ * {@code int index = table.indexOf(cardNumber);}
+ * </pre>
+ *
+ * @see IssuerIdentificationNumber
+ * @since 2.10.6
+ */
+public final class IssuerIdentificationTable {
+
+    /**
+     * Collects the entries of a table.
+     * <p>
+     * The CSV format has the columns prefix, issuer, brand, product and country.
+     * Fields may be quoted with double quotes, empty lines and lines starting with {@code #} are ignored.
+     * </p>
+     */
+    public static final class Builder {
+
+        private final Map<Long, String[]> entries = new TreeMap<>();
+
+        /**
+         * Constructs an empty builder.
+         */
+        public Builder() {
+        }
+
+        /**
+         * Adds an entry.
+         *
+         * @param prefix the IIN prefix, 1 to 15 digits
+         * @param issuer the issuer, may be null
+         * @param brand the brand, may be null
+         * @param product the product, may be null
+         * @param country the country code, may be null
+         * @return this builder
+         * @throws IllegalArgumentException if the prefix is invalid or already added,
+         * or a value cannot be encoded in ISO-8859-1
+         */
+        public Builder add(final String prefix, final String issuer, final String brand, final String product, final String country) {
+            final long key = toKey(prefix);
+            final String[] values = { prefix, nonNull(issuer), nonNull(brand), nonNull(product), nonNull(country) };
+            for (int i = 1; i < values.length; i++) {
+                if (!StandardCharsets.ISO_8859_1.newEncoder().canEncode(values[i]) || values[i].length() > Short.MAX_VALUE) {
+                    throw new IllegalArgumentException("Cannot encode '" + values[i] + "' in ISO-8859-1");
+                }
+            }
+            if (entries.putIfAbsent(key, values) != null) {
+                throw new IllegalArgumentException("Duplicate prefix " + prefix);
+            }
+            return this;
+        }
+
+        /**
+         * Builds a table on the heap.
+         *
+         * @return the table
+         */
+        public IssuerIdentificationTable build() {
+            final ByteBuffer buffer = ByteBuffer.allocate(size());
+            write(buffer);
+            buffer.flip();
+            return wrap(buffer);
+        }
+
+        /**
+         * Gets the number of entries.
+         *
+         * @return the number of entries
+         */
+        public int getEntryCount() {
+            return entries.size();
+        }
+
+        /**
+         * Reads entries from CSV.
+         *
+         * @param reader the CSV source, it is not closed
+         * @return this builder
+         * @throws IOException if the source cannot be read
+         * @throws IllegalArgumentException if a line is invalid
+         */
+        public Builder readCsv(final Reader reader) throws IOException {
+            final BufferedReader lines = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+            String line;
+            int number = 0;
+            while ((line = lines.readLine()) != null) {
+                number++;
+                if (line.trim().isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                final List<String> fields = splitCsv(line);
+                if (fields.size() > FIELDS) {
+                    throw new IllegalArgumentException("Line " + number + ": expected at most " + FIELDS + " fields");
+                }
+                while (fields.size() < FIELDS) {
+                    fields.add("");
+                }
+                try {
+                    add(fields.get(0).trim(), fields.get(1), fields.get(2), fields.get(3), fields.get(4));
+                } catch (final IllegalArgumentException e) {
+                    throw new IllegalArgumentException("Line " + number + ": " + e.getMessage(), e);
+                }
+            }
+            return this;
+        }
+
+        private int size() {
+            return HEADER_SIZE + entries.size() * (Long.BYTES + recordWidth(widths()));
+        }
+
+        private int[] widths() {
+            final int[] widths = new int[FIELDS - 1];
+            for (final String[] values : entries.values()) {
+                for (int i = 0; i < widths.length; i++) {
+                    widths[i] = Math.max(widths[i], values[i + 1].length());
+                }
+            }
+            return widths;
+        }
+
+        /**
+         * Writes the table in the binary format.
+         *
+         * @param out the target, it is not closed
+         * @throws IOException if the table cannot be written
+         */
+        public void write(final OutputStream out) throws IOException {
+            final ByteBuffer buffer = ByteBuffer.allocate(size());
+            write(buffer);
+            out.write(buffer.array(), 0, buffer.position());
+            out.flush();
+        }
+
+        /**
+         * Writes the table to a file in the binary format.
+         *
+         * @param path the file, it is replaced if it exists
+         * @throws IOException if the file cannot be written
+         */
+        public void write(final Path path) throws IOException {
+            try (OutputStream out = Files.newOutputStream(path)) {
+                write(out);
+            }
+        }
+
+        private void write(final ByteBuffer buffer) {
+            final int[] widths = widths();
+            int lengths = 0;
+            for (final Long key : entries.keySet()) {
+                lengths |= 1 << (int) (key & LENGTH_MASK);
+            }
+            buffer.putInt(MAGIC).putInt(VERSION).putInt(entries.size()).putInt(lengths);
+            for (final int width : widths) {
+                buffer.putShort((short) width);
+            }
+            for (final Long key : entries.keySet()) {
+                buffer.putLong(key);
+            }
+            for (final String[] values : entries.values()) {
+                for (int i = 0; i < widths.length; i++) {
+                    final byte[] bytes = values[i + 1].getBytes(StandardCharsets.ISO_8859_1);
+                    buffer.put(bytes);
+                    buffer.position(buffer.position() + widths[i] - bytes.length);
+                }
+            }
+        }
+
+        private static String nonNull(final String value) {
+            return value == null ? "" : value;
+        }
+
+        private static List<String> splitCsv(final String line) {
+            final List<String> fields = new ArrayList<>();
+            final StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            for (int i = 0; i < line.length(); i++) {
+                final char c = line.charAt(i);
+                if (quoted) {
+                    if (c == '"') {
+                        if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                            field.append(c);
+                            i++;
+                        } else {
+                            quoted = false;
+                        }
+                    } else {
+                        field.append(c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else {
+                    field.append(c);
+                }
+            }
+            if (quoted) {
+                throw new IllegalArgumentException("Unterminated quote");
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+    }
+
+    /** "IINT" */
+    private static final int MAGIC = 0x49494E54;
+
+    private static final int VERSION = 1;
+
+    /** Number of CSV fields: prefix, issuer, brand, product, country */
+    private static final int FIELDS = 5;
+
+    private static final int HEADER_SIZE = 4 * Integer.BYTES + (FIELDS - 1) * Short.BYTES;
+
+    /** Longest prefix which fits into a key */
+    static final int MAX_PREFIX_LENGTH = 15;
+
+    /** The key keeps the prefix length in the low four bits */
+    private static final int LENGTH_BITS = 4;
+
+    private static final long LENGTH_MASK = (1 << LENGTH_BITS) - 1;
+
+    private static final long[] POWERS_OF_TEN = new long[MAX_PREFIX_LENGTH + 1];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10; // CHECKSTYLE IGNORE MagicNumber
+        }
+    }
+
+    /**
+     * Maps a table file into memory.
+     *
+     * @param path the file in the binary format
+     * @return the table
+     * @throws IOException if the file cannot be read
+     * @throws IllegalArgumentException if the file is not a valid table
+     */
+    public static IssuerIdentificationTable open(final Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return wrap(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Uses a buffer in the binary format as table, the buffer content must not be modified afterwards.
+     *
+     * @param buffer the table data from position 0
+     * @return the table
+     * @throws IllegalArgumentException if the buffer is not a valid table
+     */
+    public static IssuerIdentificationTable wrap(final ByteBuffer buffer) {
+        return new IssuerIdentificationTable(buffer.duplicate());
+    }
+
+    private static int recordWidth(final int[] widths) {
+        int width = 0;
+        for (final int w : widths) {
+            width += w;
+        }
+        return width;
+    }
+
+    /**
+     * Creates the key of a prefix: the prefix padded with zeros to 15 digits, followed by its length.
+     */
+    private static long toKey(final String prefix) {
+        if (prefix == null || prefix.isEmpty() || prefix.length() > MAX_PREFIX_LENGTH) {
+            throw new IllegalArgumentException("Invalid prefix '" + prefix + "'");
+        }
+        long value = 0;
+        for (int i = 0; i < prefix.length(); i++) {
+            final char c = prefix.charAt(i);
+            if (c < '0' || c > '9') {
+                throw new IllegalArgumentException("Invalid prefix '" + prefix + "'");
+            }
+            value = value * 10 + c - '0'; // CHECKSTYLE IGNORE MagicNumber
+        }
+        return toKey(value, prefix.length());
+    }
+
+    private static long toKey(final long value, final int length) {
+        return value * POWERS_OF_TEN[MAX_PREFIX_LENGTH - length] << LENGTH_BITS | length;
+    }
+
+    private final ByteBuffer buffer;
+
+    private final int count;
+
+    private final int lengths;
+
+    private final int[] offsets = new int[FIELDS - 1];
+
+    private final int[] widths = new int[FIELDS - 1];
+
+    private final int recordsStart;
+
+    private final int recordWidth;
+
+    private IssuerIdentificationTable(final ByteBuffer buffer) {
+        if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException("Not an IIN table");
+        }
+        if (buffer.getInt(Integer.BYTES) != VERSION) {
+            throw new IllegalArgumentException("Unsupported IIN table version " + buffer.getInt(Integer.BYTES));
+        }
+        this.buffer = buffer;
+        this.count = buffer.getInt(2 * Integer.BYTES);
+        this.lengths = buffer.getInt(3 * Integer.BYTES); // CHECKSTYLE IGNORE MagicNumber
+        int offset = 0;
+        for (int i = 0; i < widths.length; i++) {
+            widths[i] = buffer.getShort(4 * Integer.BYTES + i * Short.BYTES); // CHECKSTYLE IGNORE MagicNumber
+            offsets[i] = offset;
+            offset += widths[i];
+        }
+        this.recordWidth = offset;
+        this.recordsStart = HEADER_SIZE + count * Long.BYTES;
+        if (count < 0 || (long) recordsStart + (long) count * recordWidth > buffer.limit()) {
+            throw new IllegalArgumentException("Truncated IIN table");
+        }
+    }
+
+    /**
+     * Finds the entry with the longest prefix of the card number.
+     *
+     * @param card the card number, only its leading digits are used
+     * @return the index of the entry or -1 if no prefix matches
+     */
+    public int indexOf(final CharSequence card) {
+        if (card == null) {
+            return -1;
+        }
+        int digits = 0;
+        long value = 0;
+        while (digits < MAX_PREFIX_LENGTH && digits < card.length()) {
+            final char c = card.charAt(digits);
+            if (c < '0' || c > '9') {
+                break;
+            }
+            value = value * 10 + c - '0'; // CHECKSTYLE IGNORE MagicNumber
+            digits++;
+        }
+        for (int length = digits; length > 0; length--) {
+            if ((lengths & 1 << length) != 0) {
+                final int index = search(toKey(value / POWERS_OF_TEN[digits - length], length));
+                if (index >= 0) {
+                    return index;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private int search(final long key) {
+        int low = 0;
+        int high = count - 1;
+        while (low <= high) {
+            final int mid = low + high >>> 1;
+            final long midKey = buffer.getLong(HEADER_SIZE + mid * Long.BYTES);
+            if (midKey < key) {
+                low = mid + 1;
+            } else if (midKey > key) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    private String field(final int index, final int field) {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("Index " + index + ", size " + count);
+        }
+        final int start = recordsStart + index * recordWidth + offsets[field];
+        int length = widths[field];
+        while (length > 0 && buffer.get(start + length - 1) == 0) {
+            length--;
+        }
+        final byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = buffer.get(start + i);
+        }
+        return new String(bytes, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Gets the brand of an entry.
+     *
+     * @param index the index of the entry
+     * @return the brand, empty if unknown
+     */
+    public String getBrand(final int index) {
+        return field(index, 1);
+    }
+
+    /**
+     * Gets the country code of an entry.
+     *
+     * @param index the index of the entry
+     * @return the country code, empty if unknown
+     */
+    public String getCountry(final int index) {
+        return field(index, 3); // CHECKSTYLE IGNORE MagicNumber
+    }
+
+    /**
+     * Gets the issuer of an entry.
+     *
+     * @param index the index of the entry
+     * @return the issuer, empty if unknown
+     */
+    public String getIssuer(final int index) {
+        return field(index, 0);
+    }
+
+    /**
+     * Gets the prefix of an entry.
+     *
+     * @param index the index of the entry
+     * @return the prefix digits
+     */
+    public String getPrefix(final int index) {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("Index " + index + ", size " + count);
+        }
+        final long key = buffer.getLong(HEADER_SIZE + index * Long.BYTES);
+        final int length = (int) (key & LENGTH_MASK);
+        final long value = (key >>> LENGTH_BITS) / POWERS_OF_TEN[MAX_PREFIX_LENGTH - length];
+        final StringBuilder prefix = new StringBuilder(length).append(value);
+        while (prefix.length() < length) {
+            prefix.insert(0, '0');
+        }
+        return prefix.toString();
+    }
+
+    /**
+     * Gets the product of an entry.
+     *
+     * @param index the index of the entry
+     * @return the product, empty if unknown
+     */
+    public String getProduct(final int index) {
+        return field(index, 2);
+    }
+
+    /**
+     * Gets the number of entries.
+     *
+     * @return the number of entries
+     */
+    public int size() {
+        return count;
+    }
+
+}
@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.validator.routines;
+
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * The regular expressions of a format, compiled into a {@link RegexValidator} on first use.
+ * <p>
+ * Used by the validators holding a table of per-country formats, so that only the formats
+ * of the countries actually validated are compiled.
+ * </p>
+ *
+ * @since 2.10.6
+ */
+final class LazyRegexValidator {
+
+    private final String[] regexs;
+
+    private volatile RegexValidator regexValidator;
+
+    /**
+     * Creates the holder, the regular expressions are neither checked nor compiled.
+     *
+     * @param regexs the regular expressions, see {@link RegexValidator#RegexValidator(String...)}
+     */
+    LazyRegexValidator(final String... regexs) {
+        this.regexs = regexs;
+    }
+
+    /**
+     * Checks the syntax of the regular expressions without keeping the compiled patterns,
+     * so a malformed user supplied format fails when it is defined rather than when it is first used.
+     *
+     * @return this holder
+     * @throws IllegalArgumentException if a regular expression is missing
+     * @throws PatternSyntaxException if a regular expression is malformed
+     */
+    LazyRegexValidator checkSyntax() {
+        if (regexs == null || regexs.length == 0) {
+            throw new IllegalArgumentException("Regular expressions are missing");
+        }
+        for (int i = 0; i < regexs.length; i++) {
+            if (regexs[i] == null || regexs[i].isEmpty()) {
+                throw new IllegalArgumentException("Regular expression[" + i + "] is missing");
+            }
+            Pattern.compile(regexs[i]);
+        }
+        return this;
+    }
+
+    /**
+     * Gets the RegexValidator, compiling it on the first call.
+     *
+     * @return the RegexValidator
+     */
+    RegexValidator get() {
+        RegexValidator result = regexValidator;
+        if (result == null) {
+            // racy but harmless, at worst the same format is compiled twice
+            result = new RegexValidator(regexs);
+            regexValidator = result;
+        }
+        return result;
+    }
+}
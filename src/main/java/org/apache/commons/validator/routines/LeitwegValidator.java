@@ -78,7 +78,7 @@ public class LeitwegValidator {
         + OPTIONAL_DETAIL + MD_CHECK_DIGITS;
     private static final String[] FORMAT = new String[] {FORMAT1, FORMAT2, FORMAT3, FORMAT4};
 
-    static RegexValidator FORMAT_VALIDATOR = new RegexValidator(FORMAT);
+    static RegexValidator FORMAT_VALIDATOR = new RegexValidator(FORMAT, true, true);
 
     /*
      * in theory the shortest Leitweg-ID has a minimal general part and check digits
@@ -94,7 +94,7 @@ public class LeitwegValidator {
      */
     private static final int MAX_CODE_LEN = 44;
 
-    private static final CodeValidator VALIDATOR = new CodeValidator(new RegexValidator(FORMAT), MIN_CODE_LEN, MAX_CODE_LEN, Modulus97CheckDigit.getInstance());
+    private static final CodeValidator VALIDATOR = new CodeValidator(new RegexValidator(FORMAT, true, true), MIN_CODE_LEN, MAX_CODE_LEN, Modulus97CheckDigit.getInstance());
 
     /** The singleton instance which uses the default formats */
     private static final LeitwegValidator DEFAULT_LEITWEG_VALIDATOR = new LeitwegValidator();
@@ -0,0 +1,453 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.validator.routines;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.validator.routines.TravelDocumentValidator.Type;
+
+/**
+ * Machine Readable Zone (MRZ) of a travel document.
+ * <p>
+ * Parses the two or three lines of the MRZ of passports, identity cards and visas
+ * and verifies the check digits of the fields and the composite check digit.
+ * The fields are at fixed positions, so they are located without regular expressions
+ * and kept as slices of the MRZ text, see {@link #getStart(Field)} and {@link #getEnd(Field)}.
+ * </p>
+ * <p>
+ * Supported are the formats defined in ICAO Doc 9303:
+ * </p>
+ * <ul>
+ * <li>TD1 - three lines of 30 characters, f.i. ID-cards</li>
+ * <li>TD2 - two lines of 36 characters</li>
+ * <li>TD3 - two lines of 44 characters, passports</li>
+ * <li>MRV-A and MRV-B - two lines of 44 or 36 characters, visas</li>
+ * </ul>
+ * <p>
+ * For example:
+ * </p>
+ * <pre>
+ * MachineReadableZone mrz = MachineReadableZone.parse(
+ *     "P&lt;UTOERIKSSON&lt;&lt;ANNA&lt;MARIA&lt;&lt;&lt;&lt;&lt;&lt;&lt;&lt;&lt;&lt;&lt;&lt;&lt;&lt;&lt;&lt;&lt;&lt;&lt;",
+ *     "L898902C36UTO7408122F1204159ZE184226B&lt;&lt;&lt;&lt;&lt;10");
+ * mrz.isValid(); // true
+ * mrz.get(Field.DOCUMENT_NUMBER); // "L898902C3"
+ * </pre>
+ * <p>
+ * See International Civil Aviation Organization, Doc 9303:
+ * Machine Readable Travel Documents, Part 4 to 7
+ * for more details.
+ * </p>
+ *
+ * @since 2.10.6
+ */
+public final class MachineReadableZone {
+
+    /**
+     * The MRZ formats.
+     */
+    public enum Format {
+        /** Size 1 travel document, three lines of 30 characters */
+        TD1(3, 30),
+        /** Size 2 travel document, two lines of 36 characters */
+        TD2(2, 36),
+        /** Passport, two lines of 44 characters */
+        TD3(2, 44),
+        /** Visa format A, two lines of 44 characters */
+        MRV_A(2, 44),
+        /** Visa format B, two lines of 36 characters */
+        MRV_B(2, 36);
+
+        private final int lines;
+        private final int lineLength;
+
+        Format(final int lines, final int lineLength) {
+            this.lines = lines;
+            this.lineLength = lineLength;
+        }
+
+        /**
+         * Gets the number of lines.
+         *
+         * @return the number of lines
+         */
+        public int getLines() {
+            return lines;
+        }
+
+        /**
+         * Gets the number of characters of each line.
+         *
+         * @return the line length
+         */
+        public int getLineLength() {
+            return lineLength;
+        }
+    }
+
+    /**
+     * The fields of a MRZ.
+     */
+    public enum Field {
+        /** Document code, f.i. "P&lt;" or "ID" */
+        DOCUMENT_CODE,
+        /** Issuing state or organization */
+        ISSUING_STATE,
+        /** Document number, checked */
+        DOCUMENT_NUMBER,
+        /** Optional data, the personal number of a passport is checked */
+        OPTIONAL_DATA_1,
+        /** Date of birth YYMMDD, checked */
+        DATE_OF_BIRTH,
+        /** Sex: F, M, X or &lt; */
+        SEX,
+        /** Date of expiry YYMMDD, checked */
+        DATE_OF_EXPIRY,
+        /** Nationality */
+        NATIONALITY,
+        /** Optional data of the second line of TD1 */
+        OPTIONAL_DATA_2,
+        /** Primary and secondary identifier, separated by "&lt;&lt;" */
+        NAME
+    }
+
+    private static final char FILLER = '<';
+    private static final int[] WEIGHTS = {7, 3, 1};
+    private static final int NONE = -1;
+
+    /*
+     * Layouts: for each field start, end and position of the check digit (or NONE)
+     * in the text of all lines, followed by the ranges covered by the composite check digit and its position.
+     */
+    // @formatter:off
+    private static final int[][] TD1_FIELDS = {
+            {0, 2, NONE}, {2, 5, NONE}, {5, 14, 14}, {15, 30, NONE}, {30, 36, 36}, {37, 38, NONE}, {38, 44, 44}, {45, 48, NONE},
+            {48, 59, NONE}, {60, 90, NONE} };
+    private static final int[] TD1_COMPOSITE = {5, 30, 30, 37, 38, 45, 48, 59, 59};
+    private static final int[][] TD2_FIELDS = {
+            {0, 2, NONE}, {2, 5, NONE}, {36, 45, 45}, {64, 71, NONE}, {49, 55, 55}, {56, 57, NONE}, {57, 63, 63}, {46, 49, NONE},
+            {NONE, NONE, NONE}, {5, 36, NONE} };
+    private static final int[] TD2_COMPOSITE = {36, 46, 49, 56, 57, 71, 71};
+    private static final int[][] TD3_FIELDS = {
+            {0, 2, NONE}, {2, 5, NONE}, {44, 53, 53}, {72, 86, 86}, {57, 63, 63}, {64, 65, NONE}, {65, 71, 71}, {54, 57, NONE},
+            {NONE, NONE, NONE}, {5, 44, NONE} };
+    private static final int[] TD3_COMPOSITE = {44, 54, 57, 64, 65, 87, 87};
+    private static final int[][] MRV_A_FIELDS = {
+            {0, 2, NONE}, {2, 5, NONE}, {44, 53, 53}, {72, 88, NONE}, {57, 63, 63}, {64, 65, NONE}, {65, 71, 71}, {54, 57, NONE},
+            {NONE, NONE, NONE}, {5, 44, NONE} };
+    private static final int[][] MRV_B_FIELDS = {
+            {0, 2, NONE}, {2, 5, NONE}, {36, 45, 45}, {64, 72, NONE}, {49, 55, 55}, {56, 57, NONE}, {57, 63, 63}, {46, 49, NONE},
+            {NONE, NONE, NONE}, {5, 36, NONE} };
+    // @formatter:on
+
+    /**
+     * Parses a MRZ given as one text, the lines separated by line breaks.
+     *
+     * @param text the MRZ
+     * @return the parsed MRZ or {@code null} if the text is no MRZ of a supported format
+     */
+    public static MachineReadableZone parse(final CharSequence text) {
+        if (text == null) {
+            return null;
+        }
+        final List<String> lines = new ArrayList<>(3);
+        int start = 0;
+        for (int i = 0; i <= text.length(); i++) {
+            if (i == text.length() || text.charAt(i) == '\n' || text.charAt(i) == '\r') {
+                if (i > start) {
+                    lines.add(text.subSequence(start, i).toString());
+                }
+                start = i + 1;
+            }
+        }
+        return parse(lines.toArray(new String[0]));
+    }
+
+    /**
+     * Parses the lines of a MRZ.
+     *
+     * @param lines the two or three lines of the MRZ
+     * @return the parsed MRZ or {@code null} if the lines are no MRZ of a supported format
+     */
+    public static MachineReadableZone parse(final String... lines) {
+        if (lines == null || lines.length < 2 || lines.length > 3 || lines[0] == null) {
+            return null;
+        }
+        final int lineLength = lines[0].length();
+        final StringBuilder text = new StringBuilder(lines.length * lineLength);
+        for (final String line : lines) {
+            if (line == null || line.length() != lineLength) {
+                return null;
+            }
+            for (int i = 0; i < lineLength; i++) {
+                final char c = line.charAt(i);
+                if (!(c >= 'A' && c <= 'Z' || c >= '0' && c <= '9' || c == FILLER)) {
+                    return null;
+                }
+            }
+            text.append(line);
+        }
+        final boolean visa = lines[0].charAt(0) == 'V';
+        final Format format;
+        if (lines.length == Format.TD1.lines && lineLength == Format.TD1.lineLength) {
+            format = Format.TD1;
+        } else if (lines.length == Format.TD2.lines && lineLength == Format.TD2.lineLength) {
+            format = visa ? Format.MRV_B : Format.TD2;
+        } else if (lines.length == Format.TD3.lines && lineLength == Format.TD3.lineLength) {
+            format = visa ? Format.MRV_A : Format.TD3;
+        } else {
+            return null;
+        }
+        return new MachineReadableZone(format, text.toString());
+    }
+
+    /**
+     * Calculates the check digit of the characters in the ranges.
+     *
+     * @param text the MRZ
+     * @param ranges start and end of each range, the weights continue from range to range
+     * @param count the number of array elements used for ranges
+     * @return the check digit value 0 to 9
+     */
+    private static int checkDigit(final String text, final int[] ranges, final int count) {
+        int sum = 0;
+        int position = 0;
+        for (int r = 0; r < count; r += 2) {
+            for (int i = ranges[r]; i < ranges[r + 1]; i++) {
+                final char c = text.charAt(i);
+                final int value = c == FILLER ? 0 : c <= '9' ? c - '0' : c - 'A' + 10; // CHECKSTYLE IGNORE MagicNumber
+                sum += value * WEIGHTS[position++ % WEIGHTS.length];
+            }
+        }
+        return sum % 10; // CHECKSTYLE IGNORE MagicNumber
+    }
+
+    private final Format format;
+    private final String text;
+    private final int[][] fields;
+    private final int[] composite;
+
+    /**
+     * The document number of TD1 can be longer than nine characters,
+     * the filler at the check digit position is followed by the remaining characters and the check digit.
+     */
+    private final int[] documentNumberRanges;
+
+    private MachineReadableZone(final Format format, final String text) {
+        this.format = format;
+        this.text = text;
+        switch (format) {
+        case TD1:
+            fields = TD1_FIELDS.clone();
+            composite = TD1_COMPOSITE;
+            break;
+        case TD2:
+            fields = TD2_FIELDS;
+            composite = TD2_COMPOSITE;
+            break;
+        case TD3:
+            fields = TD3_FIELDS;
+            composite = TD3_COMPOSITE;
+            break;
+        case MRV_A:
+            fields = MRV_A_FIELDS;
+            composite = null;
+            break;
+        default:
+            fields = MRV_B_FIELDS;
+            composite = null;
+            break;
+        }
+        final int[] documentNumber = fields[Field.DOCUMENT_NUMBER.ordinal()];
+        if (format == Format.TD1 && text.charAt(documentNumber[2]) == FILLER) {
+            final int[] optionalData = fields[Field.OPTIONAL_DATA_1.ordinal()];
+            int last = optionalData[1] - 1;
+            while (last >= optionalData[0] && text.charAt(last) == FILLER) {
+                last--;
+            }
+            if (last > optionalData[0]) {
+                // extended document number: optional data holds the remaining characters and the check digit
+                documentNumberRanges = new int[] {documentNumber[0], documentNumber[1], optionalData[0], last};
+                fields[Field.DOCUMENT_NUMBER.ordinal()] = new int[] {documentNumber[0], last, last};
+                fields[Field.OPTIONAL_DATA_1.ordinal()] = new int[] {last + 1, optionalData[1], NONE};
+                return;
+            }
+        }
+        documentNumberRanges = new int[] {documentNumber[0], documentNumber[1]};
+    }
+
+    /**
+     * Gets the value of a field, trailing fillers are removed.
+     * An extended TD1 document number is returned without the filler separating its parts.
+     *
+     * @param field the field
+     * @return the value or {@code null} if the format has no such field
+     */
+    public String get(final Field field) {
+        final int start = getStart(field);
+        if (start == NONE) {
+            return null;
+        }
+        if (field == Field.DOCUMENT_NUMBER) {
+            final StringBuilder value = new StringBuilder();
+            for (int r = 0; r < documentNumberRanges.length; r += 2) {
+                value.append(text, documentNumberRanges[r], documentNumberRanges[r + 1]);
+            }
+            return trimFiller(value.toString());
+        }
+        return trimFiller(text.substring(start, getEnd(field)));
+    }
+
+    private static String trimFiller(final String value) {
+        int end = value.length();
+        while (end > 0 && value.charAt(end - 1) == FILLER) {
+            end--;
+        }
+        return value.substring(0, end);
+    }
+
+    /**
+     * Gets the document type for the document code.
+     *
+     * @return the document type or {@code null} if the document code is none of {@link Type}
+     */
+    public Type getDocumentType() {
+        for (final Type type : Type.values()) {
+            if (text.startsWith(type.toString())) {
+                return type;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Gets the index after the last character of a field in {@link #getText()}.
+     *
+     * @param field the field
+     * @return the end index or -1 if the format has no such field
+     */
+    public int getEnd(final Field field) {
+        return fields[field.ordinal()][1];
+    }
+
+    /**
+     * Gets the format.
+     *
+     * @return the format
+     */
+    public Format getFormat() {
+        return format;
+    }
+
+    /**
+     * Gets the index of the first character of a field in {@link #getText()}.
+     *
+     * @param field the field
+     * @return the start index or -1 if the format has no such field
+     */
+    public int getStart(final Field field) {
+        return fields[field.ordinal()][0];
+    }
+
+    /**
+     * Gets the text of the MRZ, all lines without line breaks.
+     *
+     * @return the MRZ text
+     */
+    public String getText() {
+        return text;
+    }
+
+    /**
+     * Validates the check digits of all fields, the composite check digit,
+     * the country codes and the sex.
+     *
+     * @return {@code true} if the MRZ is valid
+     */
+    public boolean isValid() {
+        for (final Field field : Field.values()) {
+            if (!isValid(field)) {
+                return false;
+            }
+        }
+        return isValidCompositeCheckDigit();
+    }
+
+    /**
+     * Validates a field: the check digit of fields which have one,
+     * ISSUING_STATE and NATIONALITY must be ICAO countries and SEX must be F, M, X or &lt;.
+     *
+     * @param field the field
+     * @return {@code true} if the field is valid or the format has no such field
+     */
+    public boolean isValid(final Field field) {
+        final int[] layout = fields[field.ordinal()];
+        if (layout[0] == NONE) {
+            return true;
+        }
+        switch (field) {
+        case ISSUING_STATE:
+        case NATIONALITY:
+            return TravelDocumentValidator.ICAO.isIcaoCountry(text, layout[0]);
+        case SEX:
+            final char sex = text.charAt(layout[0]);
+            return sex == 'F' || sex == 'M' || sex == 'X' || sex == FILLER;
+        case DOCUMENT_NUMBER:
+            return isValidCheckDigit(documentNumberRanges, documentNumberRanges.length, layout[2]);
+        default:
+            if (layout[2] == NONE) {
+                return true;
+            }
+            return isValidCheckDigit(layout, 2, layout[2]);
+        }
+    }
+
+    /**
+     * Validates the composite check digit over the document number, date of birth, date of expiry and optional data.
+     *
+     * @return {@code true} if the composite check digit is valid or the format has no composite check digit
+     */
+    public boolean isValidCompositeCheckDigit() {
+        if (composite == null) {
+            return true;
+        }
+        final int position = composite[composite.length - 1];
+        return text.charAt(position) - '0' == checkDigit(text, composite, composite.length - 1);
+    }
+
+    private boolean isValidCheckDigit(final int[] ranges, final int count, final int position) {
+        final char cd = text.charAt(position);
+        if (cd == FILLER) {
+            // an empty optional field may have a filler as check digit
+            for (int r = 0; r < count; r += 2) {
+                for (int i = ranges[r]; i < ranges[r + 1]; i++) {
+                    if (text.charAt(i) != FILLER) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+        return cd - '0' == checkDigit(text, ranges, count);
+    }
+
+    @Override
+    public String toString() {
+        return format + ":" + text;
+    }
+}
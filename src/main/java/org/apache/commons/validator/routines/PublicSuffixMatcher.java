@@ -0,0 +1,384 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.validator.routines;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Finds the public suffix and the registrable domain (eTLD+1) of host names with the
+ * <a href="https://publicsuffix.org/list/">Public Suffix List</a>.
+ * <p>
+ * The rules, including wildcard ({@code *.ck}) and exception ({@code !www.ck}) rules, are compiled into a trie of
+ * reversed labels which is flattened into a few arrays: the labels of all nodes share one {@code char[]} and the
+ * children are found with one open addressing {@code int[]} hash table keyed by parent node and label. A lookup
+ * walks the host name once from right to left without splitting it.
+ * </p>
+ * <p>
+ * Host names are checked with the label syntax of {@link DomainValidator} and converted to punycode first,
+ * rules in Unicode are converted the same way, so results are lower case ASCII. For example:
+ * </p>
+ * <pre>
+ * {@code PublicSuffixMatcher matcher = PublicSuffixMatcher.load(Paths.get("public_suffix_list.dat"));}
+ * {@code matcher.getPublicSuffix("www.example.co.uk");       // co.uk}
+ * {@code matcher.getRegistrableDomain("www.example.co.uk");  // example.co.uk}
+ * </pre>
+ * <p>
+ * Instances are immutable and thread-safe.
+ * </p>
+ *
+ * @since 2.10.6
+ */
+public final class PublicSuffixMatcher {
+
+    /** Node flag: the labels up to the node are a rule */
+    private static final int RULE = 1;
+
+    /** Node flag: any label below the node is a rule */
+    private static final int WILDCARD = 2;
+
+    /** Node flag: the labels up to the node are an exception rule */
+    private static final int EXCEPTION = 4;
+
+    private static final int ROOT = 0;
+
+    /**
+     * Reads the rules in the format of the Public Suffix List: one rule per line, only the text up to the first
+     * white space counts, empty lines and lines starting with {@code //} are ignored.
+     * Both the ICANN and the private sections are used.
+     *
+     * @param reader the list, not closed
+     * @return the matcher
+     * @throws IOException if the list cannot be read
+     * @throws IllegalArgumentException if a rule is invalid
+     */
+    public static PublicSuffixMatcher load(final Reader reader) throws IOException {
+        final Builder builder = new Builder();
+        final BufferedReader lines = reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader);
+        String line;
+        while ((line = lines.readLine()) != null) {
+            final String rule = line.trim().split("\\s", 2)[0];
+            if (!rule.isEmpty() && !rule.startsWith("//")) {
+                builder.add(rule);
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Reads the rules from a UTF-8 file, see {@link #load(Reader)}.
+     *
+     * @param file the list, usually a copy of {@code public_suffix_list.dat}
+     * @return the matcher
+     * @throws IOException if the list cannot be read
+     * @throws IllegalArgumentException if a rule is invalid
+     */
+    public static PublicSuffixMatcher load(final Path file) throws IOException {
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return load(reader);
+        }
+    }
+
+    /**
+     * Hashes a label folding ASCII upper case letters to lower case.
+     */
+    private static int hash(final int parent, final CharSequence text, final int start, final int end) {
+        int hash = parent;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + toLowerCase(text.charAt(i)); // CHECKSTYLE IGNORE MagicNumber
+        }
+        hash *= 0x9E3779B9; // CHECKSTYLE IGNORE MagicNumber
+        return hash ^ hash >>> 16; // CHECKSTYLE IGNORE MagicNumber
+    }
+
+    private static char toLowerCase(final char c) {
+        return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+    }
+
+    /** Flags of each node */
+    private final byte[] flags;
+
+    /** Parent of each node */
+    private final int[] parents;
+
+    /** Start of the label of each node in {@link #chars}, one more entry for the end */
+    private final int[] labelStarts;
+
+    /** Labels of all nodes */
+    private final char[] chars;
+
+    /** Child nodes + 1 by hash of parent and label, 0 if empty */
+    private final int[] children;
+
+    private PublicSuffixMatcher(final byte[] flags, final int[] parents, final int[] labelStarts, final char[] chars, final int[] children) {
+        this.flags = flags;
+        this.parents = parents;
+        this.labelStarts = labelStarts;
+        this.chars = chars;
+        this.children = children;
+    }
+
+    /**
+     * Finds the child of a node for a label.
+     *
+     * @return the child or -1
+     */
+    private int child(final int parent, final CharSequence text, final int start, final int end) {
+        final int mask = children.length - 1;
+        int slot = hash(parent, text, start, end) & mask;
+        int entry;
+        while ((entry = children[slot]) != 0) {
+            final int node = entry - 1;
+            if (parents[node] == parent && labelEquals(node, text, start, end)) {
+                return node;
+            }
+            slot = slot + 1 & mask;
+        }
+        return -1;
+    }
+
+    private boolean labelEquals(final int node, final CharSequence text, final int start, final int end) {
+        final int offset = labelStarts[node];
+        if (labelStarts[node + 1] - offset != end - start) {
+            return false;
+        }
+        for (int i = start; i < end; i++) {
+            if (chars[offset + i - start] != toLowerCase(text.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Finds the public suffix of a valid ASCII host name in one pass from right to left.
+     *
+     * @param host the host name
+     * @param start the start of the host name
+     * @param end the end of the host name, without a trailing dot
+     * @return the start of the public suffix
+     */
+    int indexOfPublicSuffix(final CharSequence host, final int start, final int end) {
+        int node = ROOT;
+        int suffix = end; // set to the top level label by the implicit rule "*"
+        int labelEnd = end;
+        for (int i = end - 1; i >= start - 1; i--) {
+            if (i >= start && host.charAt(i) != '.') {
+                continue;
+            }
+            final int labelStart = i + 1;
+            final int child = child(node, host, labelStart, labelEnd);
+            if (child >= 0 && (flags[child] & EXCEPTION) != 0) {
+                // an exception prevails, the suffix is the rule without this label
+                return labelEnd + 1;
+            }
+            if (node == ROOT || (flags[node] & WILDCARD) != 0) {
+                suffix = labelStart;
+            }
+            if (child < 0) {
+                break;
+            }
+            if ((flags[child] & RULE) != 0) {
+                suffix = labelStart;
+            }
+            node = child;
+            labelEnd = i;
+        }
+        return suffix;
+    }
+
+    /**
+     * Converts a host name to its valid lower case ASCII form without a trailing dot.
+     *
+     * @return the host name or {@code null} if invalid
+     */
+    private static String normalize(final String hostname) {
+        if (hostname == null) {
+            return null;
+        }
+        final String ascii = DomainValidator.unicodeToASCII(hostname);
+        int end = ascii.length();
+        if (end > 0 && ascii.charAt(end - 1) == '.') {
+            end--;
+        }
+        if (end == 0 || DomainValidator.scanDomain(ascii, 0, end) == DomainValidator.INVALID_SYNTAX) {
+            return null;
+        }
+        return ascii.substring(0, end).toLowerCase(Locale.ENGLISH);
+    }
+
+    /**
+     * Gets the public suffix of a host name, the part under which anyone can register names.
+     * <p>
+     * If no rule matches the top level label is the public suffix.
+     * </p>
+     *
+     * @param hostname the host name, Unicode or ASCII
+     * @return the public suffix in lower case ASCII, or {@code null} if the host name is not valid
+     */
+    public String getPublicSuffix(final String hostname) {
+        final String host = normalize(hostname);
+        if (host == null) {
+            return null;
+        }
+        return host.substring(indexOfPublicSuffix(host, 0, host.length()));
+    }
+
+    /**
+     * Gets the registrable domain of a host name, its public suffix and the label before it (eTLD+1).
+     *
+     * @param hostname the host name, Unicode or ASCII
+     * @return the registrable domain in lower case ASCII, or {@code null} if the host name is not valid
+     * or is a public suffix
+     */
+    public String getRegistrableDomain(final String hostname) {
+        final String host = normalize(hostname);
+        if (host == null) {
+            return null;
+        }
+        final int suffix = indexOfPublicSuffix(host, 0, host.length());
+        if (suffix == 0) {
+            return null;
+        }
+        return host.substring(host.lastIndexOf('.', suffix - 2) + 1);
+    }
+
+    /**
+     * Tests whether a host name is a public suffix.
+     *
+     * @param hostname the host name, Unicode or ASCII
+     * @return {@code true} if the host name is valid and a public suffix
+     */
+    public boolean isPublicSuffix(final String hostname) {
+        final String host = normalize(hostname);
+        return host != null && indexOfPublicSuffix(host, 0, host.length()) == 0;
+    }
+
+    /**
+     * Tests whether a host name is a registrable domain, that is exactly one label below a public suffix.
+     *
+     * @param hostname the host name, Unicode or ASCII
+     * @return {@code true} if the host name is valid and a registrable domain
+     */
+    public boolean isRegistrableDomain(final String hostname) {
+        final String host = normalize(hostname);
+        if (host == null) {
+            return false;
+        }
+        final int suffix = indexOfPublicSuffix(host, 0, host.length());
+        return suffix > 0 && host.lastIndexOf('.', suffix - 2) < 0;
+    }
+
+    /**
+     * Gets the number of nodes of the trie, which is at least the number of distinct rules.
+     *
+     * @return the number of nodes
+     */
+    int size() {
+        return parents.length;
+    }
+
+    /**
+     * Compiles the rules.
+     */
+    private static final class Builder {
+
+        private final Map<String, Integer> nodes = new HashMap<>();
+        private int[] parents = new int[64]; // CHECKSTYLE IGNORE MagicNumber
+        private byte[] flags = new byte[64]; // CHECKSTYLE IGNORE MagicNumber
+        private String[] labels = new String[64]; // CHECKSTYLE IGNORE MagicNumber
+        private int size = 1; // the root
+
+        void add(final String line) {
+            String rule = line;
+            int flag = RULE;
+            if (rule.startsWith("!")) {
+                flag = EXCEPTION;
+                rule = rule.substring(1);
+            }
+            if (rule.startsWith("*.")) {
+                if (flag == EXCEPTION) {
+                    throw new IllegalArgumentException("Invalid rule: " + line);
+                }
+                flag = WILDCARD;
+                rule = rule.substring(2);
+            }
+            final String ascii = DomainValidator.unicodeToASCII(rule).toLowerCase(Locale.ENGLISH);
+            if (ascii.isEmpty() || DomainValidator.scanDomain(ascii, 0, ascii.length()) == DomainValidator.INVALID_SYNTAX
+                    || ascii.endsWith(".") || flag == EXCEPTION && ascii.indexOf('.') < 0) {
+                throw new IllegalArgumentException("Invalid rule: " + line);
+            }
+            int node = ROOT;
+            int end = ascii.length();
+            while (end > 0) {
+                final int start = ascii.lastIndexOf('.', end - 1) + 1;
+                node = node(node, ascii.substring(start, end));
+                end = start - 1;
+            }
+            flags[node] |= flag;
+        }
+
+        private int node(final int parent, final String label) {
+            final String key = parent + "." + label;
+            final Integer existing = nodes.get(key);
+            if (existing != null) {
+                return existing;
+            }
+            if (size == parents.length) {
+                parents = Arrays.copyOf(parents, size * 2);
+                flags = Arrays.copyOf(flags, size * 2);
+                labels = Arrays.copyOf(labels, size * 2);
+            }
+            parents[size] = parent;
+            labels[size] = label;
+            nodes.put(key, size);
+            return size++;
+        }
+
+        PublicSuffixMatcher build() {
+            final int[] labelStarts = new int[size + 1];
+            final StringBuilder chars = new StringBuilder();
+            final int[] children = new int[Integer.highestOneBit(size * 2) << 1];
+            final int mask = children.length - 1;
+            for (int node = 0; node < size; node++) {
+                labelStarts[node] = chars.length();
+                if (node == ROOT) {
+                    continue;
+                }
+                final String label = labels[node];
+                chars.append(label);
+                int slot = hash(parents[node], label, 0, label.length()) & mask;
+                while (children[slot] != 0) {
+                    slot = slot + 1 & mask;
+                }
+                children[slot] = node + 1;
+            }
+            labelStarts[size] = chars.length();
+            final char[] array = new char[chars.length()];
+            chars.getChars(0, array.length, array, 0);
+            return new PublicSuffixMatcher(Arrays.copyOf(flags, size), Arrays.copyOf(parents, size), labelStarts, array, children);
+        }
+    }
+}
@@ -0,0 +1,431 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.validator.routines;
+
+import java.io.Serializable;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+
+/**
+ * Deterministic automaton which matches a value against several regular expressions in one pass.
+ * <p>
+ * The expressions are translated into one nondeterministic automaton (Thompson construction)
+ * which is then made deterministic (subset construction). Each accepting state knows the
+ * first expression which matches, so {@link #match(CharSequence)} reports the same index as trying
+ * the {@link Pattern}s in order with {@link java.util.regex.Matcher#matches()}, in linear time and
+ * without backtracking.
+ * </p>
+ * <p>
+ * The patterns are parsed by {@link RegexNode}. {@link #compile(Pattern[])} returns {@code null}
+ * for the syntax it does not understand, possessive quantifiers, flags, or when the automaton
+ * would get too large.
+ * </p>
+ *
+ * @since 2.10.6
+ */
+final class RegexAutomaton implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /** Returned by {@link #match(CharSequence)} if the value must be matched by the patterns */
+    static final int FALLBACK = -2;
+
+    /** Limit of the nondeterministic states */
+    private static final int MAX_NFA_STATES = 20_000;
+
+    /** Limit of the deterministic states */
+    private static final int MAX_DFA_STATES = 4_096;
+
+    private static final int ASCII = 128;
+
+    private static final int MAX_CHAR = Character.MAX_VALUE;
+
+    /**
+     * Compiles the patterns into an automaton.
+     *
+     * @param patterns the patterns in order of precedence
+     * @return the automaton or {@code null} if a pattern is not supported or the automaton is too large
+     */
+    static RegexAutomaton compile(final Pattern[] patterns) {
+        final Nfa nfa = new Nfa();
+        final int start = nfa.state();
+        try {
+            for (int i = 0; i < patterns.length; i++) {
+                if (patterns[i].flags() != 0) {
+                    return null;
+                }
+                final RegexNode node = RegexNode.parse(patterns[i].pattern());
+                if (node == null) {
+                    return null;
+                }
+                final int[] fragment = fragment(node, nfa);
+                nfa.epsilon(start, fragment[0]);
+                nfa.accept(fragment[1], i);
+            }
+        } catch (final IllegalArgumentException e) {
+            return null; // too many states or a possessive quantifier
+        }
+        return nfa.determinize(start);
+    }
+
+    /** Start of each character class, ascending, the first is 0 */
+    private final int[] classStarts;
+
+    /** Character class of the ASCII characters */
+    private final int[] asciiClasses;
+
+    /** Next state per state and character class, -1 if none */
+    private final int[] transitions;
+
+    /** Index of the first matching pattern per state, -1 if not accepting */
+    private final int[] accepts;
+
+    private RegexAutomaton(final int[] classStarts, final int[] transitions, final int[] accepts) {
+        this.classStarts = classStarts;
+        this.transitions = transitions;
+        this.accepts = accepts;
+        this.asciiClasses = new int[ASCII];
+        for (int c = 0; c < ASCII; c++) {
+            asciiClasses[c] = classOf(c);
+        }
+    }
+
+    private int classOf(final int c) {
+        int low = 0;
+        int high = classStarts.length - 1;
+        while (low < high) {
+            final int mid = low + high + 1 >>> 1;
+            if (classStarts[mid] <= c) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Matches the whole value.
+     *
+     * @param value the value
+     * @return the index of the first pattern which matches, -1 if none matches, or {@link #FALLBACK}
+     * if the value contains surrogates (patterns match code points, the automaton chars)
+     */
+    int match(final CharSequence value) {
+        return match(value, 0, value.length());
+    }
+
+    /**
+     * Matches a range of the value.
+     *
+     * @param value the value
+     * @param start the index of the first character
+     * @param end the index after the last character
+     * @return the index of the first pattern which matches, -1 if none matches, or {@link #FALLBACK}
+     * @see #match(CharSequence)
+     */
+    int match(final CharSequence value, final int start, final int end) {
+        final int classes = classStarts.length;
+        int state = 0;
+        for (int i = start; i < end; i++) {
+            final char c = value.charAt(i);
+            final int cls;
+            if (c < ASCII) {
+                cls = asciiClasses[c];
+            } else if (Character.isSurrogate(c)) {
+                return FALLBACK;
+            } else {
+                cls = classOf(c);
+            }
+            state = transitions[state * classes + cls];
+            if (state < 0) {
+                return -1;
+            }
+        }
+        return accepts[state];
+    }
+
+    /**
+     * Gets the number of deterministic states.
+     *
+     * @return the number of states
+     */
+    int size() {
+        return accepts.length;
+    }
+
+    /**
+     * Nondeterministic automaton under construction.
+     */
+    private static final class Nfa {
+
+        private int states;
+        private int[] accept = new int[64]; // CHECKSTYLE IGNORE MagicNumber
+
+        private int epsilonCount;
+        private int[] epsilonFrom = new int[64]; // CHECKSTYLE IGNORE MagicNumber
+        private int[] epsilonTo = new int[64]; // CHECKSTYLE IGNORE MagicNumber
+
+        private int edgeCount;
+        private int[] edgeFrom = new int[64]; // CHECKSTYLE IGNORE MagicNumber
+        private int[] edgeTo = new int[64]; // CHECKSTYLE IGNORE MagicNumber
+        private int[][] edgeRanges = new int[64][]; // CHECKSTYLE IGNORE MagicNumber
+
+        int state() {
+            if (states == MAX_NFA_STATES) {
+                throw new IllegalArgumentException("Too many states");
+            }
+            if (states == accept.length) {
+                accept = Arrays.copyOf(accept, states * 2);
+            }
+            accept[states] = -1;
+            return states++;
+        }
+
+        void accept(final int state, final int pattern) {
+            accept[state] = pattern;
+        }
+
+        void epsilon(final int from, final int to) {
+            if (epsilonCount == epsilonFrom.length) {
+                epsilonFrom = Arrays.copyOf(epsilonFrom, epsilonCount * 2);
+                epsilonTo = Arrays.copyOf(epsilonTo, epsilonCount * 2);
+            }
+            epsilonFrom[epsilonCount] = from;
+            epsilonTo[epsilonCount++] = to;
+        }
+
+        /**
+         * Adds a transition on a set of characters.
+         *
+         * @param ranges sorted disjoint inclusive ranges: low0, high0, low1, high1, ...
+         * @return the fragment {start, end}
+         */
+        int[] chars(final int[] ranges) {
+            final int from = state();
+            final int to = state();
+            if (edgeCount == edgeFrom.length) {
+                edgeFrom = Arrays.copyOf(edgeFrom, edgeCount * 2);
+                edgeTo = Arrays.copyOf(edgeTo, edgeCount * 2);
+                edgeRanges = Arrays.copyOf(edgeRanges, edgeCount * 2);
+            }
+            edgeFrom[edgeCount] = from;
+            edgeTo[edgeCount] = to;
+            edgeRanges[edgeCount++] = ranges;
+            return new int[] { from, to };
+        }
+
+        private static int[][] adjacency(final int states, final int count, final int[] from, final int[] to) {
+            final int[] sizes = new int[states];
+            for (int i = 0; i < count; i++) {
+                sizes[from[i]]++;
+            }
+            final int[][] result = new int[states][];
+            for (int s = 0; s < states; s++) {
+                result[s] = new int[sizes[s]];
+            }
+            for (int i = count - 1; i >= 0; i--) {
+                result[from[i]][--sizes[from[i]]] = i;
+            }
+            return result;
+        }
+
+        RegexAutomaton determinize(final int start) {
+            // character classes: intervals between all range boundaries
+            final TreeSet<Integer> bounds = new TreeSet<>();
+            bounds.add(0);
+            for (int e = 0; e < edgeCount; e++) {
+                final int[] ranges = edgeRanges[e];
+                for (int r = 0; r < ranges.length; r += 2) {
+                    bounds.add(ranges[r]);
+                    if (ranges[r + 1] < MAX_CHAR) {
+                        bounds.add(ranges[r + 1] + 1);
+                    }
+                }
+            }
+            final int[] classStarts = new int[bounds.size()];
+            int k = 0;
+            for (final Integer bound : bounds) {
+                classStarts[k++] = bound;
+            }
+            final int classes = classStarts.length;
+            // classes covered by each edge
+            final int[][] edgeClasses = new int[edgeCount][];
+            for (int e = 0; e < edgeCount; e++) {
+                final int[] ranges = edgeRanges[e];
+                int n = 0;
+                final int[] covered = new int[classes];
+                for (int r = 0; r < ranges.length; r += 2) {
+                    int cls = Arrays.binarySearch(classStarts, ranges[r]);
+                    while (cls < classes && classStarts[cls] <= ranges[r + 1]) {
+                        covered[n++] = cls++;
+                    }
+                }
+                edgeClasses[e] = Arrays.copyOf(covered, n);
+            }
+            final int[][] epsilons = adjacency(states, epsilonCount, epsilonFrom, epsilonTo);
+            final int[][] edges = adjacency(states, edgeCount, edgeFrom, edgeTo);
+
+            final Map<BitSet, Integer> ids = new HashMap<>();
+            final ArrayDeque<BitSet> work = new ArrayDeque<>();
+            final BitSet initial = new BitSet(states);
+            initial.set(start);
+            closure(initial, epsilons);
+            ids.put(initial, 0);
+            work.add(initial);
+            int[] transitions = new int[classes * 16]; // CHECKSTYLE IGNORE MagicNumber
+            int[] accepts = new int[16]; // CHECKSTYLE IGNORE MagicNumber
+            final BitSet[] targets = new BitSet[classes];
+            while (!work.isEmpty()) {
+                final BitSet current = work.poll();
+                final int id = ids.get(current);
+                if ((id + 1) * classes > transitions.length) {
+                    transitions = Arrays.copyOf(transitions, Math.max(transitions.length * 2, (id + 1) * classes));
+                }
+                if (id >= accepts.length) {
+                    accepts = Arrays.copyOf(accepts, accepts.length * 2);
+                }
+                int accepting = -1;
+                Arrays.fill(targets, null);
+                for (int s = current.nextSetBit(0); s >= 0; s = current.nextSetBit(s + 1)) {
+                    if (accept[s] >= 0 && (accepting < 0 || accept[s] < accepting)) {
+                        accepting = accept[s];
+                    }
+                    for (final int e : edges[s]) {
+                        for (final int cls : edgeClasses[e]) {
+                            if (targets[cls] == null) {
+                                targets[cls] = new BitSet(states);
+                            }
+                            targets[cls].set(edgeTo[e]);
+                        }
+                    }
+                }
+                accepts[id] = accepting;
+                for (int cls = 0; cls < classes; cls++) {
+                    final BitSet target = targets[cls];
+                    if (target == null) {
+                        transitions[id * classes + cls] = -1;
+                        continue;
+                    }
+                    closure(target, epsilons);
+                    Integer next = ids.get(target);
+                    if (next == null) {
+                        if (ids.size() == MAX_DFA_STATES) {
+                            return null;
+                        }
+                        next = ids.size();
+                        ids.put(target, next);
+                        work.add(target);
+                    }
+                    transitions[id * classes + cls] = next;
+                }
+            }
+            final int size = ids.size();
+            return new RegexAutomaton(classStarts, Arrays.copyOf(transitions, size * classes), Arrays.copyOf(accepts, size));
+        }
+
+        private void closure(final BitSet set, final int[][] epsilons) {
+            final ArrayDeque<Integer> stack = new ArrayDeque<>();
+            for (int s = set.nextSetBit(0); s >= 0; s = set.nextSetBit(s + 1)) {
+                stack.push(s);
+            }
+            while (!stack.isEmpty()) {
+                final int s = stack.pop();
+                for (final int e : epsilons[s]) {
+                    final int to = epsilonTo[e];
+                    if (!set.get(to)) {
+                        set.set(to);
+                        stack.push(to);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Translates a syntax tree into a fragment of the nondeterministic automaton.
+     *
+     * @return the fragment {start, end}
+     */
+    private static int[] fragment(final RegexNode node, final Nfa nfa) {
+        switch (node.type) {
+        case RegexNode.CHARS:
+            // supplementary code points are left to the patterns, see match()
+            return nfa.chars(node.ranges);
+        case RegexNode.SEQUENCE:
+            final int start = nfa.state();
+            int end = start;
+            for (final RegexNode child : node.children) {
+                final int[] item = fragment(child, nfa);
+                nfa.epsilon(end, item[0]);
+                end = item[1];
+            }
+            return new int[] { start, end };
+        case RegexNode.ALTERNATION:
+            final int first = nfa.state();
+            final int last = nfa.state();
+            for (final RegexNode child : node.children) {
+                final int[] alternative = fragment(child, nfa);
+                nfa.epsilon(first, alternative[0]);
+                nfa.epsilon(alternative[1], last);
+            }
+            return new int[] { first, last };
+        case RegexNode.REPEAT:
+            return repeat(node, nfa);
+        default: // GROUP
+            return fragment(node.children[0], nfa);
+        }
+    }
+
+    /**
+     * Repeats the child of a {@link RegexNode#REPEAT} node by translating it again for each copy.
+     */
+    private static int[] repeat(final RegexNode node, final Nfa nfa) {
+        if (node.possessive) {
+            throw new IllegalArgumentException("Possessive quantifiers change the language");
+        }
+        final int min = node.min;
+        final int max = node.max;
+        final int start = nfa.state();
+        int end = start;
+        final int copies = max == RegexNode.UNBOUNDED ? Math.max(min, 1) : max;
+        for (int i = 0; i < copies; i++) {
+            final int[] copy = fragment(node.children[0], nfa);
+            if (max == RegexNode.UNBOUNDED && i == copies - 1) {
+                // last copy loops: min == 0 makes it optional (star), otherwise plus
+                nfa.epsilon(copy[1], copy[0]);
+            }
+            if (i < min) {
+                nfa.epsilon(end, copy[0]);
+                end = copy[1];
+            } else {
+                // optional copy
+                final int next = nfa.state();
+                nfa.epsilon(end, copy[0]);
+                nfa.epsilon(end, next);
+                nfa.epsilon(copy[1], next);
+                end = next;
+            }
+        }
+        return new int[] { start, end };
+    }
+}
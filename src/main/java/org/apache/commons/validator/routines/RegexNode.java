@@ -0,0 +1,467 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.validator.routines;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Syntax tree of a regular expression, shared by {@link RegexSummary} and {@link RegexAutomaton}.
+ * <p>
+ * Only the regular subset of the {@link java.util.regex.Pattern} syntax is understood: literals,
+ * escaped punctuation, {@code \t \n \r \f}, {@code \d \w \s} and their negations, character classes
+ * with ranges and negation, {@code .}, capturing and non-capturing groups, alternation, the greedy,
+ * lazy and possessive quantifiers and {@code ^}/{@code $} at the ends of a top level alternative,
+ * where they are no-ops with {@link java.util.regex.Matcher#matches()} and are dropped.
+ * {@link #parse(String)} returns {@code null} for anything else.
+ * </p>
+ *
+ * @since 2.10.6
+ */
+final class RegexNode {
+
+    /** A set of characters, see {@link #ranges} */
+    static final int CHARS = 0;
+
+    /** The children one after the other */
+    static final int SEQUENCE = 1;
+
+    /** One of the children */
+    static final int ALTERNATION = 2;
+
+    /** The child repeated {@link #min} to {@link #max} times */
+    static final int REPEAT = 3;
+
+    /** A group around the child, see {@link #capturing} */
+    static final int GROUP = 4;
+
+    /** {@link #max} of unbounded repetitions */
+    static final int UNBOUNDED = -1;
+
+    private static final int MAX_CHAR = Character.MAX_VALUE;
+
+    /** The characters of {@code \d} */
+    private static final int[] DIGIT = { '0', '9' };
+
+    /** The characters of {@code \w} */
+    private static final int[] WORD = { '0', '9', 'A', 'Z', '_', '_', 'a', 'z' };
+
+    /** The characters of {@code \s} */
+    private static final int[] SPACE = { '\t', '\r', ' ', ' ' };
+
+    /** The characters of {@code .}: all but the line terminators */
+    private static final int[] DOT = { 0, '\n' - 1, '\n' + 1, '\r' - 1, '\r' + 1, 0x84, 0x86, 0x2027, 0x202A, MAX_CHAR }; // CHECKSTYLE IGNORE MagicNumber
+
+    /**
+     * Parses a regular expression.
+     *
+     * @param regex the expression
+     * @return the tree or {@code null} if the expression is not understood
+     */
+    static RegexNode parse(final String regex) {
+        try {
+            return new Parser(regex).parse();
+        } catch (final IllegalArgumentException | IndexOutOfBoundsException e) {
+            return null;
+        }
+    }
+
+    /** The type of the node */
+    final int type;
+
+    /**
+     * {@link #CHARS}: the characters, sorted disjoint inclusive ranges: low0, high0, low1, high1, ...
+     * Surrogates are never included.
+     */
+    final int[] ranges;
+
+    /** {@link #CHARS}: whether supplementary code points match as well */
+    final boolean supplementary;
+
+    /** The children in order, the only child of {@link #REPEAT} and {@link #GROUP} */
+    final RegexNode[] children;
+
+    /** {@link #REPEAT}: the minimum count */
+    final int min;
+
+    /** {@link #REPEAT}: the maximum count or {@link #UNBOUNDED} */
+    final int max;
+
+    /** {@link #REPEAT}: whether the quantifier is possessive, which may change the language */
+    final boolean possessive;
+
+    /** {@link #GROUP}: whether the group is capturing */
+    final boolean capturing;
+
+    private RegexNode(final int type, final int[] ranges, final boolean supplementary, final RegexNode[] children, final int min, final int max,
+            final boolean possessive, final boolean capturing) {
+        this.type = type;
+        this.ranges = ranges;
+        this.supplementary = supplementary;
+        this.children = children;
+        this.min = min;
+        this.max = max;
+        this.possessive = possessive;
+        this.capturing = capturing;
+    }
+
+    private static RegexNode chars(final int[] ranges, final boolean supplementary) {
+        return new RegexNode(CHARS, ranges, supplementary, null, 0, 0, false, false);
+    }
+
+    private static RegexNode of(final int type, final List<RegexNode> children) {
+        return new RegexNode(type, null, false, children.toArray(new RegexNode[0]), 0, 0, false, false);
+    }
+
+    /**
+     * Gets the only character of a {@link #CHARS} node.
+     *
+     * @return the character or -1 if the node matches more than one
+     */
+    int singleChar() {
+        return type == CHARS && !supplementary && ranges.length == 2 && ranges[0] == ranges[1] ? ranges[0] : -1;
+    }
+
+    /**
+     * A character set which may include supplementary code points.
+     */
+    private static final class CharSet {
+
+        final int[] ranges;
+        final boolean supplementary;
+
+        CharSet(final int[] ranges, final boolean supplementary) {
+            this.ranges = ranges;
+            this.supplementary = supplementary;
+        }
+
+        CharSet union(final CharSet other) {
+            return new CharSet(RegexNode.union(ranges, other.ranges), supplementary || other.supplementary);
+        }
+
+        CharSet complement() {
+            return new CharSet(RegexNode.complement(ranges), !supplementary);
+        }
+    }
+
+    private static CharSet range(final int low, final int high) {
+        if (low > high || low <= Character.MAX_SURROGATE && high >= Character.MIN_SURROGATE) {
+            throw new IllegalArgumentException("Unsupported range");
+        }
+        return new CharSet(new int[] { low, high }, false);
+    }
+
+    /**
+     * Complements ranges in the non-surrogate characters.
+     */
+    private static int[] complement(final int[] ranges) {
+        int[] result = {};
+        int next = 0;
+        for (int r = 0; r < ranges.length; r += 2) {
+            if (ranges[r] > next) {
+                result = union(result, new int[] { next, ranges[r] - 1 });
+            }
+            next = ranges[r + 1] + 1;
+        }
+        if (next <= MAX_CHAR) {
+            result = union(result, new int[] { next, MAX_CHAR });
+        }
+        return withoutSurrogates(result);
+    }
+
+    private static int[] withoutSurrogates(final int[] ranges) {
+        int[] result = new int[ranges.length + 2];
+        int n = 0;
+        for (int r = 0; r < ranges.length; r += 2) {
+            final int low = ranges[r];
+            final int high = ranges[r + 1];
+            if (high < Character.MIN_SURROGATE || low > Character.MAX_SURROGATE) {
+                result[n++] = low;
+                result[n++] = high;
+            } else {
+                if (low < Character.MIN_SURROGATE) {
+                    result[n++] = low;
+                    result[n++] = Character.MIN_SURROGATE - 1;
+                }
+                if (high > Character.MAX_SURROGATE) {
+                    result[n++] = Character.MAX_SURROGATE + 1;
+                    result[n++] = high;
+                }
+            }
+            if (n + 4 > result.length) {
+                result = Arrays.copyOf(result, result.length * 2);
+            }
+        }
+        return Arrays.copyOf(result, n);
+    }
+
+    /**
+     * Merges two sets of sorted disjoint ranges.
+     */
+    private static int[] union(final int[] a, final int[] b) {
+        final int[] all = new int[a.length + b.length];
+        System.arraycopy(a, 0, all, 0, a.length);
+        System.arraycopy(b, 0, all, a.length, b.length);
+        final Integer[] order = new Integer[all.length / 2];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (x, y) -> Integer.compare(all[2 * x], all[2 * y]));
+        final int[] result = new int[all.length];
+        int n = 0;
+        for (final int i : order) {
+            final int low = all[2 * i];
+            final int high = all[2 * i + 1];
+            if (n > 0 && low <= result[n - 1] + 1) {
+                result[n - 1] = Math.max(result[n - 1], high);
+            } else {
+                result[n++] = low;
+                result[n++] = high;
+            }
+        }
+        return Arrays.copyOf(result, n);
+    }
+
+    /**
+     * Recursive descent parser of the supported syntax.
+     */
+    private static final class Parser {
+
+        private final String regex;
+        private int pos;
+
+        Parser(final String regex) {
+            this.regex = regex;
+        }
+
+        RegexNode parse() {
+            final RegexNode node = alternation(true);
+            if (pos != regex.length()) {
+                throw new IllegalArgumentException("Unexpected " + regex.charAt(pos));
+            }
+            return node;
+        }
+
+        private boolean more() {
+            return pos < regex.length();
+        }
+
+        private char peek() {
+            return regex.charAt(pos);
+        }
+
+        private RegexNode alternation(final boolean topLevel) {
+            final List<RegexNode> alternatives = new ArrayList<>();
+            alternatives.add(sequence(topLevel));
+            while (more() && peek() == '|') {
+                pos++;
+                alternatives.add(sequence(topLevel));
+            }
+            return alternatives.size() == 1 ? alternatives.get(0) : of(ALTERNATION, alternatives);
+        }
+
+        private RegexNode sequence(final boolean topLevel) {
+            final List<RegexNode> items = new ArrayList<>();
+            boolean first = true;
+            while (more() && peek() != '|' && peek() != ')') {
+                final char c = peek();
+                if (c == '^' || c == '$') {
+                    // only no-ops with Matcher.matches(): at the start or the end of a top level alternative
+                    final boolean atEnd = pos + 1 == regex.length() || regex.charAt(pos + 1) == '|';
+                    if (!topLevel || (c == '^' ? !first : !atEnd)) {
+                        throw new IllegalArgumentException("Unsupported anchor");
+                    }
+                    pos++;
+                    continue;
+                }
+                first = false;
+                RegexNode atom = atom();
+                if (more() && "?*+{".indexOf(peek()) >= 0) {
+                    atom = quantifier(atom);
+                }
+                items.add(atom);
+            }
+            return of(SEQUENCE, items);
+        }
+
+        private RegexNode atom() {
+            final char c = regex.charAt(pos++);
+            switch (c) {
+            case '(':
+                boolean capturing = true;
+                if (more() && peek() == '?') {
+                    if (pos + 1 < regex.length() && regex.charAt(pos + 1) == ':') {
+                        capturing = false;
+                        pos += 2;
+                    } else {
+                        throw new IllegalArgumentException("Unsupported group");
+                    }
+                }
+                final RegexNode group = alternation(false);
+                if (regex.charAt(pos++) != ')') {
+                    throw new IllegalArgumentException("Missing )");
+                }
+                return new RegexNode(GROUP, null, false, new RegexNode[] { group }, 0, 0, false, capturing);
+            case '[':
+                final CharSet characterClass = characterClass();
+                return chars(characterClass.ranges, characterClass.supplementary);
+            case '\\':
+                final CharSet escaped = escape();
+                return chars(escaped.ranges, escaped.supplementary);
+            case '.':
+                return chars(withoutSurrogates(DOT), true);
+            case ')':
+            case ']':
+            case '{':
+            case '}':
+            case '?':
+            case '*':
+            case '+':
+                throw new IllegalArgumentException("Unexpected " + c);
+            default:
+                final CharSet literal = range(c, c);
+                return chars(literal.ranges, false);
+            }
+        }
+
+        private CharSet escape() {
+            final char c = regex.charAt(pos++);
+            switch (c) {
+            case 'd':
+                return new CharSet(DIGIT.clone(), false);
+            case 'D':
+                return new CharSet(DIGIT.clone(), false).complement();
+            case 'w':
+                return new CharSet(WORD.clone(), false);
+            case 'W':
+                return new CharSet(WORD.clone(), false).complement();
+            case 's':
+                return new CharSet(SPACE.clone(), false);
+            case 'S':
+                return new CharSet(SPACE.clone(), false).complement();
+            case 't':
+                return range('\t', '\t');
+            case 'n':
+                return range('\n', '\n');
+            case 'r':
+                return range('\r', '\r');
+            case 'f':
+                return range('\f', '\f');
+            default:
+                if (Character.isLetterOrDigit(c)) {
+                    throw new IllegalArgumentException("Unsupported escape \\" + c);
+                }
+                return range(c, c);
+            }
+        }
+
+        private CharSet characterClass() {
+            boolean negated = false;
+            if (more() && peek() == '^') {
+                negated = true;
+                pos++;
+            }
+            if (peek() == ']') {
+                throw new IllegalArgumentException("Unsupported class");
+            }
+            CharSet result = new CharSet(new int[] {}, false);
+            while (peek() != ']') {
+                final char c = regex.charAt(pos++);
+                if (c == '[' || c == '&') {
+                    throw new IllegalArgumentException("Unsupported class");
+                }
+                int low = c;
+                if (c == '\\') {
+                    final CharSet item = escape();
+                    if (item.supplementary || item.ranges.length != 2 || item.ranges[0] != item.ranges[1]) {
+                        result = result.union(item);
+                        continue;
+                    }
+                    low = item.ranges[0];
+                }
+                int high = low;
+                if (peek() == '-' && regex.charAt(pos + 1) != ']') {
+                    pos++;
+                    final char to = regex.charAt(pos++);
+                    if (to == '[' || to == '&') {
+                        throw new IllegalArgumentException("Unsupported class");
+                    }
+                    if (to == '\\') {
+                        final CharSet item = escape();
+                        if (item.supplementary || item.ranges.length != 2 || item.ranges[0] != item.ranges[1]) {
+                            throw new IllegalArgumentException("Unsupported range");
+                        }
+                        high = item.ranges[0];
+                    } else {
+                        high = to;
+                    }
+                }
+                result = result.union(range(low, high));
+            }
+            pos++;
+            return negated ? result.complement() : result;
+        }
+
+        private RegexNode quantifier(final RegexNode atom) {
+            final char c = regex.charAt(pos++);
+            final int min;
+            final int max;
+            switch (c) {
+            case '?':
+                min = 0;
+                max = 1;
+                break;
+            case '*':
+                min = 0;
+                max = UNBOUNDED;
+                break;
+            case '+':
+                min = 1;
+                max = UNBOUNDED;
+                break;
+            default: // '{'
+                final int close = regex.indexOf('}', pos);
+                final String bounds = regex.substring(pos, close);
+                pos = close + 1;
+                final int comma = bounds.indexOf(',');
+                if (comma < 0) {
+                    min = Integer.parseInt(bounds);
+                    max = min;
+                } else {
+                    min = Integer.parseInt(bounds.substring(0, comma));
+                    max = comma == bounds.length() - 1 ? UNBOUNDED : Integer.parseInt(bounds.substring(comma + 1));
+                }
+                if (min < 0 || max != UNBOUNDED && max < min) {
+                    throw new IllegalArgumentException("Invalid repetition");
+                }
+                break;
+            }
+            boolean possessive = false;
+            if (more() && peek() == '+') {
+                possessive = true;
+                pos++;
+            } else if (more() && peek() == '?') {
+                pos++; // lazy quantifiers match the same language
+            }
+            if (more() && "?*+{".indexOf(peek()) >= 0) {
+                throw new IllegalArgumentException("Nested quantifier");
+            }
+            return new RegexNode(REPEAT, null, false, new RegexNode[] { atom }, min, max, possessive, false);
+        }
+    }
+}
@@ -0,0 +1,236 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.validator.routines;
+
+/**
+ * Conservative summary of a regular expression: the length range, the characters and the
+ * literal prefix of every string the expression matches.
+ * <p>
+ * The expression is parsed by {@link RegexNode}, {@link #parse(String)} returns {@code null}
+ * for the syntax it does not understand.
+ * </p>
+ *
+ * @since 2.10.6
+ */
+final class RegexSummary {
+
+    /** Maximum length of unbounded expressions */
+    static final int UNBOUNDED = Integer.MAX_VALUE;
+
+    /**
+     * Summarizes a regular expression.
+     *
+     * @param regex the expression
+     * @return the summary or {@code null} if the expression is not understood
+     */
+    static RegexSummary parse(final String regex) {
+        final RegexNode node = RegexNode.parse(regex);
+        return node == null ? null : summarize(node, true);
+    }
+
+    private static RegexSummary summarize(final RegexNode node, final boolean topLevel) {
+        switch (node.type) {
+        case RegexNode.CHARS:
+            final int single = node.singleChar();
+            if (single >= 0) {
+                return literal((char) single);
+            }
+            final RegexSummary chars = chars();
+            for (int r = 0; r < node.ranges.length; r += 2) {
+                chars.addRange((char) node.ranges[r], (char) node.ranges[r + 1]);
+            }
+            chars.nonAscii |= node.supplementary;
+            return chars;
+        case RegexNode.SEQUENCE:
+            RegexSummary sequence = empty();
+            int groups = 0;
+            int others = 0;
+            for (final RegexNode child : node.children) {
+                final RegexSummary item = summarize(child, false);
+                if (child.type == RegexNode.GROUP && child.capturing && item.captures == 1) {
+                    groups++;
+                } else {
+                    others++;
+                }
+                sequence = sequence.then(item);
+            }
+            sequence.wholeCapture = topLevel && groups == 1 && others == 0;
+            return sequence;
+        case RegexNode.ALTERNATION:
+            RegexSummary alternation = summarize(node.children[0], topLevel);
+            for (int i = 1; i < node.children.length; i++) {
+                alternation = alternation.or(summarize(node.children[i], topLevel));
+            }
+            return alternation;
+        case RegexNode.REPEAT:
+            // a possessive quantifier may only match less
+            return summarize(node.children[0], false).repeat(node.min, node.max == RegexNode.UNBOUNDED ? UNBOUNDED : node.max);
+        default: // GROUP
+            final RegexSummary group = summarize(node.children[0], false);
+            group.wholeCapture = false;
+            if (node.capturing) {
+                group.captures++;
+            }
+            return group;
+        }
+    }
+
+    private static int add(final int a, final int b) {
+        return a == UNBOUNDED || b == UNBOUNDED || (long) a + b >= UNBOUNDED ? UNBOUNDED : a + b;
+    }
+
+    private static int multiply(final int a, final int b) {
+        if (a == 0 || b == 0) {
+            return 0;
+        }
+        return a == UNBOUNDED || b == UNBOUNDED || (long) a * b >= UNBOUNDED ? UNBOUNDED : a * b;
+    }
+
+    private static String commonPrefix(final String a, final String b) {
+        int i = 0;
+        while (i < a.length() && i < b.length() && a.charAt(i) == b.charAt(i)) {
+            i++;
+        }
+        return a.substring(0, i);
+    }
+
+    /** Minimum length */
+    int min;
+
+    /** Maximum length or {@link #UNBOUNDED} */
+    int max;
+
+    /** The ASCII characters which may occur, bit c of ascii[c / 64] */
+    final long[] ascii = new long[2];
+
+    /** Whether non-ASCII characters may occur */
+    boolean nonAscii;
+
+    /** The only string matched or {@code null} */
+    String literal;
+
+    /** Prefix of every string matched */
+    String prefix = "";
+
+    /** Number of capturing groups */
+    int captures;
+
+    /** Whether the expression is a single capturing group (apart from anchors) which contains no other groups */
+    boolean wholeCapture;
+
+    private RegexSummary() {
+    }
+
+    private static RegexSummary empty() {
+        final RegexSummary summary = new RegexSummary();
+        summary.literal = "";
+        return summary;
+    }
+
+    private static RegexSummary chars() {
+        final RegexSummary summary = new RegexSummary();
+        summary.min = 1;
+        summary.max = 1;
+        return summary;
+    }
+
+    private static RegexSummary literal(final char c) {
+        final RegexSummary summary = chars();
+        summary.addRange(c, c);
+        summary.literal = String.valueOf(c);
+        summary.prefix = summary.literal;
+        return summary;
+    }
+
+    private void addRange(final char from, final char to) {
+        for (int c = from; c <= to; c++) {
+            if (c >= 128) { // CHECKSTYLE IGNORE MagicNumber
+                nonAscii = true;
+                break;
+            }
+            ascii[c >>> 6] |= 1L << c;
+        }
+    }
+
+    private void addChars(final RegexSummary other) {
+        ascii[0] |= other.ascii[0];
+        ascii[1] |= other.ascii[1];
+        nonAscii |= other.nonAscii;
+    }
+
+    /**
+     * Tests whether the character may occur in a match.
+     */
+    boolean allows(final char c) {
+        return c < 128 ? (ascii[c >>> 6] & 1L << c) != 0 : nonAscii; // CHECKSTYLE IGNORE MagicNumber
+    }
+
+    /**
+     * Tests whether every character may occur.
+     */
+    boolean allowsAll() {
+        return nonAscii && ascii[0] == -1L && ascii[1] == -1L;
+    }
+
+    /**
+     * Combines the summaries of alternative expressions.
+     *
+     * @param other the other summary
+     * @return this summary
+     */
+    RegexSummary or(final RegexSummary other) {
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        addChars(other);
+        literal = literal != null && literal.equals(other.literal) ? literal : null;
+        prefix = commonPrefix(prefix, other.prefix);
+        captures += other.captures;
+        wholeCapture = false;
+        return this;
+    }
+
+    private RegexSummary then(final RegexSummary next) {
+        if (literal != null) {
+            prefix = next.literal != null ? literal + next.literal : literal + next.prefix;
+        }
+        literal = literal != null && next.literal != null ? literal + next.literal : null;
+        min = add(min, next.min);
+        max = add(max, next.max);
+        addChars(next);
+        captures += next.captures;
+        return this;
+    }
+
+    private RegexSummary repeat(final int from, final int to) {
+        final RegexSummary summary = new RegexSummary();
+        summary.min = multiply(min, from);
+        summary.max = multiply(max, to);
+        summary.addChars(this);
+        summary.captures = captures;
+        if (literal != null && from == to) {
+            final StringBuilder buffer = new StringBuilder();
+            for (int i = 0; i < from; i++) {
+                buffer.append(literal);
+            }
+            summary.literal = buffer.toString();
+            summary.prefix = summary.literal;
+        } else if (from > 0) {
+            summary.prefix = literal != null ? literal : prefix;
+        }
+        return summary;
+    }
+}
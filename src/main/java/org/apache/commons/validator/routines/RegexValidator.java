@@ -18,6 +18,7 @@ package org.apache.commons.validator.routines;
 
 import java.io.Serializable;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -62,6 +63,11 @@ import java.util.regex.Pattern;
  * <p>
  * Cached instances pre-compile and re-use {@link Pattern}(s) - which according to the {@link Pattern} API are safe to use in a multi-threaded environment.
  * </p>
+ * <p>
+ * {@link Matcher}s are not thread-safe, so each call takes one out of a small striped pool
+ * (selected by thread id, which also works for virtual threads), resets it to the input
+ * and puts it back afterwards. Only if the slot is empty a new {@link Matcher} is created.
+ * </p>
  *
  * @since 1.4
  */
@@ -71,6 +77,14 @@ public class RegexValidator implements Serializable {
 
     private static final int CASE_SENSITIVE = 0;
 
+    /** Number of pooled matchers per pattern, a power of two */
+    private static final int STRIPES = Math.min(64, Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1) << 1); // CHECKSTYLE IGNORE MagicNumber
+
+    private static int stripe() {
+        final long id = Thread.currentThread().getId();
+        return (int) (id * 0x9E3779B97F4A7C15L >>> 32) & STRIPES - 1; // CHECKSTYLE IGNORE MagicNumber
+    }
+
     private static int toCompileFlags(final boolean caseSensitive) {
         return caseSensitive ? CASE_SENSITIVE : Pattern.CASE_INSENSITIVE;
     }
@@ -80,6 +94,16 @@ public class RegexValidator implements Serializable {
      */
     private final Pattern[] patterns;
 
+    /**
+     * Pooled matchers, STRIPES slots per pattern, created on first use.
+     */
+    private transient AtomicReferenceArray<Matcher> matchers;
+
+    /**
+     * Combined automaton of the patterns, {@code null} if not requested or not supported.
+     */
+    private final RegexAutomaton automaton;
+
     /**
      * Constructs a new instance that matches any one of the set of regular expressions with the specified case sensitivity.
      *
@@ -87,6 +111,17 @@ public class RegexValidator implements Serializable {
      * @param flags  See {@link Pattern#compile(String, int)}. sensitive</i>, otherwise matching is <em>case in-sensitive</em>
      */
     private RegexValidator(final int flags, final String... regexs) {
+        this(flags, false, regexs);
+    }
+
+    /**
+     * Constructs a new instance that matches any one of the set of regular expressions with the specified case sensitivity.
+     *
+     * @param flags     See {@link Pattern#compile(String, int)}.
+     * @param automaton whether to combine the patterns into one automaton
+     * @param regexs    The set of regular expressions this validator will validate against
+     */
+    private RegexValidator(final int flags, final boolean automaton, final String... regexs) {
         if (regexs == null || regexs.length == 0) {
             throw new IllegalArgumentException("Regular expressions are missing");
         }
@@ -98,6 +133,7 @@ public class RegexValidator implements Serializable {
             }
             patterns[i] = Pattern.compile(regex, flags);
         }
+        this.automaton = automaton ? RegexAutomaton.compile(patterns) : null;
     }
 
     /**
@@ -147,6 +183,25 @@ public class RegexValidator implements Serializable {
         this(toCompileFlags(caseSensitive), regexs);
     }
 
+    /**
+     * Constructs a new instance that matches any one of the set of regular expressions with the specified case sensitivity,
+     * optionally combining the expressions into one automaton.
+     * <p>
+     * The automaton finds the first matching expression in one pass over the value, in time linear in its length
+     * however many expressions there are. Only that expression is then run to extract the groups. Expressions using
+     * anything beyond character classes, groups, alternation and quantifiers (for example back references, lookaround,
+     * embedded flags or case insensitive matching) cannot be combined, the validator then tries them one by one as usual.
+     * </p>
+     *
+     * @param regexs        The set of regular expressions this validator will validate against
+     * @param caseSensitive when {@code true} matching is <em>case sensitive</em>, otherwise matching is <em>case in-sensitive</em>
+     * @param automaton     when {@code true} the expressions are combined into one automaton if possible
+     * @since 2.10.6
+     */
+    public RegexValidator(final String[] regexs, final boolean caseSensitive, final boolean automaton) {
+        this(toCompileFlags(caseSensitive), automaton, regexs);
+    }
+
     /**
      * Gets a copy of the Patterns.
      *
@@ -157,6 +212,84 @@ public class RegexValidator implements Serializable {
         return patterns.clone();
     }
 
+    /**
+     * Gets the index of the first regular expression which matches the value.
+     *
+     * @param value The value to validate.
+     * @return the index of the first matching expression or -1 if the value is invalid
+     * @since 2.10.6
+     */
+    public int indexOf(final String value) {
+        if (value == null) {
+            return -1;
+        }
+        final int candidate = candidate(value);
+        if (candidate != RegexAutomaton.FALLBACK) {
+            return candidate;
+        }
+        for (int i = 0; i < patterns.length; i++) {
+            final Matcher matcher = acquire(i, value);
+            final boolean matches = matcher.matches();
+            release(i, matcher);
+            if (matches) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Whether the patterns were combined into an automaton.
+     *
+     * @return {@code true} if an automaton is used
+     */
+    boolean isAutomaton() {
+        return automaton != null;
+    }
+
+    /**
+     * Asks the automaton which pattern can match.
+     *
+     * @return the index of the only pattern to try, -1 if none matches, or {@link RegexAutomaton#FALLBACK} to try all
+     */
+    private int candidate(final CharSequence value) {
+        return candidate(value, 0, value.length());
+    }
+
+    private int candidate(final CharSequence value, final int start, final int end) {
+        return automaton == null ? RegexAutomaton.FALLBACK : automaton.match(value, start, end);
+    }
+
+    private AtomicReferenceArray<Matcher> matchers() {
+        AtomicReferenceArray<Matcher> result = matchers;
+        if (result == null) {
+            // racy but harmless, a lost pool only costs new matchers
+            result = new AtomicReferenceArray<>(patterns.length * STRIPES);
+            matchers = result;
+        }
+        return result;
+    }
+
+    /**
+     * Takes a matcher of a pattern from the pool, or creates one, and resets it to the value.
+     *
+     * @param index the index of the pattern
+     * @param value the input
+     * @return the matcher, to be returned with {@link #release(int, Matcher)}
+     */
+    private Matcher acquire(final int index, final CharSequence value) {
+        final Matcher matcher = matchers().getAndSet(index * STRIPES + stripe(), null);
+        return matcher == null ? patterns[index].matcher(value) : matcher.reset(value);
+    }
+
+    /**
+     * Puts a matcher back into the pool unless the slot was filled meanwhile.
+     */
+    private void release(final int index, final Matcher matcher) {
+        matcher.reset(""); // do not keep the input reachable
+        matchers().compareAndSet(index * STRIPES + stripe(), null, matcher);
+    }
+
     /**
      * Validates a value against the set of regular expressions.
      *
@@ -164,11 +297,29 @@ public class RegexValidator implements Serializable {
      * @return {@code true} if the value is valid otherwise {@code false}.
      */
     public boolean isValid(final String value) {
+        return isValid((CharSequence) value);
+    }
+
+    /**
+     * Validates a character sequence against the set of regular expressions.
+     * Used by callers which hold the value in a reusable buffer rather than a String.
+     *
+     * @param value The value to validate.
+     * @return {@code true} if the value is valid otherwise {@code false}.
+     */
+    boolean isValid(final CharSequence value) {
         if (value == null) {
             return false;
         }
-        for (final Pattern pattern : patterns) {
-            if (pattern.matcher(value).matches()) {
+        final int candidate = candidate(value);
+        if (candidate != RegexAutomaton.FALLBACK) {
+            return candidate >= 0;
+        }
+        for (int i = 0; i < patterns.length; i++) {
+            final Matcher matcher = acquire(i, value);
+            final boolean matches = matcher.matches();
+            release(i, matcher);
+            if (matches) {
                 return true;
             }
         }
@@ -185,15 +336,24 @@ public class RegexValidator implements Serializable {
         if (value == null) {
             return null;
         }
-        for (final Pattern pattern : patterns) {
-            final Matcher matcher = pattern.matcher(value);
-            if (matcher.matches()) {
-                final int count = matcher.groupCount();
-                final String[] groups = new String[count];
-                for (int j = 0; j < count; j++) {
-                    groups[j] = matcher.group(j + 1);
+        final int candidate = candidate(value);
+        if (candidate == -1) {
+            return null;
+        }
+        final int last = candidate >= 0 ? candidate + 1 : patterns.length;
+        for (int i = Math.max(candidate, 0); i < last; i++) {
+            final Matcher matcher = acquire(i, value);
+            try {
+                if (matcher.matches()) {
+                    final int count = matcher.groupCount();
+                    final String[] groups = new String[count];
+                    for (int j = 0; j < count; j++) {
+                        groups[j] = matcher.group(j + 1);
+                    }
+                    return groups;
                 }
-                return groups;
+            } finally {
+                release(i, matcher);
             }
         }
         return null;
@@ -228,24 +388,132 @@ public class RegexValidator implements Serializable {
         if (value == null) {
             return null;
         }
-        for (final Pattern pattern : patterns) {
-            final Matcher matcher = pattern.matcher(value);
-            if (matcher.matches()) {
-                final int count = matcher.groupCount();
-                if (count == 1) {
-                    return matcher.group(1);
+        final int candidate = candidate(value);
+        if (candidate == -1) {
+            return null;
+        }
+        final int last = candidate >= 0 ? candidate + 1 : patterns.length;
+        for (int i = Math.max(candidate, 0); i < last; i++) {
+            final Matcher matcher = acquire(i, value);
+            try {
+                if (matcher.matches()) {
+                    if (matcher.groupCount() == 1) {
+                        return matcher.group(1);
+                    }
+                    final StringBuilder buffer = new StringBuilder(value.length());
+                    appendGroups(matcher, value, buffer);
+                    return buffer.toString();
                 }
-                final StringBuilder buffer = new StringBuilder();
-                for (int j = 0; j < count; j++) {
-                    final String component = matcher.group(j + 1);
-                    if (component != null) {
-                        buffer.append(component);
+            } finally {
+                release(i, matcher);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Validates a value against the set of regular expressions appending the matched groups to a buffer.
+     * <p>
+     * Unlike {@link #validate(String)} this creates no intermediate Strings, the caller may reuse the buffer.
+     * </p>
+     *
+     * @param value The value to validate.
+     * @param buffer The buffer the <em>groups</em> are appended to if the value is valid, it is unchanged otherwise.
+     * @return {@code true} if the value is valid otherwise {@code false}.
+     * @since 2.10.6
+     */
+    public boolean validate(final String value, final StringBuilder buffer) {
+        if (value == null) {
+            return false;
+        }
+        final int candidate = candidate(value);
+        if (candidate == -1) {
+            return false;
+        }
+        final int last = candidate >= 0 ? candidate + 1 : patterns.length;
+        for (int i = Math.max(candidate, 0); i < last; i++) {
+            final Matcher matcher = acquire(i, value);
+            try {
+                if (matcher.matches()) {
+                    appendGroups(matcher, value, buffer);
+                    return true;
+                }
+            } finally {
+                release(i, matcher);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Validates a value against the set of regular expressions returning a view of the matched groups.
+     * <p>
+     * Unlike {@link #validate(String)} the groups are not copied, the result reads the characters of the value.
+     * It is the value itself if a single group matches all of it.
+     * </p>
+     *
+     * @param value The value to validate.
+     * @return The <em>groups</em> matched if valid or {@code null} if invalid
+     * @since 2.10.6
+     */
+    public CharSequence validateView(final String value) {
+        if (value == null) {
+            return null;
+        }
+        return validateView(value, 0, value.length());
+    }
+
+    /**
+     * Validates a range of a value against the set of regular expressions returning a view of the matched groups.
+     *
+     * @param value The value.
+     * @param start The start of the range to validate.
+     * @param end The end (exclusive) of the range to validate.
+     * @return The <em>groups</em> matched if valid or {@code null} if invalid
+     * @see #validateView(String)
+     */
+    CharSequence validateView(final String value, final int start, final int end) {
+        final int candidate = candidate(value, start, end);
+        if (candidate == -1) {
+            return null;
+        }
+        final int last = candidate >= 0 ? candidate + 1 : patterns.length;
+        for (int i = Math.max(candidate, 0); i < last; i++) {
+            final Matcher matcher = acquire(i, value);
+            try {
+                // anchoring bounds make the region behave like the substring
+                if (matcher.region(start, end).matches()) {
+                    final int count = matcher.groupCount();
+                    if (count == 1 && matcher.start(1) < 0) {
+                        return null; // like validate(String), which returns the unmatched group
                     }
+                    final int[] bounds = new int[2 * count];
+                    int groups = 0;
+                    for (int j = 1; j <= count; j++) {
+                        final int groupStart = matcher.start(j);
+                        if (groupStart >= 0) {
+                            bounds[2 * groups] = groupStart;
+                            bounds[2 * groups + 1] = matcher.end(j);
+                            groups++;
+                        }
+                    }
+                    return GroupSequence.of(value, bounds, groups);
                 }
-                return buffer.toString();
+            } finally {
+                release(i, matcher);
             }
         }
         return null;
     }
 
+    private static void appendGroups(final Matcher matcher, final String value, final StringBuilder buffer) {
+        final int count = matcher.groupCount();
+        for (int j = 1; j <= count; j++) {
+            final int start = matcher.start(j);
+            if (start >= 0) {
+                buffer.append(value, start, matcher.end(j));
+            }
+        }
+    }
+
 }
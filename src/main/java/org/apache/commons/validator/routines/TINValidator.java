@@ -56,6 +56,10 @@ import org.apache.commons.validator.routines.checkdigit.VATidLVCheckDigit;
  * <p>
  * The singleton default instance cannot be modified in this way.
  * </p>
+ * <p>
+ * The format of a country is compiled when a TIN of that country is validated for the first time,
+ * use {@link #preload(String...)} to compile formats in advance.
+ * </p>
  * @since 1.10.0
  */
 public class TINValidator {
@@ -74,7 +78,7 @@ public class TINValidator {
         private static final int MAX_LEN = 16;
 
         final String countryCode;
-        final RegexValidator regexValidator;
+        private final LazyRegexValidator format;
         final int tinLength; // used to avoid unnecessary regex matching
         final CheckDigit routine;
 
@@ -84,8 +88,20 @@ public class TINValidator {
          * @param maxLength the max length of the TIN for the country code
          * @param regex the regex to use to check the format.
          * @param routine the Check Digit routine
+         * @throws java.util.regex.PatternSyntaxException if the regex is malformed
          */
         public Validator(final String cc, final int maxLength, final String regex, final CheckDigit routine) {
+            this(cc, routine, maxLength, regex);
+            format.checkSyntax();
+        }
+        /**
+         * A convinient ctor to create a validator.
+         * @param cc the country code
+         * @param routine the Check Digit routine
+         * @param maxLength the max length of the TIN for the country code
+         * @param regex the regex to use to check the format without country code.
+         */
+        private Validator(final String cc, final CheckDigit routine, final int maxLength, final String regex) {
             if (!(cc.length() == 2 && Character.isUpperCase(cc.charAt(0)) && Character.isUpperCase(cc.charAt(1)))) {
                 throw new IllegalArgumentException("Invalid country Code; must be exactly 2 upper-case characters");
             }
@@ -97,27 +113,18 @@ public class TINValidator {
 //            }
             this.countryCode = cc;
             this.tinLength = maxLength;
-            this.regexValidator = new RegexValidator(regex);
+            this.format = new LazyRegexValidator(regex);
             this.routine = routine;
         }
-        /**
-         * A convinient ctor to create a validator.
-         * @param cc the country code
-         * @param routine the Check Digit routine
-         * @param maxLength the max length of the TIN for the country code
-         * @param regex the regex to use to check the format without country code.
-         */
-        private Validator(final String cc, final CheckDigit routine, final int maxLength, final String regex) {
-            this(cc, maxLength, regex, routine);
-        }
 
         /**
          * Gets the RegexValidator.
+         * The format is compiled on first use.
          *
          * @return the RegexValidator.
          */
         public RegexValidator getRegexValidator() {
-            return regexValidator;
+            return format.get();
         }
     }
 
@@ -345,6 +352,26 @@ public class TINValidator {
         return getValidator(cc) != null;
     }
 
+    /**
+     * Compiles the formats of the given countries in advance,
+     * so the first validation of a TIN of these countries does not pay for it.
+     *
+     * @param countryCodes the ISO country codes, if none are given all registered formats are compiled
+     * @since 2.10.6
+     */
+    public void preload(final String... countryCodes) {
+        if (countryCodes == null || countryCodes.length == 0) {
+            validatorMap.values().forEach(Validator::getRegexValidator);
+            return;
+        }
+        for (final String countryCode : countryCodes) {
+            final Validator validator = getValidator(countryCode);
+            if (validator != null) {
+                validator.getRegexValidator();
+            }
+        }
+    }
+
     /**
      * Validate a TIN Code
      *
@@ -354,7 +381,7 @@ public class TINValidator {
      */
     public boolean isValid(final String cc, final String code) {
         final Validator validator = getValidator(cc);
-        if (validator == null || code.length() > validator.tinLength || !validator.regexValidator.isValid(code)) {
+        if (validator == null || code.length() > validator.tinLength || !validator.getRegexValidator().isValid(code)) {
             return false;
         }
         if (validator.routine == null) {
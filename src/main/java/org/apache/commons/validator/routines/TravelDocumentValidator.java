@@ -17,8 +17,9 @@
 package org.apache.commons.validator.routines;
 
 import java.util.Arrays;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -53,6 +54,10 @@ import org.apache.commons.validator.routines.checkdigit.Modulus10_731CheckDigit;
  * <p>
  * The singleton default instance cannot be modified in this way.
  * </p>
+ * <p>
+ * The format of a document is compiled when a document of that country is validated for the first time,
+ * use {@link #preload(String...)} to compile formats in advance.
+ * </p>
  * @since 2.10.5
  */
 public class TravelDocumentValidator {
@@ -114,13 +119,28 @@ public class TravelDocumentValidator {
     }
 
     static class IcaoCountry implements Iso3166_1Alpha_3 {
-        private final String COUNTRY_CODES_REMOVE = "ALA,ANT,ATA,DEU,GGY,IMN,JEY,NTZ,";
-        private final String COUNTRY_CODES_ADD = "GBD,GBN,GBO,GBS,GBP.RKS,EUE,UNO,UNA,UNK,XBA,XIM,XCC,XCE,XCO,XEC,XPO,XES,XMP,XOM,XDC,XXA,XXB,XXC,XXX,UTO,";
+        private static final String COUNTRY_CODES_REMOVE = "ALA,ANT,ATA,DEU,GGY,IMN,JEY,NTZ,";
+        private static final String COUNTRY_CODES_ADD = "GBD,GBN,GBO,GBS,GBP,RKS,EUE,UNO,UNA,UNK,XBA,XIM,XCC,XCE,XCO,XEC,XPO,XES,XMP,XOM,XDC,XXA,XXB,XXC,XXX,UTO,";
+        private static final CountryCodeSet ICAO_CODES = CountryCodeSet.ALPHA_3
+                .minus(CountryCodeSet.of(COUNTRY_CODE_LEN, COUNTRY_CODES_REMOVE))
+                .plus(CountryCodeSet.of(COUNTRY_CODE_LEN, COUNTRY_CODES_ADD));
         public boolean isIcaoCountry(final String code) {
             if ("D".equals(code)) return true;
-            if (code == null || code.length() != 3) return false;
-            return COUNTRY_CODES_REMOVE.indexOf(code+",") > -1 ? false 
-                    : COUNTRY_CODES_ADD.indexOf(code+",") > -1 ? true : isAlpha3(code);
+            return ICAO_CODES.contains(code);
+        }
+        /**
+         * Tests the three characters starting at {@code start}, "D&lt;&lt;" is Germany.
+         *
+         * @param text the text containing the code, e.g. a machine readable zone
+         * @param start the index of the first character of the code
+         * @return {@code true} if the characters are an ICAO country code
+         */
+        boolean isIcaoCountry(final CharSequence text, final int start) {
+            if (start >= 0 && start + COUNTRY_CODE_LEN <= text.length()
+                    && text.charAt(start) == 'D' && text.charAt(start + 1) == '<' && text.charAt(start + 2) == '<') {
+                return true;
+            }
+            return ICAO_CODES.contains(text, start);
         }
     }
     static IcaoCountry ICAO = new IcaoCountry();
@@ -138,7 +158,7 @@ public class TravelDocumentValidator {
 
         final Type type;
         final String countryCode;
-        final RegexValidator regexValidator;
+        private final LazyRegexValidator format;
         final int docLength; // used to avoid unnecessary regex matching
         final CheckDigit routine;
 
@@ -149,8 +169,16 @@ public class TravelDocumentValidator {
          * @param maxLength the max length of the codument number for the country
          * @param regex the regex to use to check the format.
          * @param routine the Check Digit routine
+         * @throws java.util.regex.PatternSyntaxException if the regex is malformed
          */
         public Validator(final Type t, final String cc, final int maxLength, final String regex, final CheckDigit routine) {
+            this(t, cc, maxLength, regex, routine, true);
+        }
+
+        /**
+         * Creates the validator; the syntax of the built-in formats is not checked, they are compiled on first use.
+         */
+        private Validator(final Type t, final String cc, final int maxLength, final String regex, final CheckDigit routine, final boolean checkSyntax) {
             if (!ICAO.isIcaoCountry(cc)) {
                 throw new IllegalArgumentException(ValidatorException.invalidCode(cc, "Must be a valid ICAO alpha-3 country"));
             }
@@ -160,8 +188,11 @@ public class TravelDocumentValidator {
             this.type = t;
             this.countryCode = cc;
             this.docLength = maxLength;
-            this.regexValidator = new RegexValidator(regex);
+            this.format = new LazyRegexValidator(regex);
             this.routine = routine;
+            if (checkSyntax) {
+                format.checkSyntax();
+            }
         }
         /**
          * A convinient ctor to create a validator.
@@ -171,16 +202,17 @@ public class TravelDocumentValidator {
          * @param regex the regex to use to check the format without country code.
          */
         private Validator(final Type t, final String cc, final CheckDigit routine, final String regex) {
-            this(t, cc, MAX_LEN, regex, routine);
+            this(t, cc, MAX_LEN, regex, routine, false);
         }
 
         /**
          * Gets the RegexValidator.
+         * The format is compiled on first use.
          *
          * @return the RegexValidator.
          */
         public RegexValidator getRegexValidator() {
-            return regexValidator;
+            return format.get();
         }
     }
 
@@ -272,7 +304,42 @@ public class TravelDocumentValidator {
         return DEFAULT_VALIDATOR;
     }
 
-    private final ConcurrentMap<String, Validator> validatorMap;
+    /** letters A to Z and the filler {@code '<'} used to pad country codes like "D" */
+    private static final int ALPHABET = 27;
+    private static final int FILLER = ALPHABET - 1;
+    private static final int ROW_SIZE = ALPHABET * ALPHABET;
+    private static final int COUNTRY_CODE_LEN = 3;
+
+    /**
+     * Gets the index of a country code in a country table.
+     * The table is split into rows by the first letter, rows are allocated for used letters only.
+     *
+     * @param cc the ICAO country code, one to three upper case letters
+     * @return the index or -1 if the code is no ICAO country code
+     */
+    static int countryIndex(final String cc) {
+        if (cc == null || cc.isEmpty() || cc.length() > COUNTRY_CODE_LEN) {
+            return -1;
+        }
+        int index = 0;
+        for (int i = 0; i < COUNTRY_CODE_LEN; i++) {
+            int letter = FILLER;
+            if (i < cc.length()) {
+                letter = cc.charAt(i) - 'A';
+                if (letter < 0 || letter >= FILLER) {
+                    return -1;
+                }
+            }
+            index = index * ALPHABET + letter;
+        }
+        return index;
+    }
+
+    /**
+     * Country tables by document type. Modifications replace the affected tables (copy on write),
+     * so lookups need neither locks nor key objects.
+     */
+    private volatile EnumMap<Type, Validator[][]> validatorTable;
 
     /**
      * Create a default validator.
@@ -287,15 +354,41 @@ public class TravelDocumentValidator {
      * @param validators map of TIN formats
      */
     public TravelDocumentValidator(final Validator[] validators) {
-        this.validatorMap = createValidators(validators);
+        this.validatorTable = createValidators(validators);
     }
 
-    private ConcurrentMap<String, Validator> createValidators(final Validator[] validators) {
-        final ConcurrentMap<String, Validator> map = new ConcurrentHashMap<>();
+    private EnumMap<Type, Validator[][]> createValidators(final Validator[] validators) {
+        final EnumMap<Type, Validator[][]> table = new EnumMap<>(Type.class);
         for (final Validator validator : validators) {
-            map.put(validator.type.toString()+validator.countryCode, validator);
+            final int index = countryIndex(validator.countryCode);
+            final Validator[][] countries = table.computeIfAbsent(validator.type, t -> new Validator[ALPHABET][]);
+            if (countries[index / ROW_SIZE] == null) {
+                countries[index / ROW_SIZE] = new Validator[ROW_SIZE];
+            }
+            countries[index / ROW_SIZE][index % ROW_SIZE] = validator;
         }
-        return map;
+        return table;
+    }
+
+    /**
+     * Installs or removes a validator by replacing the affected country table and row.
+     *
+     * @param t the ICAO document type
+     * @param index the index of the country
+     * @param validator the validator to install or {@code null} to remove it
+     * @return the previous Validator, or {@code null} if there was none
+     */
+    private synchronized Validator putValidator(final Type t, final int index, final Validator validator) {
+        final EnumMap<Type, Validator[][]> table = new EnumMap<>(validatorTable);
+        final Validator[][] current = table.get(t);
+        final Validator[][] countries = current == null ? new Validator[ALPHABET][] : current.clone();
+        final Validator[] row = countries[index / ROW_SIZE] == null ? new Validator[ROW_SIZE] : countries[index / ROW_SIZE].clone();
+        final Validator previous = row[index % ROW_SIZE];
+        row[index % ROW_SIZE] = validator;
+        countries[index / ROW_SIZE] = row;
+        table.put(t, countries);
+        validatorTable = table;
+        return previous;
     }
 
     /**
@@ -316,10 +409,16 @@ public class TravelDocumentValidator {
      * @return the validator or {@code null} if there is no one registered.
      */
     public Validator getValidator(final Type t, final String cc) {
-        if (t == null || cc == null || cc.isEmpty()) { // ensure we can extract the key
+        final int index = countryIndex(cc);
+        if (t == null || index < 0) {
             return null;
         }
-        return validatorMap.get(t.toString()+cc);
+        final Validator[][] countries = validatorTable.get(t);
+        if (countries == null) {
+            return null;
+        }
+        final Validator[] row = countries[index / ROW_SIZE];
+        return row == null ? null : row[index % ROW_SIZE];
     }
 
     /**
@@ -333,6 +432,29 @@ public class TravelDocumentValidator {
         return getValidator(t, cc) != null;
     }
 
+    /**
+     * Compiles the formats of all document types of the given countries in advance,
+     * so the first validation of a document of these countries does not pay for it.
+     *
+     * @param countryCodes the ICAO country codes, if none are given all registered formats are compiled
+     * @since 2.10.6
+     */
+    public void preload(final String... countryCodes) {
+        final List<String> countries = countryCodes == null ? Collections.emptyList() : Arrays.asList(countryCodes);
+        for (final Validator[][] table : validatorTable.values()) {
+            for (final Validator[] row : table) {
+                if (row == null) {
+                    continue;
+                }
+                for (final Validator validator : row) {
+                    if (validator != null && (countries.isEmpty() || countries.contains(validator.countryCode))) {
+                        validator.getRegexValidator();
+                    }
+                }
+            }
+        }
+    }
+
     /**
      * Validate a travel document
      *
@@ -342,12 +464,12 @@ public class TravelDocumentValidator {
      * @return {@code true} if the value is valid
      */
     public boolean isValid(final Type t, final String cc, final String code) {
-        if (!hasValidator(t, cc) && ICAO.isIcaoCountry(cc) && code != null) {
+        final Validator validator = getValidator(t, cc);
+        if (validator == null && ICAO.isIcaoCountry(cc) && code != null) {
             CheckDigit routine = Modulus10_731CheckDigit.getInstance();
             return code.length() == 10 ? routine.isValid(code) : false;
         }
-        final Validator validator = getValidator(t, cc);
-        if (validator == null || code.length() > validator.docLength || !validator.regexValidator.isValid(code)) {
+        if (validator == null || code == null || code.length() > validator.docLength || !validator.getRegexValidator().isValid(code)) {
             return false;
         }
         if (validator.routine == null) {
@@ -376,7 +498,8 @@ public class TravelDocumentValidator {
             throw new IllegalStateException(CANNOT_MODIFY_SINGLETON);
         }
         if (length < 0) {
-            return validatorMap.remove(t.toString()+cc);
+            final int index = countryIndex(cc);
+            return t == null || index < 0 ? null : putValidator(t, index, null);
         }
         return setValidator(new Validator(t, cc, length, format, routine));
     }
@@ -393,6 +516,6 @@ public class TravelDocumentValidator {
         if (this == DEFAULT_VALIDATOR) {
             throw new IllegalStateException(CANNOT_MODIFY_SINGLETON);
         }
-        return validatorMap.put(validator.type.toString()+validator.countryCode, validator);
+        return putValidator(validator.type, countryIndex(validator.countryCode), validator);
     }
 }
@@ -151,6 +151,28 @@ public class UrlValidator implements Serializable {
     private static final String QUERY_REGEX = "^(\\S*)$";
     private static final Pattern QUERY_PATTERN = Pattern.compile(QUERY_REGEX);
 
+    /*
+     * Characters besides ASCII letters and digits which java.net.URI allows in the parts of a URL,
+     * '%' is allowed as the start of an escape.
+     */
+    private static final String REG_NAME_CHARS = "-_.!~*'()$,;:@&=+";
+    private static final String PATH_CHARS = "-_.!~*'():@&=+$,;/";
+    private static final String URIC_CHARS = PATH_CHARS + "?[]";
+
+    /**
+     * Characters besides ASCII letters and digits allowed in the user info by {@link #AUTHORITY_PATTERN}.
+     */
+    private static final String USERINFO_CHARS = "%&'()*+,-._~!$;=";
+
+    /*
+     * Results of scan(String).
+     */
+    private static final int INVALID = 0;
+    private static final int VALID = 1;
+
+    /** The URL needs the validation with {@link URI}. */
+    private static final int FALLBACK = -1;
+
     /**
      * If no schemes are provided, default to this set.
      */
@@ -359,6 +381,13 @@ public class UrlValidator implements Serializable {
         if (value == null) {
             return false;
         }
+        if (getClass() == UrlValidator.class && authorityValidator == null) {
+            // subclasses may override the checks of the parts
+            final int result = scan(value);
+            if (result != FALLBACK) {
+                return result == VALID;
+            }
+        }
         final URI uri; // ensure value is a valid URI
         try {
             uri = new URI(value);
@@ -384,6 +413,223 @@ public class UrlValidator implements Serializable {
         return true;
     }
 
+    private static boolean isAlpha(final char c) {
+        return c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z';
+    }
+
+    private static boolean isDigit(final char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isAlnum(final char c) {
+        return isAlpha(c) || isDigit(c);
+    }
+
+    private static boolean isHex(final char c) {
+        return isDigit(c) || c >= 'a' && c <= 'f' || c >= 'A' && c <= 'F';
+    }
+
+    /**
+     * Tests whether an escape, '%' and two hexadecimal digits, starts at an index.
+     */
+    private static boolean isEscape(final String value, final int index) {
+        return index + 2 < value.length() && isHex(value.charAt(index + 1)) && isHex(value.charAt(index + 2));
+    }
+
+    /**
+     * Validates a URL in one pass with the same result as parsing it with {@link URI} and checking its parts.
+     * Each part is checked in place as it is found. URLs with non-ASCII characters, escapes or IPv6 addresses
+     * in the authority, non-ASCII characters in the query or fragment, and URLs without authority of the
+     * {@code file} scheme are left to the validation with {@link URI}.
+     *
+     * @param value the URL
+     * @return {@link #VALID}, {@link #INVALID} or {@link #FALLBACK}
+     */
+    private int scan(final String value) {
+        final int length = value.length();
+        // scheme
+        if (length == 0 || !isAlpha(value.charAt(0))) {
+            return INVALID;
+        }
+        int schemeEnd = 1;
+        while (schemeEnd < length && (isAlnum(value.charAt(schemeEnd)) || "+-.".indexOf(value.charAt(schemeEnd)) >= 0)) {
+            schemeEnd++;
+        }
+        if (schemeEnd == length || value.charAt(schemeEnd) != ':' || !isValidScheme(value, schemeEnd)) {
+            return INVALID;
+        }
+        final boolean file = schemeEnd == 4 && value.startsWith("file"); // CHECKSTYLE IGNORE MagicNumber
+        if (!value.startsWith("//", schemeEnd + 1)) {
+            // no authority, only valid for files
+            return file ? FALLBACK : INVALID;
+        }
+        // authority
+        final int authorityStart = schemeEnd + 3;
+        int authorityEnd = authorityStart;
+        boolean colon = false;
+        for (; authorityEnd < length; authorityEnd++) {
+            final char c = value.charAt(authorityEnd);
+            if (c == '/' || c == '?' || c == '#') {
+                break;
+            }
+            if (c > 0x7F || c == '[' || c == ']' || c == '%') { // CHECKSTYLE IGNORE MagicNumber
+                return FALLBACK;
+            }
+            if (!isAlnum(c) && REG_NAME_CHARS.indexOf(c) < 0) {
+                return INVALID;
+            }
+            colon |= c == ':';
+        }
+        if (authorityStart == authorityEnd) {
+            // URI requires an authority or a path, files may be local
+            return file && authorityEnd < length ? scanPath(value, authorityEnd, false) : INVALID;
+        }
+        if (file && colon || !isValidAuthority(value, authorityStart, authorityEnd)) {
+            return INVALID;
+        }
+        return scanPath(value, authorityEnd, true);
+    }
+
+    /**
+     * Validates the path, query and fragment of a URL, see {@link #scan(String)}.
+     *
+     * @param value the URL
+     * @param start the start of the path
+     * @param checkParts whether to check the parts beyond their syntax like {@link #isValidPath(String)} and
+     * {@link #isValidFragment(String)}
+     * @return {@link #VALID}, {@link #INVALID} or {@link #FALLBACK}
+     */
+    private int scanPath(final String value, final int start, final boolean checkParts) {
+        final int length = value.length();
+        int i = start;
+        // path, counting the segments which ".." can remove
+        int depth = 0;
+        int segmentStart = start + 1;
+        for (; i <= length; i++) {
+            final char c = i < length ? value.charAt(i) : '?';
+            if (c == '/' || c == '?' || c == '#') {
+                if (checkParts && i > start) {
+                    final int segmentLength = i - segmentStart;
+                    if (segmentLength == 0) {
+                        if (c == '/' && isOff(ALLOW_2_SLASHES)) {
+                            return INVALID;
+                        }
+                    } else if (segmentLength == 2 && value.startsWith("..", segmentStart)) {
+                        if (depth == 0) {
+                            return INVALID; // trying to go to the parent dir
+                        }
+                        depth--;
+                    } else if (segmentLength != 1 || value.charAt(segmentStart) != '.') {
+                        depth++;
+                    }
+                }
+                if (c != '/') {
+                    break;
+                }
+                segmentStart = i + 1;
+            } else if (c == '%') {
+                if (!isEscape(value, i)) {
+                    return INVALID;
+                }
+                i += 2;
+            } else if (c > 0x7F) { // CHECKSTYLE IGNORE MagicNumber
+                return checkParts ? INVALID : FALLBACK;
+            } else if (!isAlnum(c) && PATH_CHARS.indexOf(c) < 0) {
+                return INVALID;
+            }
+        }
+        // query and fragment
+        boolean fragment = i < length && value.charAt(i) == '#';
+        for (i++; i < length; i++) {
+            final char c = value.charAt(i);
+            if (c == '#' && !fragment) {
+                fragment = true;
+            } else if (c == '%') {
+                if (!isEscape(value, i)) {
+                    return INVALID;
+                }
+                i += 2;
+            } else if (c > 0x7F) { // CHECKSTYLE IGNORE MagicNumber
+                return FALLBACK;
+            } else if (!isAlnum(c) && URIC_CHARS.indexOf(c) < 0) {
+                return INVALID;
+            }
+        }
+        if (checkParts && fragment && isOn(NO_FRAGMENTS)) {
+            return INVALID;
+        }
+        return VALID;
+    }
+
+    /**
+     * Validates a scanned ASCII authority without IPv6 address like {@link #isValidAuthority(String)}.
+     */
+    private boolean isValidAuthority(final String value, final int start, final int end) {
+        // optional user info, see AUTHORITY_PATTERN
+        int hostStart = start;
+        int i = skipUserInfo(value, start, end);
+        if (i > start && i < end && value.charAt(i) == ':') {
+            i = skipUserInfo(value, i + 1, end);
+        }
+        if (i > start && i < end && value.charAt(i) == '@') {
+            hostStart = i + 1;
+        }
+        int hostEnd = hostStart;
+        while (hostEnd < end && (isAlnum(value.charAt(hostEnd)) || value.charAt(hostEnd) == '-' || value.charAt(hostEnd) == '.')) {
+            hostEnd++;
+        }
+        int port = 0;
+        i = hostEnd;
+        if (i < end && value.charAt(i) == ':') {
+            for (i++; i < end && isDigit(value.charAt(i)); i++) {
+                port = port * 10 + value.charAt(i) - '0'; // CHECKSTYLE IGNORE MagicNumber
+                if (port > MAX_UNSIGNED_16_BIT_INT) {
+                    return false;
+                }
+            }
+        }
+        if (i < end) {
+            return false;
+        }
+        // check if authority is hostname or IP address:
+        // try a hostname first since that's much more likely
+        return domainValidator.isValid(value, hostStart, hostEnd)
+                || InetAddressValidator.getInstance().isValidInet4Address(value, hostStart, hostEnd);
+    }
+
+    private static int skipUserInfo(final String value, final int start, final int end) {
+        int i = start;
+        while (i < end && (isAlnum(value.charAt(i)) || USERINFO_CHARS.indexOf(value.charAt(i)) >= 0)) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Validates the scheme at the start of a URL like {@link #isValidScheme(String)}, the scheme is known to be ASCII.
+     */
+    private boolean isValidScheme(final String value, final int end) {
+        if (isOn(ALLOW_ALL_SCHEMES)) {
+            return true;
+        }
+        for (final String scheme : allowedSchemes) {
+            if (scheme.length() == end && equalsLowerCase(value, scheme)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean equalsLowerCase(final String value, final String lowerCase) {
+        for (int i = 0; i < lowerCase.length(); i++) {
+            final char c = value.charAt(i);
+            if ((c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c) != lowerCase.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * Returns true if the authority is properly formatted.  An authority is the combination
      * of hostname and port.  A {@code null} authority value is considered invalid.
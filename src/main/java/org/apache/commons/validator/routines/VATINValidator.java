@@ -16,9 +16,13 @@
  */
 package org.apache.commons.validator.routines;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.stream.IntStream;
 
 import org.apache.commons.validator.routines.checkdigit.ABANumberCheckDigit;
 import org.apache.commons.validator.routines.checkdigit.CheckDigit;
@@ -69,6 +73,10 @@ import org.apache.commons.validator.routines.checkdigit.VATidSKCheckDigit;
  * <p>
  * The singleton default instance cannot be modified in this way.
  * </p>
+ * <p>
+ * The format of a country is compiled when a VATIN of that country is validated for the first time,
+ * use {@link #preload(String...)} to compile formats in advance.
+ * </p>
  * @since 1.10.0
  */
 public class VATINValidator {
@@ -85,9 +93,11 @@ public class VATINValidator {
         private static final int MAX_LEN = 16;
 
         final String countryCode;
-        final RegexValidator regexValidator;
+        private final LazyRegexValidator format;
         final int vatinLength; // used to avoid unnecessary regex matching
         final CheckDigit routine;
+        final int prefixLength; // leading characters not passed to the routine
+        final int suffixLength; // trailing characters not passed to the routine
 
         /**
          * Creates the validator.
@@ -95,8 +105,34 @@ public class VATINValidator {
          * @param maxLength the max length of the VATIN including country code
          * @param regex the regex to use to check the format, MUST start with the country code.
          * @param routine the Check Digit routine
+         * @throws java.util.regex.PatternSyntaxException if the regex is malformed
          */
         public Validator(final String cc, final int maxLength, final String regex, final CheckDigit routine) {
+            this(cc, maxLength, regex, routine, COUNTRY_CODE_LEN, 0);
+        }
+
+        /**
+         * Creates the validator for a VATIN with a prefix or suffix not covered by the check digit routine,
+         * f.i. the "U" following the country code in "ATU10223006".
+         * @param cc the country code
+         * @param maxLength the max length of the VATIN including country code
+         * @param regex the regex to use to check the format, MUST start with the country code.
+         * @param routine the Check Digit routine
+         * @param prefixLength the number of leading characters not passed to the routine, at least the country code
+         * @param suffixLength the number of trailing characters not passed to the routine
+         * @throws java.util.regex.PatternSyntaxException if the regex is malformed
+         * @since 2.10.6
+         */
+        public Validator(final String cc, final int maxLength, final String regex, final CheckDigit routine, final int prefixLength,
+                final int suffixLength) {
+            this(cc, maxLength, regex, routine, prefixLength, suffixLength, true);
+        }
+
+        /**
+         * Creates the validator; the syntax of the built-in formats is not checked, they are compiled on first use.
+         */
+        private Validator(final String cc, final int maxLength, final String regex, final CheckDigit routine, final int prefixLength,
+                final int suffixLength, final boolean checkSyntax) {
             if (!(cc.length() == 2 && Character.isUpperCase(cc.charAt(0)) && Character.isUpperCase(cc.charAt(1)))) {
                 throw new IllegalArgumentException("Invalid country Code; must be exactly 2 upper-case characters");
             }
@@ -106,10 +142,18 @@ public class VATINValidator {
             if (!regex.startsWith(cc)) {
                 throw new IllegalArgumentException("countryCode '" + cc + "' does not agree with format: " + regex);
             }
+            if (prefixLength < COUNTRY_CODE_LEN || suffixLength < 0 || prefixLength + suffixLength >= maxLength) {
+                throw new IllegalArgumentException("Invalid prefix/suffix length: " + prefixLength + "/" + suffixLength);
+            }
             this.countryCode = cc;
             this.vatinLength = maxLength;
-            this.regexValidator = new RegexValidator(regex);
+            this.prefixLength = prefixLength;
+            this.suffixLength = suffixLength;
+            this.format = new LazyRegexValidator(regex);
             this.routine = routine;
+            if (checkSyntax) {
+                format.checkSyntax();
+            }
         }
         /**
          * A convinient ctor to create a validator. The country code is prefixed in the regex.
@@ -119,16 +163,147 @@ public class VATINValidator {
          * @param regex the regex to use to check the format without country code.
          */
         private Validator(final String cc, final CheckDigit routine, final int maxLength, final String regex) {
-            this(cc, maxLength, cc + regex, routine);
+            this(cc, routine, maxLength, regex, COUNTRY_CODE_LEN, 0);
+        }
+        private Validator(final String cc, final CheckDigit routine, final int maxLength, final String regex, final int prefixLength,
+                final int suffixLength) {
+            this(cc, maxLength, cc + regex, routine, prefixLength, suffixLength, false);
         }
 
         /**
          * Gets the RegexValidator.
+         * The format is compiled on first use.
          *
          * @return the RegexValidator.
          */
         public RegexValidator getRegexValidator() {
-            return regexValidator;
+            return format.get();
+        }
+    }
+
+    /**
+     * The result of {@link VATINValidator#validateAll(Collection, boolean)}:
+     * the verdict for each code and the number of valid and invalid codes per country.
+     *
+     * @since 2.10.6
+     */
+    public static final class BulkResult {
+
+        private static final int LETTERS = 26;
+        static final int COUNTRIES = LETTERS * LETTERS;
+
+        /**
+         * Index of the country code prefix, or {@link #COUNTRIES} if the code does not start with two upper case letters.
+         */
+        static int countryIndex(final String code) {
+            if (code == null || code.length() < COUNTRY_CODE_LEN) {
+                return COUNTRIES;
+            }
+            final int c0 = code.charAt(0) - 'A';
+            final int c1 = code.charAt(1) - 'A';
+            if (c0 < 0 || c0 >= LETTERS || c1 < 0 || c1 >= LETTERS) {
+                return COUNTRIES;
+            }
+            return c0 * LETTERS + c1;
+        }
+
+        static String countryCode(final int country) {
+            return new String(new char[] { (char) ('A' + country / LETTERS), (char) ('A' + country % LETTERS) });
+        }
+
+        final boolean[] verdicts;
+        final int[] validCounts = new int[COUNTRIES + 1];
+        final int[] invalidCounts = new int[COUNTRIES + 1];
+
+        BulkResult(final int size) {
+            this.verdicts = new boolean[size];
+        }
+
+        /**
+         * Gets the country codes of all validated codes.
+         *
+         * @return the country codes in alphabetical order
+         */
+        public List<String> getCountryCodes() {
+            final List<String> countryCodes = new ArrayList<>();
+            for (int country = 0; country < COUNTRIES; country++) {
+                if (validCounts[country] + invalidCounts[country] > 0) {
+                    countryCodes.add(countryCode(country));
+                }
+            }
+            return countryCodes;
+        }
+
+        /**
+         * Gets the number of invalid codes.
+         *
+         * @return the number of invalid codes
+         */
+        public int getInvalidCount() {
+            return verdicts.length - getValidCount();
+        }
+
+        /**
+         * Gets the number of invalid codes of a country.
+         *
+         * @param countryCode the country code
+         * @return the number of invalid codes starting with the country code
+         */
+        public int getInvalidCount(final String countryCode) {
+            final int country = countryIndex(countryCode);
+            return country == COUNTRIES ? 0 : invalidCounts[country];
+        }
+
+        /**
+         * Gets the number of codes which do not start with a country code.
+         *
+         * @return the number of codes without country code, these are invalid
+         */
+        public int getUnknownCount() {
+            return invalidCounts[COUNTRIES];
+        }
+
+        /**
+         * Gets the number of valid codes.
+         *
+         * @return the number of valid codes
+         */
+        public int getValidCount() {
+            int total = 0;
+            for (final int count : validCounts) {
+                total += count;
+            }
+            return total;
+        }
+
+        /**
+         * Gets the number of valid codes of a country.
+         *
+         * @param countryCode the country code
+         * @return the number of valid codes starting with the country code
+         */
+        public int getValidCount(final String countryCode) {
+            final int country = countryIndex(countryCode);
+            return country == COUNTRIES ? 0 : validCounts[country];
+        }
+
+        /**
+         * Gets the verdict for a code.
+         *
+         * @param index the position of the code in the validated collection
+         * @return {@code true} if the code is valid
+         */
+        public boolean isValid(final int index) {
+            return verdicts[index];
+        }
+
+        /**
+         * Gets the number of validated codes.
+         *
+         * @return the number of validated codes
+         */
+        public int size() {
+            return verdicts.length;
         }
     }
 
@@ -136,7 +311,8 @@ public class VATINValidator {
     private static final String CANNOT_MODIFY_SINGLETON = "The singleton validator cannot be modified";
 
     private static final Validator[] DEFAULT_VALIDATORS = {
-            new Validator("AT", VATidATCheckDigit.getInstance(), 11, "U\\d{8}"),
+            // the routine gets the digits without the leading "ATU"
+            new Validator("AT", VATidATCheckDigit.getInstance(), 11, "U\\d{8}", 3, 0),
             new Validator("BE", VATidBECheckDigit.getInstance(), 12, "[0-1]\\d{9}"),
             new Validator("BG", VATidBGCheckDigit.getInstance(), 12, "(\\d)?\\d{9}"),
             new Validator("CY", VATidCYCheckDigit.getInstance(), 11, "[013459]\\d{7}[A-Z]"),
@@ -162,7 +338,8 @@ public class VATINValidator {
             new Validator("PL", VATidPLCheckDigit.getInstance(), 12, "\\d{10}"),
             new Validator("PT", VATidPTCheckDigit.getInstance(), 11, "\\d{9}"),
             new Validator("RO", VATidROCheckDigit.getInstance(), 12, "[1-9](\\d)?(\\d)?(\\d)?(\\d)?(\\d)?(\\d)?(\\d)?(\\d)?\\d"),
-            new Validator("SE", LuhnCheckDigit.getInstance(), 14, "[1-9]\\d{9}01"),
+            // the routine gets the digits without the trailing "01"
+            new Validator("SE", LuhnCheckDigit.getInstance(), 14, "[1-9]\\d{9}01", COUNTRY_CODE_LEN, 2),
             new Validator("SI", VATidSICheckDigit.getInstance(), 10, "[1-9]\\d{7}"),
             // 2nd digit: one of 2, 3, 4, 7, 8, 9
             new Validator("SK", VATidSKCheckDigit.getInstance(), 12, "[1-9]\\d[2-4,7-9]\\d{7}"),
@@ -241,6 +418,26 @@ public class VATINValidator {
         return getValidator(code) != null;
     }
 
+    /**
+     * Compiles the formats of the given countries in advance,
+     * so the first validation of a VATIN of these countries does not pay for it.
+     *
+     * @param countryCodes the ISO country codes, if none are given all registered formats are compiled
+     * @since 2.10.6
+     */
+    public void preload(final String... countryCodes) {
+        if (countryCodes == null || countryCodes.length == 0) {
+            validatorMap.values().forEach(Validator::getRegexValidator);
+            return;
+        }
+        for (final String countryCode : countryCodes) {
+            final Validator validator = getValidator(countryCode);
+            if (validator != null) {
+                validator.getRegexValidator();
+            }
+        }
+    }
+
     /**
      * Validate a VATIN Code
      *
@@ -248,20 +445,80 @@ public class VATINValidator {
      * @return {@code true} if the value is valid
      */
     public boolean isValid(final String code) {
-        final Validator validator = getValidator(code);
-        if (validator == null || code.length() > validator.vatinLength || !validator.regexValidator.isValid(code)) {
+        return isValid(getValidator(code), code);
+    }
+
+    private static boolean isValid(final Validator validator, final String code) {
+        if (validator == null || code.length() > validator.vatinLength || !validator.getRegexValidator().isValid(code)) {
             return false;
         }
         if (validator.routine == null) {
             // No CheckDigit routine or invalid country code
             return false;
         }
-        if (code.startsWith("AT")) {
-            return validator.routine.isValid(code.substring(3));
-        } else if (code.startsWith("SE")) {
-            return validator.routine.isValid(code.substring(2, code.length()-2));
+        return validator.routine.isValid(code, validator.prefixLength, code.length() - validator.prefixLength - validator.suffixLength);
+    }
+
+    /**
+     * Validate a collection of VATIN Codes.
+     *
+     * @param codes The values validation is being performed on
+     * @return the verdicts and the statistics per country
+     * @see #validateAll(Collection, boolean)
+     * @since 2.10.6
+     */
+    public BulkResult validateAll(final Collection<String> codes) {
+        return validateAll(codes, false);
+    }
+
+    /**
+     * Validate a collection of VATIN Codes.
+     * <p>
+     * The codes are partitioned by country code and each partition is validated with the routine of its country,
+     * optionally the partitions are validated in parallel.
+     * </p>
+     *
+     * @param codes The values validation is being performed on
+     * @param parallel whether the partitions should be validated in parallel
+     * @return the verdicts and the statistics per country
+     * @since 2.10.6
+     */
+    public BulkResult validateAll(final Collection<String> codes, final boolean parallel) {
+        final String[] values = codes.toArray(new String[0]);
+        // partition the indices by country: count, then fill
+        final int[] counts = new int[BulkResult.COUNTRIES + 1];
+        final int[] countryOf = new int[values.length];
+        for (int i = 0; i < values.length; i++) {
+            countryOf[i] = BulkResult.countryIndex(values[i]);
+            counts[countryOf[i]]++;
+        }
+        final int[][] partitions = new int[counts.length][];
+        for (int country = 0; country < counts.length; country++) {
+            partitions[country] = new int[counts[country]];
+            counts[country] = 0;
         }
-        return validator.routine.isValid(code.substring(2));
+        for (int i = 0; i < values.length; i++) {
+            partitions[countryOf[i]][counts[countryOf[i]]++] = i;
+        }
+
+        final BulkResult result = new BulkResult(values.length);
+        final IntStream countries = IntStream.range(0, BulkResult.COUNTRIES).filter(country -> partitions[country].length > 0);
+        (parallel ? countries.parallel() : countries).forEach(country -> {
+            final int[] indices = partitions[country];
+            final Validator validator = validatorMap.get(BulkResult.countryCode(country));
+            int valid = 0;
+            for (final int index : indices) {
+                if (isValid(validator, values[index])) {
+                    result.verdicts[index] = true;
+                    valid++;
+                }
+            }
+            result.validCounts[country] = valid;
+            result.invalidCounts[country] = indices.length - valid;
+        });
+        // codes without a country code prefix
+        result.invalidCounts[BulkResult.COUNTRIES] = partitions[BulkResult.COUNTRIES].length;
+        return result;
     }
 
     /**
@@ -67,6 +67,21 @@ public final class ABANumberCheckDigit extends ModulusCheckDigit {
     public ABANumberCheckDigit() {
     }
 
+    /**
+     * Validates the check digit of a part of the code without copying it.
+     *
+     * @param code The string containing the code to validate, the code must include the check digit.
+     * @param offset The index of the first character of the code
+     * @param length The number of characters of the code
+     * @return {@code true} if the check digit is valid, otherwise
+     * {@code false}.
+     * @since 2.10.6
+     */
+    @Override
+    public boolean isValid(final String code, final int offset, final int length) {
+        return isValidModulus(code, offset, length);
+    }
+
     /**
      * Calculates the <em>weighted</em> value of a character in the
      * code at a specified position.
@@ -124,4 +124,21 @@ public final class CASNumberCheckDigit extends ModulusCheckDigit {
         }
     }
 
+    /**
+     * Validates the check digit reading the characters in place.
+     *
+     * @param code The code to validate, the sequence must include the check digit.
+     * @return {@code true} if the check digit is valid, otherwise
+     * {@code false}.
+     * @since 2.10.6
+     */
+    @Override
+    public boolean isValid(final CharSequence code) {
+        if (code == null || code.length() < MIN_LEN || code.length() > MAX_LEN) {
+            return false;
+        }
+        final int modulusResult = modulusOf(code);
+        return modulusResult >= 0 && modulusResult == Character.getNumericValue(code.charAt(code.length() - 1));
+    }
+
 }
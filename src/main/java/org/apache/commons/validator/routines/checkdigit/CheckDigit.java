@@ -62,4 +62,42 @@ public interface CheckDigit {
      */
     boolean isValid(String code);
 
+    /**
+     * Validates the check digit for a part of the code.
+     * <p>
+     * The default implementation validates the substring,
+     * implementations may override this method to validate the range in place.
+     * </p>
+     *
+     * @param code The string containing the code to validate, the code must include the check digit.
+     * @param offset The index of the first character of the code
+     * @param length The number of characters of the code
+     * @return {@code true} if the check digit is valid, otherwise
+     * {@code false}.
+     * @since 2.10.6
+     */
+    default boolean isValid(final String code, final int offset, final int length) {
+        if (code == null || offset < 0 || length < 0 || offset + length > code.length()) {
+            return false;
+        }
+        return isValid(offset == 0 && length == code.length() ? code : code.substring(offset, offset + length));
+    }
+
+    /**
+     * Validates the check digit for a code held in a character sequence, such as
+     * a view returned by {@link org.apache.commons.validator.routines.CodeValidator#validateView(String)}.
+     * <p>
+     * The default implementation validates the String of the sequence,
+     * implementations may override this method to read the characters in place.
+     * </p>
+     *
+     * @param code The code to validate, the sequence must include the check digit.
+     * @return {@code true} if the check digit is valid, otherwise
+     * {@code false}.
+     * @since 2.10.6
+     */
+    default boolean isValid(final CharSequence code) {
+        return code != null && isValid(code.toString());
+    }
+
 }
@@ -72,4 +72,17 @@ public final class EAN13CheckDigit extends ModulusCheckDigit {
     protected int weightedValue(final int charValue, final int leftPos, final int rightPos) {
         return charValue * POSITION_WEIGHT[rightPos % 2];
     }
+
+    /**
+     * Validates the check digit reading the characters in place.
+     *
+     * @param code The code to validate, the sequence must include the check digit.
+     * @return {@code true} if the check digit is valid, otherwise
+     * {@code false}.
+     * @since 2.10.6
+     */
+    @Override
+    public boolean isValid(final CharSequence code) {
+        return isValidModulus(code);
+    }
 }
@@ -72,4 +72,16 @@ public final class ISBN10CheckDigit extends ModulusCheckXDigit {
         return charValue * rightPos;
     }
 
+    /**
+     * Validates the check digit reading the characters in place.
+     *
+     * @param code The code to validate, the sequence must include the check digit.
+     * @return {@code true} if the check digit is valid, otherwise
+     * {@code false}.
+     * @since 2.10.6
+     */
+    @Override
+    public boolean isValid(final CharSequence code) {
+        return isValidModulus(code);
+    }
 }
@@ -115,4 +115,29 @@ public final class ISBNCheckDigit extends AbstractCheckDigit implements Serializ
         return false;
     }
 
+    /**
+     * Validate an ISBN-10 or ISBN-13 check digit held in a character sequence,
+     * depending on the length of the code.
+     *
+     * @param code The ISBN code to validate (should have a length of
+     * 10 or 13)
+     * @return {@code true} if the code has a length of 10 and is
+     * a valid ISBN-10 check digit or the code has a length of 13 and is
+     * a valid ISBN-13 check digit - otherwise {@code false}.
+     * @since 2.10.6
+     */
+    @Override
+    public boolean isValid(final CharSequence code) {
+        if (code == null) {
+            return false;
+        }
+        if (code.length() == 10) { // CHECKSTYLE IGNORE MagicNumber
+            return ISBN10_CHECK_DIGIT.isValid(code);
+        }
+        if (code.length() == 13) { // CHECKSTYLE IGNORE MagicNumber
+            return ISBN13_CHECK_DIGIT.isValid(code);
+        }
+        return false;
+    }
+
 }
@@ -60,6 +60,32 @@ public final class LuhnCheckDigit extends ModulusCheckDigit {
     public LuhnCheckDigit() {
     }
 
+    /**
+     * Validates the Luhn check digit of a part of the code without copying it.
+     *
+     * @param code The string containing the code to validate, the code must include the check digit.
+     * @param offset The index of the first character of the code
+     * @param length The number of characters of the code
+     * @return {@code true} if the check digit is valid, otherwise
+     * {@code false}.
+     * @since 2.10.6
+     */
+    @Override
+    public boolean isValid(final String code, final int offset, final int length) {
+        if (code == null || offset < 0 || length <= 0 || offset + length > code.length()) {
+            return false;
+        }
+        int total = 0;
+        for (int i = 0; i < length; i++) {
+            final char character = code.charAt(offset + i);
+            if (!Character.isDigit(character)) {
+                return false;
+            }
+            total += weightedValue(Character.getNumericValue(character), i + 1, length - i);
+        }
+        return total != 0 && total % getModulus() == 0;
+    }
+
     /**
      * <p>Calculates the <em>weighted</em> value of a character in the
      * code at a specified position.</p>
@@ -79,4 +105,17 @@ public final class LuhnCheckDigit extends ModulusCheckDigit {
         final int weightedValue = charValue * weight;
         return weightedValue > 9 ? weightedValue - 9 : weightedValue; // CHECKSTYLE IGNORE MagicNumber
     }
+
+    /**
+     * Validates the check digit reading the characters in place.
+     *
+     * @param code The code to validate, the sequence must include the check digit.
+     * @return {@code true} if the check digit is valid, otherwise
+     * {@code false}.
+     * @since 2.10.6
+     */
+    @Override
+    public boolean isValid(final CharSequence code) {
+        return isValidModulus(code);
+    }
 }
@@ -150,6 +150,78 @@ public abstract class ModulusCheckDigit extends AbstractCheckDigit implements Se
         }
     }
 
+    /**
+     * Calculate the modulus for a code held in a character sequence which includes
+     * the check digit, without creating a String as {@link #calculateModulus(String, boolean)} does.
+     * <p>
+     * Only for subclasses which do not override {@link #calculateModulus(String, boolean)}.
+     * </p>
+     *
+     * @param code The code to calculate the modulus for
+     * @return The modulus value, or -1 if a character is invalid or the sum is zero
+     */
+    final int modulusOf(final CharSequence code) {
+        return modulusOf(code, 0, code.length());
+    }
+
+    /**
+     * Calculate the modulus for a part of a character sequence which includes
+     * the check digit, without creating a String.
+     * <p>
+     * Only for subclasses which do not override {@link #calculateModulus(String, boolean)}.
+     * </p>
+     *
+     * @param code The sequence containing the code
+     * @param offset The index of the first character of the code
+     * @param lth The number of characters of the code
+     * @return The modulus value, or -1 if a character is invalid or the sum is zero
+     */
+    final int modulusOf(final CharSequence code, final int offset, final int lth) {
+        int total = 0;
+        try {
+            for (int i = 0; i < lth; i++) {
+                final int leftPos = i + 1;
+                final int rightPos = lth - i;
+                total += weightedValue(toInt(code.charAt(offset + i), leftPos, rightPos), leftPos, rightPos);
+            }
+        } catch (final CheckDigitException ex) {
+            return -1;
+        }
+        return total == 0 ? -1 : total % modulus;
+    }
+
+    /**
+     * Validate a modulus check digit for a code held in a character sequence,
+     * like {@link #isValid(String)} but without creating a String.
+     * <p>
+     * Only for subclasses which do not override {@link #isValid(String)} or {@link #calculateModulus(String, boolean)}.
+     * </p>
+     *
+     * @param code The code to validate
+     * @return {@code true} if the check digit is valid, otherwise
+     * {@code false}
+     */
+    final boolean isValidModulus(final CharSequence code) {
+        return code != null && modulusOf(code) == 0;
+    }
+
+    /**
+     * Validate a modulus check digit for a part of a String,
+     * like {@link #isValid(String)} on the substring but without creating it.
+     * <p>
+     * Only for subclasses which do not override {@link #isValid(String)} or {@link #calculateModulus(String, boolean)}.
+     * </p>
+     *
+     * @param code The string containing the code, the code must include the check digit
+     * @param offset The index of the first character of the code
+     * @param length The number of characters of the code
+     * @return {@code true} if the check digit is valid, otherwise
+     * {@code false}
+     */
+    final boolean isValidModulus(final String code, final int offset, final int length) {
+        return code != null && offset >= 0 && length > 0 && offset + length <= code.length() && modulusOf(code, offset, length) == 0;
+    }
+
     /**
      * Convert an integer value to a check digit.
      * <p>
@@ -189,6 +189,24 @@ public final class ModulusTenCheckDigit extends ModulusCheckDigit {
         return super.isValid(code);
     }
 
+    /**
+     * Validates the check digit of a part of the code without copying it.
+     *
+     * @param code The string containing the code to validate, the code must include the check digit.
+     * @param offset The index of the first character of the code
+     * @param length The number of characters of the code
+     * @return {@code true} if the check digit is valid, otherwise
+     * {@code false}.
+     * @since 2.10.6
+     */
+    @Override
+    public boolean isValid(final String code, final int offset, final int length) {
+        if (code == null || offset < 0 || length <= 0 || offset + length > code.length() || !Character.isDigit(code.charAt(offset + length - 1))) {
+            return false;
+        }
+        return isValidModulus(code, offset, length);
+    }
+
     /**
      * Convert a character at a specified position to an integer value.
      * <p>
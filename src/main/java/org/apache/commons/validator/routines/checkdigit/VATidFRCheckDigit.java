@@ -140,7 +140,7 @@ public final class VATidFRCheckDigit extends ModulusCheckDigit {
 //        return cd == cleTVA;
 //    }
 
-    private boolean isValid(final String siren, final int s0, final int s1) {
+    private boolean isValidNewStyle(final String siren, final int s0, final int s1) {
         int s = s0 * 24 + s1 - 10;  // CHECKSTYLE IGNORE MagicNumber
         if (s1 > -1 && s1 < 10 && s0 >= 10) {  // CHECKSTYLE IGNORE MagicNumber
             s = s0 * ALPHABET.length() + s1 - 100;  // CHECKSTYLE IGNORE MagicNumber
@@ -179,9 +179,9 @@ public final class VATidFRCheckDigit extends ModulusCheckDigit {
             final int s0 = ALPHABET.indexOf(c0);
             final int s1 = ALPHABET.indexOf(c1);
             if (Character.isUpperCase(c0) && Character.isDigit(c1)) {
-                return isValid(code.substring(CHECKDIGIT_LEN), s0, s1);
+                return isValidNewStyle(code.substring(CHECKDIGIT_LEN), s0, s1);
             } else if (Character.isDigit(c0) && Character.isUpperCase(c1)) {
-                return isValid(code.substring(CHECKDIGIT_LEN), s0, s1);
+                return isValidNewStyle(code.substring(CHECKDIGIT_LEN), s0, s1);
             } else if (Character.isDigit(c0) && Character.isDigit(c1)) {
                 return isValidOldStyle(code);
             } else {
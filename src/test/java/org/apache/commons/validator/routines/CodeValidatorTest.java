@@ -20,8 +20,13 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.Random;
+
+import org.apache.commons.validator.routines.CodeValidator.Prefilter;
 import org.apache.commons.validator.routines.checkdigit.CheckDigit;
 import org.apache.commons.validator.routines.checkdigit.EAN13CheckDigit;
 import org.junit.jupiter.api.Test;
@@ -182,6 +187,97 @@ class CodeValidatorTest {
         assertEquals(validator.validate(" A  "), "A", "Trimmed");
     }
 
+    /**
+     * Test the prefilter derived from the regular expression and lengths.
+     */
+    @Test
+    void testPrefilterDerived() {
+        Prefilter prefilter = new CodeValidator("^(3[47]\\d{13})$", null).getPrefilter();
+        assertEquals(15, prefilter.getMinLength());
+        assertEquals(15, prefilter.getMaxLength());
+        assertEquals("3", prefilter.getPrefix());
+        assertTrue(prefilter.isAllowed('7'));
+        assertFalse(prefilter.isAllowed('a'));
+        assertFalse(prefilter.test("3782822463100051"));
+        assertFalse(prefilter.test("478282246310005"));
+
+        // lengths apply when the whole code is captured
+        prefilter = new CodeValidator("(\\d+)", 12, 19, null).getPrefilter();
+        assertEquals(12, prefilter.getMinLength());
+        assertEquals(19, prefilter.getMaxLength());
+        prefilter = new CodeValidator("^(?:ISBN )?(\\d{3})-?(\\d{10})$", 13, 13, null).getPrefilter();
+        assertEquals(13, prefilter.getMinLength());
+        assertEquals(19, prefilter.getMaxLength());
+        assertEquals("", prefilter.getPrefix());
+
+        prefilter = new CodeValidator(new RegexValidator("^(6011\\d{12,13})$", "^(65\\d{14})$"), null).getPrefilter();
+        assertEquals(16, prefilter.getMinLength());
+        assertEquals(17, prefilter.getMaxLength());
+        assertEquals("6", prefilter.getPrefix());
+
+        // the same syntax as the combined automaton of RegexValidator
+        prefilter = new CodeValidator("^(\\D\\t[^a-z]{2})$", null).getPrefilter();
+        assertEquals(4, prefilter.getMinLength());
+        assertEquals(4, prefilter.getMaxLength());
+        assertTrue(prefilter.isAllowed('\t'));
+        assertTrue(prefilter.isAllowed('5'));
+        assertNull(new CodeValidator("^(a$b)$", null).getPrefilter());
+
+        // not derived
+        assertNull(new CodeValidator("^(?i)abc$", null).getPrefilter());
+        assertNull(new CodeValidator(new RegexValidator("abc", false), null).getPrefilter());
+        assertNull(new CodeValidator("^\\p{Alpha}+$", null).getPrefilter());
+        assertNull(new CodeValidator((String) null, null).getPrefilter());
+    }
+
+    /**
+     * The derived prefilter must not reject any code accepted by the regular expression.
+     */
+    @Test
+    void testPrefilterConservative() {
+        final String[] regexs = { "^(3[47]\\d{3})$", "(\\d+)", "^([A-Z]{2}\\d{2}[A-Z0-9]{1,3})$", "^(?:AB|AC)-?(\\d{2,3}?)$",
+            "^[a-c]*(x|yz)+.?$", "^((\\d)\\d)$", "([^0-9]\\d)", "^(\\w\\s\\D)$", "^(a{2}b{0,2}|c\\.d)$" };
+        final String alphabet = "0123456789ABCXYZabcxyz-. ";
+        final Random random = new Random(42);
+        for (final String regex : regexs) {
+            final CodeValidator validator = new CodeValidator(regex, 2, 6, null);
+            final CodeValidator unfiltered = new CodeValidator(new RegexValidator(regex), 2, 6, null, null);
+            for (int i = 0; i < 20000; i++) {
+                final StringBuilder code = new StringBuilder();
+                final int length = random.nextInt(9);
+                for (int j = 0; j < length; j++) {
+                    code.append(alphabet.charAt(random.nextInt(alphabet.length())));
+                }
+                assertEquals(unfiltered.validate(code.toString()), validator.validate(code.toString()), regex + " " + code);
+            }
+        }
+    }
+
+    /**
+     * Test an explicit prefilter.
+     */
+    @Test
+    void testPrefilterExplicit() {
+        final Prefilter prefilter = new Prefilter(4, 6, "0123456789", "12");
+        final CodeValidator validator = new CodeValidator(new RegexValidator("(\\d+)"), -1, -1, null, prefilter);
+        assertEquals(prefilter, validator.getPrefilter());
+        assertEquals("12345", validator.validate(" 12345 "));
+        assertNull(validator.validate("123"));
+        assertNull(validator.validate("1234567"));
+        assertNull(validator.validate("22345"));
+        assertNull(validator.validate("12a45"));
+        assertTrue(new Prefilter(0, -1, null, null).test("anything"));
+        // characters outside ASCII are not distinguished
+        final Prefilter nonAscii = new Prefilter(0, -1, "a\u00e4", null);
+        assertTrue(nonAscii.isAllowed('a'));
+        assertTrue(nonAscii.isAllowed('\u00e4'));
+        assertTrue(nonAscii.isAllowed('\u00f6'));
+        assertFalse(nonAscii.isAllowed('b'));
+        assertTrue(nonAscii.test("a\u00f6a"));
+        assertFalse(nonAscii.test("ab"));
+        assertFalse(new Prefilter(0, -1, "a", null).isAllowed('\u00e4'));
+    }
+
     /**
      * Test Regular Expression.
      */
@@ -230,6 +326,43 @@ class CodeValidatorTest {
 
     }
 
+    /**
+     * Test the view of the valid code.
+     */
+    @Test
+    void testValidateView() {
+        CodeValidator validator = new CodeValidator((String) null, -1, -1, (CheckDigit) null);
+        final String value = "123";
+        assertSame(value, validator.validateView(value), "untrimmed");
+        assertEquals(value, validator.validateView(" 123\t").toString(), "trimmed");
+        assertNull(validator.validateView(" "), "blank");
+        assertNull(validator.validateView(null), "null");
+
+        validator = new CodeValidator("^([0-9]{3})(?:[-\\s])([0-9]{3})$", 6, (CheckDigit) null);
+        final CharSequence view = validator.validateView(" 123-456 ");
+        assertEquals(6, view.length());
+        assertEquals('4', view.charAt(3));
+        assertEquals("23", view.subSequence(1, 3).toString());
+        assertEquals("123456", view.toString());
+        assertThrows(IndexOutOfBoundsException.class, () -> view.charAt(6));
+        assertNull(validator.validateView("123.456"));
+
+        validator = new CodeValidator("^(\\d{3})-(\\d{10})$", 13, EAN13CheckDigit.EAN13_CHECK_DIGIT);
+        for (final String code : new String[] { "978-0306406157", "978-0306406158", " 978-0306406157 ", "9780306406157", "978-03064061570" }) {
+            final CharSequence result = validator.validateView(code);
+            assertEquals(validator.validate(code), result == null ? null : result.toString(), code);
+        }
+        assertTrue(validator.isValid("978-0306406157"));
+        assertFalse(validator.isValid("978-0306406158"));
+
+        // the only group is optional and does not match
+        validator = new CodeValidator("^(x)?[a-z]*$", null);
+        assertNull(validator.validate("abc"));
+        assertNull(validator.validateView("abc"));
+        assertFalse(validator.isValid("abc"));
+        assertEquals("x", validator.validate("xabc"));
+    }
+
     @Test
     void testValidator294Part1() {
         CodeValidator validator = new CodeValidator((String) null, 0, -1, (CheckDigit) null);
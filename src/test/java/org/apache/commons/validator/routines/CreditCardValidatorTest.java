@@ -19,11 +19,16 @@ package org.apache.commons.validator.routines;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.Random;
+
 import org.apache.commons.validator.GenericValidator;
 import org.apache.commons.validator.routines.CreditCardValidator.CreditCardRange;
+import org.apache.commons.validator.routines.CreditCardValidator.CreditCardRangeTable;
+import org.apache.commons.validator.routines.checkdigit.CheckDigitException;
 import org.apache.commons.validator.routines.checkdigit.LuhnCheckDigit;
 import org.junit.jupiter.api.Test;
 
@@ -82,6 +87,32 @@ class CreditCardValidatorTest {
         assertFalse(ccv.isValid(VALID_JCB38));
     }
 
+    /**
+     * Test that adaptive ordering tries the most frequently matched custom card type first.
+     */
+    @Test
+    void testAdaptiveOrder() {
+        final CodeValidator first = new CodeValidator("^(4\\d{15})$", LuhnCheckDigit.getInstance());
+        final CodeValidator second = new CodeValidator("^(4[0-4]\\d{14}|5\\d{15})$", LuhnCheckDigit.getInstance());
+        final CreditCardValidator fixed = new CreditCardValidator(new CodeValidator[] { first, second });
+        final CreditCardValidator adaptive = new CreditCardValidator(new CodeValidator[] { first, second }, true);
+        assertSame(first, fixed.getCardType(VALID_VISA));
+        assertSame(first, adaptive.getCardType(VALID_VISA));
+        for (int i = 0; i < 100_000; i++) {
+            assertTrue(adaptive.isValid(VALID_MASTERCARD));
+        }
+        // the second card type is tried first now
+        assertSame(second, adaptive.getCardType(VALID_VISA));
+        assertSame(first, fixed.getCardType(VALID_VISA));
+        assertEquals(VALID_VISA, adaptive.validate(VALID_VISA));
+        assertEquals(VALID_MASTERCARD, adaptive.validate(VALID_MASTERCARD));
+        assertFalse(adaptive.isValid(ERROR_VISA));
+        // compiled card types are not affected
+        final CreditCardValidator mixed = new CreditCardValidator(new CodeValidator[] { CreditCardValidator.AMEX_VALIDATOR, second }, true);
+        assertSame(CreditCardValidator.AMEX_VALIDATOR, mixed.getCardType(VALID_AMEX));
+        assertSame(second, mixed.getCardType(VALID_MASTERCARD));
+    }
+
     /**
      * Test the Amex Card option
      */
@@ -172,6 +203,41 @@ class CreditCardValidatorTest {
         assertThrows(IllegalArgumentException.class, () -> new CreditCardValidator((CodeValidator[]) null));
     }
 
+    /**
+     * The compiled IIN trie must agree with the regular expressions of the card types.
+     */
+    @Test
+    void testCompiledCardTypes() throws CheckDigitException {
+        final CodeValidator[] cardTypes = { CreditCardValidator.AMEX_VALIDATOR, CreditCardValidator.DINERS_VALIDATOR,
+                CreditCardValidator.DISCOVER_VALIDATOR, CreditCardValidator.JCB_VALIDATOR, CreditCardValidator.MASTERCARD_VALIDATOR,
+                CreditCardValidator.VISA_VALIDATOR, CreditCardValidator.VPAY_VALIDATOR,
+                CreditCardValidator.createRangeValidator(new CreditCardRange[] { new CreditCardRange("305", "4", new int[] { 13, 14 }),
+                        new CreditCardRange("644", "65", 15, 15), new CreditCardRange("1", null, 12, 20) }, LuhnCheckDigit.getInstance()) };
+        final CreditCardValidator ccv = new CreditCardValidator(cardTypes);
+        for (int prefix = 0; prefix < 10000; prefix++) {
+            for (int length = 12; length <= 20; length++) {
+                final StringBuilder code = new StringBuilder(String.format("%04d", prefix));
+                while (code.length() < length - 1) {
+                    code.append((char) ('0' + code.length() % 10));
+                }
+                final String valid = code + LuhnCheckDigit.getInstance().calculate(code.toString());
+                final String invalid = code.toString() + (char) ('0' + (valid.charAt(length - 1) - '0' + 1) % 10);
+                for (final String card : new String[] { valid, invalid }) {
+                    CodeValidator expected = null;
+                    for (final CodeValidator cardType : cardTypes) {
+                        if (cardType.isValid(card)) {
+                            expected = cardType;
+                            break;
+                        }
+                    }
+                    assertSame(expected, ccv.getCardType(card), card);
+                    assertEquals(expected != null, ccv.isValid(card), card);
+                    assertEquals(expected == null ? null : card, ccv.validate(card), card);
+                }
+            }
+        }
+    }
+
     /**
      * Test the Diners Card option
      */
@@ -378,6 +444,25 @@ class CreditCardValidatorTest {
         GenericValidator.isCreditCard("1234567890");
     }
 
+    @Test
+    void testGetCardType() {
+        final CreditCardValidator ccv = new CreditCardValidator(new CodeValidator[] { CreditCardValidator.VISA_VALIDATOR,
+                new CodeValidator("^(5[1-5]\\d{2})(?:[- ])?(\\d{4})(?:[- ])?(\\d{4})(?:[- ])?(\\d{4})$", LuhnCheckDigit.getInstance()),
+                CreditCardValidator.AMEX_VALIDATOR, CreditCardValidator.VPAY_VALIDATOR });
+        assertNull(ccv.getCardType(null));
+        assertNull(ccv.getCardType(""));
+        assertNull(ccv.getCardType(ERROR_VISA));
+        assertSame(CreditCardValidator.VISA_VALIDATOR, ccv.getCardType(VALID_VISA));
+        assertSame(CreditCardValidator.VISA_VALIDATOR, ccv.getCardType(" " + VALID_SHORT_VISA + " "));
+        assertEquals(VALID_SHORT_VISA, ccv.validate(" " + VALID_SHORT_VISA + " "));
+        assertSame(CreditCardValidator.VPAY_VALIDATOR, ccv.getCardType("4370000000000000003"));
+        assertSame(CreditCardValidator.AMEX_VALIDATOR, ccv.getCardType(VALID_AMEX));
+        assertNull(ccv.getCardType(VALID_DINERS));
+        assertEquals(VALID_MASTERCARD, ccv.validate("5105-1051-0510-5100"));
+        assertTrue(ccv.isValid("5105 1051 0510 5100"));
+        assertFalse(ccv.isValid("5105-1051-0510-5105"));
+    }
+
     @Test
     void testIsValid() {
         CreditCardValidator ccv = new CreditCardValidator();
@@ -595,6 +680,90 @@ class CreditCardValidatorTest {
         assertFalse(rev.isValid("3590" + pad), "3590");
     }
 
+    @Test
+    void testRangeTable() {
+        final CreditCardRange[] ranges = { new CreditCardRange("4", null, new int[] { 13, 16 }), // 0
+                new CreditCardRange("644", "65", 16, 16), // 1
+                new CreditCardRange("41", "42", 16, 16), // 2
+                new CreditCardRange("3095", null, 14, 14), // 3
+                new CreditCardRange("30", "3094", 14, 14) }; // 4
+        final CreditCardRangeTable table = new CreditCardRangeTable(ranges);
+        assertEquals(5, table.size());
+        assertEquals(0, table.indexOf("4100000000000000"));
+        assertEquals(0, table.indexOf("4200000000000"));
+        assertEquals(-1, table.indexOf("42000000000000"));
+        assertEquals(1, table.indexOf("6440000000000000"));
+        assertEquals(1, table.indexOf("6599999999999999"));
+        assertEquals(-1, table.indexOf("6439999999999999"));
+        assertEquals(-1, table.indexOf("6600000000000000"));
+        assertEquals(3, table.indexOf("30950000000000"));
+        assertEquals(4, table.indexOf("30940000000000"));
+        assertEquals(4, table.indexOf("30000000000000"));
+        assertEquals(-1, table.indexOf("30960000000000"));
+        assertEquals(-1, table.indexOf("4100a00000000000"));
+        assertEquals(-1, table.indexOf(null));
+        assertFalse(table.contains("123"));
+        assertThrows(IllegalArgumentException.class, () -> new CreditCardRangeTable(
+                new CreditCardRange[] { new CreditCardRange("4a", null, 16, 16) }));
+        assertThrows(IllegalArgumentException.class, () -> new CreditCardRangeTable(
+                new CreditCardRange[] { new CreditCardRange("12345678", null, 6, 16) }));
+    }
+
+    @Test
+    void testRangeTableLarge() {
+        final Random random = new Random(1234);
+        final CreditCardRange[] ranges = new CreditCardRange[2000];
+        for (int i = 0; i < ranges.length; i++) {
+            final int low = random.nextInt(1000000);
+            final int high = low + random.nextInt(500);
+            ranges[i] = new CreditCardRange(String.format("%06d", low), String.format("%06d", high), 15 + random.nextInt(2), 16);
+        }
+        final CreditCardRangeTable table = new CreditCardRangeTable(ranges);
+        final CodeValidator linear = CreditCardValidator.createRangeValidator(ranges, null);
+        for (int i = 0; i < 10000; i++) {
+            final String card = String.format("%06d", random.nextInt(1000000)) + (random.nextBoolean() ? "000000000" : "0000000000");
+            int expected = -1;
+            for (int r = 0; r < ranges.length && expected < 0; r++) {
+                if (CreditCardValidator.validLength(card.length(), ranges[r]) && ranges[r].low.compareTo(card) <= 0
+                        && ranges[r].high.compareTo(card.substring(0, 6)) >= 0) {
+                    expected = r;
+                }
+            }
+            assertEquals(expected, table.indexOf(card), card);
+            assertEquals(expected >= 0, linear.isValid(card), card);
+        }
+    }
+
+    @Test
+    void testRangeTableNested() {
+        final Random random = new Random(4321);
+        final CreditCardRange[] ranges = new CreditCardRange[3001];
+        for (int i = 0; i < ranges.length - 1; i++) {
+            // ranges nested around the middle of the number space, with lengths 15 to 17
+            final int half = random.nextInt(400000);
+            ranges[i] = new CreditCardRange(String.format("%06d", 500000 - half), String.format("%06d", 500000 + half),
+                    new int[] { 15 + random.nextInt(3) });
+        }
+        // a catch-all range given last covers everything the others leave out
+        ranges[ranges.length - 1] = new CreditCardRange("0", "9", 16, 16);
+        final CreditCardRangeTable table = new CreditCardRangeTable(ranges);
+        assertEquals(ranges.length, table.size());
+        for (int i = 0; i < 10000; i++) {
+            final String prefix = String.format("%06d", random.nextInt(1000000));
+            final String card = prefix + "00000000000".substring(0, 9 + random.nextInt(3));
+            int expected = -1;
+            for (int r = 0; r < ranges.length && expected < 0; r++) {
+                if (CreditCardValidator.validLength(card.length(), ranges[r]) && ranges[r].low.compareTo(prefix.substring(0, ranges[r].low.length())) <= 0
+                        && ranges[r].high.compareTo(prefix.substring(0, ranges[r].high.length())) >= 0) {
+                    expected = r;
+                }
+            }
+            assertEquals(expected, table.indexOf(card), card);
+        }
+        assertEquals(ranges.length - 1, table.indexOf("9999990000000000"));
+        assertEquals(-1, table.indexOf("999999000000000"));
+    }
+
     @Test
     void testRangeGenerator() {
         final CreditCardValidator ccv = new CreditCardValidator(
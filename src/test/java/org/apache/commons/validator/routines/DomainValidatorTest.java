@@ -19,6 +19,9 @@ package org.apache.commons.validator.routines;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.io.BufferedReader;
@@ -27,6 +30,7 @@ import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.StringReader;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
 import java.net.HttpURLConnection;
@@ -35,14 +39,21 @@ import java.net.URL;
 import java.nio.file.Files;
 import java.nio.file.StandardCopyOption;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Random;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -467,6 +478,57 @@ public class DomainValidatorTest {
         assertNotNull(DomainValidator.getTLDEntries(ArrayType.LOCAL_RO));
     }
 
+    @Test
+    void testGetInstanceConcurrent() throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            final List<Future<DomainValidator[]>> futures = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                futures.add(executor.submit(() -> new DomainValidator[] { DomainValidator.getInstance(), DomainValidator.getInstance(true) }));
+            }
+            for (final Future<DomainValidator[]> future : futures) {
+                final DomainValidator[] instances = future.get();
+                assertSame(validator, instances[0]);
+                assertSame(DomainValidator.getInstance(true), instances[1]);
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertThrows(IllegalStateException.class, () -> DomainValidator.updateTLDOverride(ArrayType.GENERIC_PLUS, "apache"));
+    }
+
+    @Test
+    void testIDNCache() {
+        assertNull(DomainValidator.getIDNCache(), "disabled by default");
+        DomainValidator.setIDNCacheSize(2);
+        try {
+            final DomainValidator.IDNCache cache = DomainValidator.getIDNCache();
+            assertEquals(2, cache.getMaximumSize());
+            assertTrue(validator.isValid("www.b\u00fccher.ch"));
+            assertTrue(validator.isValid("www.b\u00fccher.ch"));
+            assertTrue(validator.isValid("www.apache.org"), "ASCII is not cached");
+            assertEquals(1, cache.getMisses());
+            assertEquals(1, cache.getHits());
+            assertEquals("www.xn--bcher-kva.ch", DomainValidator.unicodeToASCII("www.b\u00fccher.ch"));
+            assertEquals(2, cache.getHits());
+            // fill and evict, the referenced entry gets a second chance
+            DomainValidator.unicodeToASCII("b\u00fccher.de");
+            DomainValidator.unicodeToASCII("b\u00fccher.at");
+            assertEquals(2, cache.size());
+            assertEquals(3, cache.getMisses());
+            DomainValidator.unicodeToASCII("www.b\u00fccher.ch");
+            assertEquals(3, cache.getMisses(), "kept");
+            DomainValidator.unicodeToASCII("b\u00fccher.de");
+            assertEquals(4, cache.getMisses(), "evicted");
+            assertEquals("b\u00fccher..ch", DomainValidator.unicodeToASCII("b\u00fccher..ch"), "failed conversion");
+            assertEquals("b\u00fccher..ch", DomainValidator.unicodeToASCII("b\u00fccher..ch"), "cached failed conversion");
+            assertThrows(IllegalArgumentException.class, () -> DomainValidator.setIDNCacheSize(-1));
+        } finally {
+            DomainValidator.setIDNCacheSize(0);
+        }
+        assertNull(DomainValidator.getIDNCache());
+    }
+
     @Test
     void testIDN() {
         assertTrue(validator.isValid("www.xn--bcher-kva.ch"), "b\u00fccher.ch in IDN should validate");
@@ -570,6 +632,79 @@ public class DomainValidatorTest {
         assertFalse(validator.isValidDomainSyntax("a.-9"), "a.-9 (- alphanum) should fail");
     }
 
+    @Test
+    void testScanDomain() {
+        // the regular expressions replaced by the scanner
+        final String label = "\\p{Alnum}(?>[\\p{Alnum}-]{0,61}\\p{Alnum})?";
+        final Pattern domainName = Pattern.compile("^(?:" + label + "\\.)+(\\p{Alpha}(?>[\\p{Alnum}-]{0,61}\\p{Alnum})?)\\.?$");
+        final Pattern hostname = Pattern.compile(label);
+        final String alphabet = "aZ09-.._\u00e9";
+        final Random random = new Random(42);
+        final String longLabel = "abcdefghijklmnopqrstuvwxyzabcdefghijklmnopqrstuvwxyz0123456789A";
+        final String[] fixed = { "", ".", "a", "a.", "a.b", "a.b.", "a..b", ".a.b", "a.1b", "1.b2", "a-.b", "-a.b", "a.b-", "a.-b",
+            longLabel + ".com", longLabel + "x.com", "a." + longLabel, "a.x" + longLabel, "a.b..", };
+        for (int i = 0; i < 20000 + fixed.length; i++) {
+            final String domain;
+            if (i < fixed.length) {
+                domain = fixed[i];
+            } else {
+                final StringBuilder builder = new StringBuilder();
+                final int length = random.nextInt(10);
+                for (int j = 0; j < length; j++) {
+                    builder.append(alphabet.charAt(random.nextInt(alphabet.length())));
+                }
+                domain = builder.toString();
+            }
+            final Matcher matcher = domainName.matcher(domain);
+            final int expected;
+            if (matcher.matches()) {
+                expected = matcher.start(1);
+            } else if (hostname.matcher(domain).matches()) {
+                expected = DomainValidator.SINGLE_LABEL;
+            } else {
+                expected = DomainValidator.INVALID_SYNTAX;
+            }
+            assertEquals(expected, DomainValidator.scanDomain(domain, 0, domain.length()), domain);
+        }
+        assertEquals(12, DomainValidator.scanDomain("[www.apache.org]", 1, 15));
+    }
+
+    @Test
+    void testTldTable() {
+        final String[] generic = DomainValidator.getTLDEntries(ArrayType.GENERIC_RO);
+        final String[] countryCode = DomainValidator.getTLDEntries(ArrayType.COUNTRY_CODE_RO);
+        final String[] infrastructure = DomainValidator.getTLDEntries(ArrayType.INFRASTRUCTURE_RO);
+        final Set<String> all = new HashSet<>();
+        for (final String[] table : new String[][] { generic, countryCode, infrastructure, DomainValidator.getTLDEntries(ArrayType.LOCAL_RO) }) {
+            all.addAll(Arrays.asList(table));
+        }
+        for (final String tld : all) {
+            final boolean isGeneric = Arrays.binarySearch(generic, tld) >= 0;
+            final boolean isCountryCode = Arrays.binarySearch(countryCode, tld) >= 0;
+            final boolean isInfrastructure = Arrays.binarySearch(infrastructure, tld) >= 0;
+            for (final String key : new String[] { tld, "." + tld.toUpperCase(Locale.ROOT) }) {
+                assertEquals(isGeneric, validator.isValidGenericTld(key), key);
+                assertEquals(isCountryCode, validator.isValidCountryCodeTld(key), key);
+                assertEquals(isInfrastructure, validator.isValidInfrastructureTld(key), key);
+                assertEquals(isGeneric || isCountryCode || isInfrastructure, validator.isValidTld(key), key);
+            }
+            assertFalse(validator.isValidTld(tld + "-"), tld);
+            assertFalse(validator.isValidTld(".." + tld), tld);
+        }
+        assertTrue(validator.isValidCountryCodeTld("\u0440\u0444"), "Unicode ccTLD");
+        assertTrue(validator.isValidCountryCodeTld(".XN--P1AI"), "punycode ccTLD");
+        assertFalse(validator.isValidTld(""), "empty");
+        assertFalse(validator.isValidTld("."), "dot");
+        final DomainValidator overridden = DomainValidator.getInstance(true,
+                Arrays.asList(new DomainValidator.Item(ArrayType.GENERIC_PLUS, "Apache"), new DomainValidator.Item(ArrayType.GENERIC_MINUS, "com"),
+                        new DomainValidator.Item(ArrayType.LOCAL_MINUS, "localhost")));
+        assertTrue(overridden.isValidGenericTld("APACHE"));
+        assertFalse(overridden.isValidGenericTld("com"));
+        assertFalse(overridden.isValidTld("com"));
+        assertFalse(overridden.isValidLocalTld("localhost"));
+        assertTrue(overridden.isValidLocalTld("localdomain"));
+    }
+
     @Test
     void testTopLevelDomains() {
         // infrastructure TLDs
@@ -594,6 +729,35 @@ public class DomainValidatorTest {
         assertFalse(validator.isValid(null), "null shouldn't validate as TLD");
     }
 
+    @Test
+    void testUpdateTLDs() throws IOException {
+        final DomainValidator custom = DomainValidator.getInstance(false,
+                Arrays.asList(new DomainValidator.Item(ArrayType.GENERIC_PLUS, "apache")));
+        assertTrue(validator.isValid("www.example.com"));
+        assertFalse(validator.isValid("www.example.newtld"));
+        try {
+            DomainValidator.updateTLDs(new StringReader("# Version 2099010100, Last Updated Thu Jan  1 07:07:01 2099 UTC\nARPA\nCOM\nNEWTLD\nUK\nZZ\n"));
+            assertFalse(validator.isValid("www.example.org"), "revoked");
+            assertTrue(validator.isValid("www.example.com"));
+            assertTrue(validator.isValid("www.example.newtld"), "added");
+            assertTrue(validator.isValidGenericTld("newtld"));
+            assertTrue(validator.isValidCountryCodeTld("zz"), "two letters");
+            assertTrue(validator.isValidInfrastructureTld("arpa"));
+            assertTrue(DomainValidator.getInstance(true).isValid("localhost"), "local");
+            assertTrue(custom.isValid("www.example.apache"), "override");
+            assertFalse(custom.isValid("www.example.org"), "revoked");
+            assertEquals(Arrays.asList("com", "newtld"), Arrays.asList(DomainValidator.getTLDEntries(ArrayType.GENERIC_RO)));
+            assertThrows(IllegalArgumentException.class, () -> DomainValidator.updateTLDs(new StringReader("COM\nNOT VALID\n")));
+            assertThrows(IllegalArgumentException.class, () -> DomainValidator.updateTLDs(new StringReader("# empty\n")));
+            assertTrue(validator.isValid("www.example.newtld"), "unchanged by failed updates");
+        } finally {
+            DomainValidator.resetTLDs();
+        }
+        assertTrue(validator.isValid("www.example.org"));
+        assertFalse(validator.isValid("www.example.newtld"));
+        assertTrue(custom.isValid("www.example.org"));
+    }
+
     // Check that IDN.toASCII behaves as it should (when wrapped by DomainValidator.unicodeToASCII)
     // Tests show that method incorrectly trims a trailing "." character
     @Test
@@ -22,7 +22,11 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import org.apache.commons.validator.ResultPair;
 import org.junit.jupiter.api.BeforeEach;
@@ -217,6 +221,49 @@ public class EmailValidatorTest {
         assertFalse(noLocal.isValid("joe@localhost"), "@localhost should be accepted but wasn't");
     }
 
+    @Test
+    void testEmailScanner() {
+        // the regular expressions replaced by the scanner
+        final String validChars = "(\\\\.)|[^\\s\\p{Cntrl}\\(\\)<>@,;:'\\\\\\\"\\.\\[\\]]";
+        final String word = "((" + validChars + "|')+|(\"(\\\\\"|[^\"])*\"))";
+        final Pattern emailPattern = Pattern.compile("^(.+)@(\\S+)$");
+        final Pattern userPattern = Pattern.compile("^" + word + "(\\." + word + ")*$");
+        final String alphabet = "a.\"\\@ '(\u2028\t\u00e9";
+        final String[] domains = { "apache.org", "[127.0.0.1]", "[1\u20282]", "a b", "", "x@apache.org", "apache.org@", ".org" };
+        final EmailValidator tldValidator = EmailValidator.getInstance(false, true);
+        final Random random = new Random(42);
+        for (int i = 0; i < 50000; i++) {
+            final StringBuilder builder = new StringBuilder();
+            final int length = random.nextInt(12);
+            for (int j = 0; j < length; j++) {
+                builder.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            final String user = builder.toString();
+            assertEquals(userPattern.matcher(user).matches(), validator.isValidUser(user), user);
+            final String email = user + "@" + domains[random.nextInt(domains.length)];
+            for (final EmailValidator emailValidator : new EmailValidator[] { validator, tldValidator }) {
+                final Matcher matcher = emailPattern.matcher(email);
+                final boolean expected = !email.endsWith(".") && matcher.matches() && matcher.group(1).length() <= 64
+                        && userPattern.matcher(matcher.group(1)).matches() && emailValidator.isValidDomain(matcher.group(2));
+                assertEquals(expected, emailValidator.isValid(email), email);
+            }
+        }
+    }
+
+    @Test
+    void testEmailScannerLongInput() {
+        // inputs which made the regular expressions backtrack
+        final String ats = "@".repeat(10_000);
+        assertFalse(validator.isValid(ats));
+        assertFalse(validator.isValid(ats + " "));
+        assertFalse(validator.isValid("\"\\\".".repeat(2_000) + "@apache.org"));
+        assertFalse(validator.isValid("a@" + "a.".repeat(5_000) + "org"));
+        assertTrue(validator.isValid("\"a\\\".b\"@apache.org"));
+        assertTrue(validator.isValid("\"a\\\"@apache.org"));
+        assertFalse(validator.isValid("\"a\\\"b@apache.org"));
+        assertTrue(validator.isValid("\"a\\\"@\"@apache.org"));
+    }
+
     /**
      * Write this test according to parts of RFC, as opposed to the type of character that is being tested.
      */
@@ -468,6 +515,36 @@ public class EmailValidatorTest {
 
     }
 
+    @Test
+    void testValidateAll() {
+        final List<String> emails = Arrays.asList("joe@apache.org", "jane@apache.org", "joe@Apache.org", null, "joe@apache.org.", "joe",
+                "jo e@apache.org", "joe@apache", "jane@apache", "joe@[127.0.0.1]", "jane@[127.0.0.1]", "joe@[127.0.0.256]", "\"a b\"@apache.org");
+        for (final boolean parallel : new boolean[] { false, true }) {
+            final EmailValidator.BulkResult result = validator.validateAll(emails, parallel);
+            assertEquals(emails.size(), result.size());
+            for (int i = 0; i < emails.size(); i++) {
+                assertEquals(validator.isValid(emails.get(i)), result.isValid(i), emails.get(i));
+            }
+            assertEquals(EmailValidator.Verdict.VALID, result.getVerdict(0));
+            assertEquals(EmailValidator.Verdict.INVALID_SYNTAX, result.getVerdict(3));
+            assertEquals(EmailValidator.Verdict.INVALID_SYNTAX, result.getVerdict(4));
+            assertEquals(EmailValidator.Verdict.INVALID_SYNTAX, result.getVerdict(5));
+            assertEquals(EmailValidator.Verdict.INVALID_USER, result.getVerdict(6));
+            assertEquals(EmailValidator.Verdict.INVALID_DOMAIN, result.getVerdict(7));
+            assertEquals(EmailValidator.Verdict.INVALID_DOMAIN, result.getVerdict(11));
+            assertEquals(6, result.getValidCount());
+            assertEquals(7, result.getInvalidCount());
+            // apache.org, Apache.org, apache, [127.0.0.1] and [127.0.0.256]
+            assertEquals(5, result.getDomainCount());
+        }
+        final EmailValidator.BulkResult empty = validator.validateAll(new ArrayList<>());
+        assertEquals(0, empty.size());
+        assertEquals(0, empty.getDomainCount());
+        // any Iterable
+        final EmailValidator.BulkResult iterated = validator.validateAll(emails::iterator);
+        assertEquals(6, iterated.getValidCount());
+    }
+
     @Test
     void testValidator235() {
         assertTrue(validator.isValid("someone@xn--d1abbgf6aiiy.xn--p1ai"), "xn--d1abbgf6aiiy.xn--p1ai should validate");
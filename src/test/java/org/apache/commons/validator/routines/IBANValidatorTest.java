@@ -20,6 +20,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
@@ -37,6 +38,7 @@ import java.util.List;
 import java.util.Locale;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -438,6 +440,65 @@ class IBANValidatorTest {
         assertFalse(VALIDATOR.isValid(null), "isValid(null)");
     }
 
+    @Test
+    void testPreload() {
+        final Validator xx = new Validator("XX", 12, "XX\\d{10}");
+        final Validator yy = new Validator("YY", 12, "YY\\d{10}");
+        final IBANValidator validator = new IBANValidator(new Validator[] { xx, yy });
+        validator.preload("XX", "ZZ");
+        final RegexValidator compiled = xx.getRegexValidator();
+        validator.preload();
+        assertSame(compiled, xx.getRegexValidator(), "compiled once");
+        assertSame(yy.getRegexValidator(), yy.getRegexValidator(), "compiled once");
+        assertTrue(yy.getRegexValidator().isValid("YY1234567890"));
+        assertFalse(yy.getRegexValidator().isValid("YY123456789X"));
+        // a malformed format still fails when it is defined
+        assertThrows(PatternSyntaxException.class, () -> new Validator("XX", 12, "XX[0-9"));
+        assertThrows(PatternSyntaxException.class, () -> validator.setValidator("XX", 12, "XX[0-9"));
+    }
+
+    @Test
+    void testPrintFormat() {
+        assertTrue(VALIDATOR.isValidPrintFormat("DE89 3704 0044 0532 0130 00"));
+        assertTrue(VALIDATOR.isValidPrintFormat("de89 3704 0044 0532 0130 00"));
+        assertTrue(VALIDATOR.isValidPrintFormat("GB29-NWBK-6016-1331-9268-19"));
+        assertFalse(VALIDATOR.isValidPrintFormat(null));
+        assertFalse(VALIDATOR.isValidPrintFormat("DE89.3704.0044.0532.0130.00"));
+        assertEquals(IBANValidatorStatus.UNKNOWN_COUNTRY, VALIDATOR.validateLenient("zz89 3704 0044 0532 0130 00", null));
+        assertEquals(IBANValidatorStatus.INVALID_LENGTH, VALIDATOR.validateLenient("DE89 3704 0044 0532 0130 000", null));
+        assertEquals(IBANValidatorStatus.INVALID_PATTERN, VALIDATOR.validateLenient("DE89 3704 0044 0532 0130 0X", null));
+        assertEquals(IBANValidatorStatus.INVALID_CHECKSUM, VALIDATOR.validateLenient("DE88 3704 0044 0532 0130 00", null));
+        final StringBuilder electronicFormat = new StringBuilder();
+        assertEquals(IBANValidatorStatus.VALID, VALIDATOR.validateLenient("gb29 nwbk 6016 1331 9268 19", electronicFormat));
+        assertEquals("GB29NWBK60161331926819", electronicFormat.toString());
+        electronicFormat.setLength(0);
+        assertEquals(IBANValidatorStatus.VALID, VALIDATOR.validateLenient("GB29NWBK60161331926819", electronicFormat));
+        assertEquals("GB29NWBK60161331926819", electronicFormat.toString());
+        assertEquals(IBANValidatorStatus.UNKNOWN_COUNTRY, VALIDATOR.validateLenient("G", null));
+        assertEquals(IBANValidatorStatus.UNKNOWN_COUNTRY, VALIDATOR.validateLenient("\u00c4\u00d6", null));
+        final IBANValidator validator = new IBANValidator();
+        validator.setValidator("GB", -1, "");
+        assertEquals(IBANValidatorStatus.UNKNOWN_COUNTRY, validator.validateLenient("GB29 NWBK 6016 1331 9268 19", null));
+        assertEquals(IBANValidatorStatus.VALID, validator.validateLenient("GG14 NWBK 6016 1331 9268 19", null));
+        validator.setValidator("GB", 22, "GB\\d{2}[A-Z]{4}\\d{14}");
+        assertEquals(IBANValidatorStatus.VALID, validator.validateLenient("GB29 NWBK 6016 1331 9268 19", null));
+    }
+
+    @ParameterizedTest
+    @FieldSource("VALID_IBAN_FIXTURES")
+    void testPrintFormatValid(final String iban) {
+        final StringBuilder printFormat = new StringBuilder();
+        for (int i = 0; i < iban.length(); i++) {
+            if (i > 0 && i % 4 == 0) {
+                printFormat.append(' ');
+            }
+            printFormat.append(Character.toLowerCase(iban.charAt(i)));
+        }
+        final StringBuilder electronicFormat = new StringBuilder();
+        assertEquals(IBANValidatorStatus.VALID, VALIDATOR.validateLenient(printFormat, electronicFormat), printFormat.toString());
+        assertEquals(iban, electronicFormat.toString());
+    }
+
     @Test
     void testSetDefaultValidator1() {
         final IllegalStateException thrown = assertThrows(IllegalStateException.class, () -> VALIDATOR.setValidator("GB", 15, "GB"));
@@ -17,9 +17,17 @@
 
 package org.apache.commons.validator.routines;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -624,6 +632,40 @@ class InetAddressValidatorTest {
         assertFalse(validator.isValidInet6Address("':10.0.0.1"), "IPV6 ':10.0.0.1 should be invalid");
     }
 
+    @Test
+    void testParsedAddresses() throws UnknownHostException {
+        final String[] addresses = { "::", "::1", "1::", "1:2:3:4:5:6:7:8", "1:2:3:4::5:6:7", "2001:db8::ff00:42:8329", "FE80::0202:B3FF:FE1E:8329",
+            "::ffff:192.0.2.128", "0:0:0:0:0:0:13.1.68.3", "1::2:3.4.5.6", "ffff:ffff:ffff:ffff:ffff:ffff:ffff:ffff" };
+        final byte[] bytes = new byte[16];
+        final long[] words = new long[2];
+        for (final String address : addresses) {
+            byte[] expected = InetAddress.getByName(address).getAddress();
+            if (expected.length == 4) {
+                // java.net converts IPv4-mapped addresses
+                expected = ByteBuffer.allocate(16).putShort(10, (short) 0xffff).put(12, expected).array();
+            }
+            assertTrue(validator.isValidInet6Address(address, bytes), address);
+            assertArrayEquals(expected, bytes, address);
+            assertTrue(validator.isValidInet6Address(address + "%eth0/64", words), address);
+            assertEquals(ByteBuffer.wrap(expected).getLong(0), words[0], address);
+            assertEquals(ByteBuffer.wrap(expected).getLong(8), words[1], address);
+        }
+        Arrays.fill(bytes, (byte) 7);
+        assertFalse(validator.isValidInet6Address("1::2::3", bytes));
+        assertFalse(validator.isValidInet6Address("1:2:3:4:5:6:7", words));
+        assertEquals(7, bytes[0], "unchanged when invalid");
+        assertTrue(validator.isValidInet6Address("::1", (byte[]) null));
+        assertThrows(IllegalArgumentException.class, () -> validator.isValidInet6Address("::1", new byte[15]));
+        assertThrows(IllegalArgumentException.class, () -> validator.isValidInet6Address("::1", new long[1]));
+
+        final byte[] inet4 = new byte[4];
+        assertTrue(validator.isValidInet4Address("192.168.1.254", inet4));
+        assertArrayEquals(new byte[] { (byte) 192, (byte) 168, 1, (byte) 254 }, inet4);
+        assertFalse(validator.isValidInet4Address("192.168.1.256", inet4));
+        assertFalse(validator.isValidInet4Address(null, inet4));
+        assertThrows(IllegalArgumentException.class, () -> validator.isValidInet4Address("1.2.3.4", new byte[3]));
+    }
+
     /**
      * Test reserved IPs.
      */
@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.validator.routines;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests {@link IssuerIdentificationTable}.
+ */
+class IssuerIdentificationTableTest {
+
+    private static IssuerIdentificationTable.Builder builder;
+
+    @BeforeAll
+    static void readCsv() throws IOException {
+        builder = new IssuerIdentificationTable.Builder();
+        try (Reader reader = new InputStreamReader(IssuerIdentificationTableTest.class.getResourceAsStream("iin-de.csv"), StandardCharsets.UTF_8)) {
+            builder.readCsv(reader);
+        }
+    }
+
+    private static void assertEntry(final IssuerIdentificationTable table, final String card, final String prefix, final String issuer,
+            final String brand, final String product, final String country) {
+        final int index = table.indexOf(card);
+        assertEquals(prefix, table.getPrefix(index), card);
+        assertEquals(issuer, table.getIssuer(index), card);
+        assertEquals(brand, table.getBrand(index), card);
+        assertEquals(product, table.getProduct(index), card);
+        assertEquals(country, table.getCountry(index), card);
+    }
+
+    private static void assertLookups(final IssuerIdentificationTable table) {
+        assertEquals(16, table.size());
+        assertEntry(table, "6393560123456789", "6393560", "3VGER", "Visa", "3V (Visa, Deutschland)", "DEU");
+        assertEntry(table, "7004141901234567", "700414190", "VPOWCL", "Shell", "Shell V-Power Club", "DEU");
+        assertEntry(table, "7004141911234567", "700414191", "VPOWCA", "Shell", "Shell V-Power Club ADAC", "DEU");
+        assertEntry(table, "7018000000000000", "7018", "APAPC", "Shell", "Shell APAPC Karte", "DEU");
+        assertEntry(table, "9999910100", "99999101", "BAR", "", "Default-Präfix", "DEU");
+        assertEntry(table, "9999990000", "999999", "", "", "reserviert", "DEU");
+        assertEntry(table, "900077777777", "900077777777", "TAXFEU", "", "", "DEU");
+        assertEquals(-1, table.indexOf("7004141921234567"));
+        assertEquals(-1, table.indexOf("70"));
+        assertEquals(-1, table.indexOf("x7018"));
+        assertEquals(-1, table.indexOf(""));
+        assertEquals(-1, table.indexOf(null));
+        assertEquals(table.indexOf("7018"), table.indexOf("7018-0000"));
+    }
+
+    @Test
+    void testBuild() {
+        assertLookups(builder.build());
+    }
+
+    @Test
+    void testInvalid() {
+        final IssuerIdentificationTable.Builder b = new IssuerIdentificationTable.Builder();
+        assertThrows(IllegalArgumentException.class, () -> b.add("", "A", null, null, null));
+        assertThrows(IllegalArgumentException.class, () -> b.add("12a", "A", null, null, null));
+        assertThrows(IllegalArgumentException.class, () -> b.add("1234567890123456", "A", null, null, null));
+        assertThrows(IllegalArgumentException.class, () -> b.add("12", "€", null, null, null));
+        b.add("12", "A", null, null, null);
+        assertThrows(IllegalArgumentException.class, () -> b.add("12", "B", null, null, null));
+        assertThrows(IllegalArgumentException.class, () -> b.readCsv(new StringReader("1,\"A")));
+        assertThrows(IllegalArgumentException.class, () -> b.readCsv(new StringReader("1,A,B,C,D,E")));
+        assertThrows(IllegalArgumentException.class, () -> IssuerIdentificationTable.wrap(ByteBuffer.allocate(64)));
+        assertThrows(IndexOutOfBoundsException.class, () -> b.build().getIssuer(1));
+    }
+
+    @Test
+    void testLeadingZeros() {
+        final IssuerIdentificationTable table = new IssuerIdentificationTable.Builder()
+                .add("0", "zero", null, null, null)
+                .add("00", "double zero", null, null, null)
+                .add("000000900", "pseudo", null, null, null).build();
+        assertEquals("000000900", table.getPrefix(table.indexOf("0000009001")));
+        assertEquals("00", table.getPrefix(table.indexOf("0012")));
+        assertEquals("0", table.getPrefix(table.indexOf("0912")));
+        assertEquals(-1, table.indexOf("1000"));
+    }
+
+    @Test
+    void testMapped(@TempDir final Path dir) throws IOException {
+        final Path file = dir.resolve("iin.bin");
+        builder.write(file);
+        assertLookups(IssuerIdentificationTable.open(file));
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        builder.write(out);
+        assertLookups(IssuerIdentificationTable.wrap(ByteBuffer.wrap(out.toByteArray())));
+    }
+}
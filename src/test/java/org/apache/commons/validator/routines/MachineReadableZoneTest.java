@@ -0,0 +1,146 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.validator.routines;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.apache.commons.validator.routines.MachineReadableZone.Field;
+import org.apache.commons.validator.routines.MachineReadableZone.Format;
+import org.apache.commons.validator.routines.TravelDocumentValidator.Type;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests {@link MachineReadableZone} with the specimens of ICAO Doc 9303.
+ */
+public class MachineReadableZoneTest {
+
+    private static final String[] TD1 = {
+        "I<UTOD231458907<<<<<<<<<<<<<<<",
+        "7408122F1204159UTO<<<<<<<<<<<6",
+        "ERIKSSON<<ANNA<MARIA<<<<<<<<<<" };
+    private static final String[] TD2 = {
+        "I<UTOERIKSSON<<ANNA<MARIA<<<<<<<<<<<",
+        "D231458907UTO7408122F1204159<<<<<<<6" };
+    private static final String[] TD3 = {
+        "P<UTOERIKSSON<<ANNA<MARIA<<<<<<<<<<<<<<<<<<<",
+        "L898902C36UTO7408122F1204159ZE184226B<<<<<10" };
+    private static final String[] MRV_A = {
+        "V<UTOERIKSSON<<ANNA<MARIA<<<<<<<<<<<<<<<<<<<",
+        "L8988901C4XXX4009078F96121096ZE184226B<<<<<<" };
+    private static final String[] MRV_B = {
+        "V<UTOERIKSSON<<ANNA<MARIA<<<<<<<<<<<",
+        "L8988901C4XXX4009078F9612109<<<<<<<<" };
+
+    @Test
+    public void testInvalidStructure() {
+        assertNull(MachineReadableZone.parse((String) null));
+        assertNull(MachineReadableZone.parse(TD3[0]));
+        assertNull(MachineReadableZone.parse(TD3[0], TD2[1]), "different line lengths");
+        assertNull(MachineReadableZone.parse(TD3[0].toLowerCase(), TD3[1]), "lower case");
+        assertNull(MachineReadableZone.parse(TD1[0], TD1[1]), "TD1 needs three lines");
+    }
+
+    @Test
+    public void testInvalidCheckDigits() {
+        final MachineReadableZone mrz = MachineReadableZone.parse(TD3[0], "L898902C37UTO7408122F1204159ZE184226B<<<<<10");
+        assertNotNull(mrz);
+        assertFalse(mrz.isValid(Field.DOCUMENT_NUMBER));
+        assertTrue(mrz.isValid(Field.DATE_OF_BIRTH));
+        assertFalse(mrz.isValidCompositeCheckDigit());
+        assertFalse(mrz.isValid());
+        assertFalse(MachineReadableZone.parse(TD3[0], "L898902C36UTO7408123F1204159ZE184226B<<<<<10").isValid(Field.DATE_OF_BIRTH));
+        assertFalse(MachineReadableZone.parse(TD3[0], "L898902C36UTO7408122F1204158ZE184226B<<<<<10").isValid(Field.DATE_OF_EXPIRY));
+        assertFalse(MachineReadableZone.parse(TD3[0], "L898902C36UTO7408122F1204159ZE184226B<<<<<20").isValid(Field.OPTIONAL_DATA_1));
+        assertFalse(MachineReadableZone.parse(TD3[0], "L898902C36UTO7408122F1204159ZE184226B<<<<<11").isValidCompositeCheckDigit());
+        assertFalse(MachineReadableZone.parse(TD3[0], "L898902C36UTO7408122Q1204159ZE184226B<<<<<10").isValid(Field.SEX));
+        assertFalse(MachineReadableZone.parse("P<ZZZERIKSSON<<ANNA<MARIA<<<<<<<<<<<<<<<<<<<", TD3[1]).isValid(Field.ISSUING_STATE));
+    }
+
+    @Test
+    public void testMRVA() {
+        final MachineReadableZone mrz = MachineReadableZone.parse(MRV_A);
+        assertEquals(Format.MRV_A, mrz.getFormat());
+        assertEquals(Type.V, mrz.getDocumentType());
+        assertEquals("L8988901C", mrz.get(Field.DOCUMENT_NUMBER));
+        assertEquals("XXX", mrz.get(Field.NATIONALITY));
+        assertEquals("6ZE184226B", mrz.get(Field.OPTIONAL_DATA_1));
+        assertTrue(mrz.isValid(), mrz.toString());
+    }
+
+    @Test
+    public void testMRVB() {
+        final MachineReadableZone mrz = MachineReadableZone.parse(MRV_B);
+        assertEquals(Format.MRV_B, mrz.getFormat());
+        assertEquals("L8988901C", mrz.get(Field.DOCUMENT_NUMBER));
+        assertEquals("961210", mrz.get(Field.DATE_OF_EXPIRY));
+        assertTrue(mrz.isValid(), mrz.toString());
+    }
+
+    @Test
+    public void testTD1() {
+        final MachineReadableZone mrz = MachineReadableZone.parse(TD1);
+        assertEquals(Format.TD1, mrz.getFormat());
+        assertEquals(Type.I, mrz.getDocumentType());
+        assertEquals("UTO", mrz.get(Field.ISSUING_STATE));
+        assertEquals("D23145890", mrz.get(Field.DOCUMENT_NUMBER));
+        assertEquals("740812", mrz.get(Field.DATE_OF_BIRTH));
+        assertEquals("F", mrz.get(Field.SEX));
+        assertEquals("120415", mrz.get(Field.DATE_OF_EXPIRY));
+        assertEquals("UTO", mrz.get(Field.NATIONALITY));
+        assertEquals("", mrz.get(Field.OPTIONAL_DATA_2));
+        assertEquals("ERIKSSON<<ANNA<MARIA", mrz.get(Field.NAME));
+        assertTrue(mrz.isValid(), mrz.toString());
+    }
+
+    @Test
+    public void testTD1LongDocumentNumber() {
+        final MachineReadableZone mrz = MachineReadableZone.parse(
+            "I<UTOD23145890<7349<<<<<<<<<<<",
+            "3407127M9507122UTO<<<<<<<<<<<2",
+            "STEVENSON<<PETER<JOHN<<<<<<<<<");
+        assertEquals("D23145890734", mrz.get(Field.DOCUMENT_NUMBER));
+        assertEquals("", mrz.get(Field.OPTIONAL_DATA_1));
+        assertTrue(mrz.isValid(Field.DOCUMENT_NUMBER));
+        assertTrue(mrz.isValid(), mrz.toString());
+    }
+
+    @Test
+    public void testTD2() {
+        final MachineReadableZone mrz = MachineReadableZone.parse(String.join("\n", TD2));
+        assertEquals(Format.TD2, mrz.getFormat());
+        assertEquals("D23145890", mrz.get(Field.DOCUMENT_NUMBER));
+        assertNull(mrz.get(Field.OPTIONAL_DATA_2));
+        assertTrue(mrz.isValid(), mrz.toString());
+    }
+
+    @Test
+    public void testTD3() {
+        final MachineReadableZone mrz = MachineReadableZone.parse(TD3[0] + "\r\n" + TD3[1] + "\r\n");
+        assertEquals(Format.TD3, mrz.getFormat());
+        assertEquals(Type.P, mrz.getDocumentType());
+        assertEquals("L898902C3", mrz.get(Field.DOCUMENT_NUMBER));
+        assertEquals(44, mrz.getStart(Field.DOCUMENT_NUMBER));
+        assertEquals(53, mrz.getEnd(Field.DOCUMENT_NUMBER));
+        assertEquals("ZE184226B", mrz.get(Field.OPTIONAL_DATA_1));
+        assertEquals("ERIKSSON<<ANNA<MARIA", mrz.get(Field.NAME));
+        assertTrue(mrz.isValid(), mrz.toString());
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.apache.commons.validator.routines;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests {@link PublicSuffixMatcher}.
+ */
+class PublicSuffixMatcherTest {
+
+    private static final String RULES = String.join("\n",
+            "// ===BEGIN ICANN DOMAINS===",
+            "",
+            "com",
+            "uk",
+            "co.uk",
+            "jp",
+            "kyoto.jp",
+            "*.kobe.jp",
+            "!city.kobe.jp",
+            "*.ck",
+            "!www.ck",
+            "中国",
+            "// ===BEGIN PRIVATE DOMAINS===",
+            "github.io  some comment",
+            "s3.amazonaws.com");
+
+    private static PublicSuffixMatcher matcher;
+
+    @BeforeAll
+    static void load() throws IOException {
+        matcher = PublicSuffixMatcher.load(new StringReader(RULES));
+    }
+
+    private static void assertSuffix(final String host, final String suffix, final String domain) {
+        assertEquals(suffix, matcher.getPublicSuffix(host), host);
+        assertEquals(domain, matcher.getRegistrableDomain(host), host);
+    }
+
+    @Test
+    void testExceptionRules() {
+        assertSuffix("www.ck", "ck", "www.ck");
+        assertSuffix("a.www.ck", "ck", "www.ck");
+        assertSuffix("city.kobe.jp", "kobe.jp", "city.kobe.jp");
+        assertSuffix("www.city.kobe.jp", "kobe.jp", "city.kobe.jp");
+    }
+
+    @Test
+    void testInvalidHosts() {
+        assertNull(matcher.getPublicSuffix(null));
+        assertNull(matcher.getPublicSuffix(""));
+        assertNull(matcher.getPublicSuffix("."));
+        assertNull(matcher.getPublicSuffix("a..com"));
+        assertNull(matcher.getPublicSuffix("-a.com"));
+        assertNull(matcher.getRegistrableDomain("a b.com"));
+        assertFalse(matcher.isPublicSuffix(null));
+        assertFalse(matcher.isRegistrableDomain("a..com"));
+    }
+
+    @Test
+    void testInvalidRules() {
+        assertThrows(IllegalArgumentException.class, () -> PublicSuffixMatcher.load(new StringReader("a..b")));
+        assertThrows(IllegalArgumentException.class, () -> PublicSuffixMatcher.load(new StringReader("!com")));
+        assertThrows(IllegalArgumentException.class, () -> PublicSuffixMatcher.load(new StringReader("!*.com")));
+        assertThrows(IllegalArgumentException.class, () -> PublicSuffixMatcher.load(new StringReader("com.")));
+    }
+
+    @Test
+    void testIsPublicSuffix() {
+        assertTrue(matcher.isPublicSuffix("com"));
+        assertTrue(matcher.isPublicSuffix("co.uk"));
+        assertTrue(matcher.isPublicSuffix("foo.kobe.jp"));
+        assertTrue(matcher.isPublicSuffix("example"));
+        assertFalse(matcher.isPublicSuffix("example.com"));
+        assertFalse(matcher.isPublicSuffix("city.kobe.jp"));
+        assertTrue(matcher.isRegistrableDomain("example.co.uk"));
+        assertTrue(matcher.isRegistrableDomain("EXAMPLE.com."));
+        assertFalse(matcher.isRegistrableDomain("www.example.co.uk"));
+        assertFalse(matcher.isRegistrableDomain("co.uk"));
+    }
+
+    @Test
+    void testLoadPath(@TempDir final Path dir) throws IOException {
+        final Path file = dir.resolve("public_suffix_list.dat");
+        Files.write(file, RULES.getBytes(StandardCharsets.UTF_8));
+        final PublicSuffixMatcher fromFile = PublicSuffixMatcher.load(file);
+        assertEquals("xn--fiqs8s", fromFile.getPublicSuffix("例子.中国"));
+        assertEquals(matcher.size(), fromFile.size());
+    }
+
+    @Test
+    void testNormalRules() {
+        assertSuffix("example.com", "com", "example.com");
+        assertSuffix("www.Example.COM", "com", "example.com");
+        assertSuffix("example.com.", "com", "example.com");
+        assertSuffix("com", "com", null);
+        assertSuffix("example.co.uk", "co.uk", "example.co.uk");
+        assertSuffix("a.b.example.co.uk", "co.uk", "example.co.uk");
+        assertSuffix("example.uk", "uk", "example.uk");
+        assertSuffix("foo.github.io", "github.io", "foo.github.io");
+        assertSuffix("bucket.s3.amazonaws.com", "s3.amazonaws.com", "bucket.s3.amazonaws.com");
+        assertSuffix("amazonaws.com", "com", "amazonaws.com");
+        assertSuffix("www.kyoto.jp", "kyoto.jp", "www.kyoto.jp");
+        assertSuffix("例子.中国", "xn--fiqs8s", "xn--fsqu00a.xn--fiqs8s");
+        // the root, com, uk, co, jp, kyoto, kobe, city, ck, www, xn--fiqs8s, io, github, amazonaws and s3
+        assertEquals(15, matcher.size());
+    }
+
+    @Test
+    void testUnlistedRules() {
+        // the implicit rule "*"
+        assertSuffix("example.test", "test", "example.test");
+        assertSuffix("www.example.test", "test", "example.test");
+        assertSuffix("localhost", "localhost", null);
+    }
+
+    @Test
+    void testWildcardRules() {
+        assertSuffix("ck", "ck", null);
+        assertSuffix("foo.ck", "foo.ck", null);
+        assertSuffix("example.foo.ck", "foo.ck", "example.foo.ck");
+        assertSuffix("kobe.jp", "jp", "kobe.jp"); // only "*.kobe.jp" is a rule
+        assertSuffix("a.b.c.kobe.jp", "c.kobe.jp", "b.c.kobe.jp");
+    }
+}
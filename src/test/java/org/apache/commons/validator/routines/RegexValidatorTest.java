@@ -20,10 +20,17 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.regex.Pattern;
 import java.util.regex.PatternSyntaxException;
 
@@ -70,6 +77,96 @@ class RegexValidatorTest {
         }
     }
 
+    /**
+     * Test the combined automaton gives the same results as trying the patterns in turn.
+     */
+    @Test
+    void testAutomaton() {
+        final String[][] sets = {
+            MULTIPLE_REGEX,
+            { REGEX },
+            { "^(a|ab)(c|bcd)?$", "^a.c$", "^(?:x*y+)z?$", "[^a-c]{2,3}", "\\D\\d\\W\\w\\S\\s" },
+            { "(a{2})+", "a{0}b", "[a\\-c]*?", "[\\w-]+|$", "^$" },
+        };
+        final String alphabet = "abcdxyzDEF123- \t\n\u00e9\u2028";
+        final Random random = new Random(39);
+        for (final String[] regexs : sets) {
+            final RegexValidator plain = new RegexValidator(regexs, true);
+            final RegexValidator combined = new RegexValidator(regexs, true, true);
+            assertTrue(combined.isAutomaton(), regexs[0]);
+            for (int i = 0; i < 5000; i++) {
+                final StringBuilder value = new StringBuilder();
+                final int length = random.nextInt(12);
+                for (int j = 0; j < length; j++) {
+                    value.append(alphabet.charAt(random.nextInt(alphabet.length())));
+                }
+                final String text = value.toString();
+                assertEquals(plain.indexOf(text), combined.indexOf(text), text);
+                assertEquals(plain.isValid(text), combined.isValid(text), text);
+                assertEquals(plain.validate(text), combined.validate(text), text);
+                checkArray(text, plain.match(text), combined.match(text));
+            }
+        }
+        final RegexValidator multiple = new RegexValidator(MULTIPLE_REGEX, true, true);
+        assertEquals(0, multiple.indexOf("abc-DEF-123"));
+        assertEquals(1, multiple.indexOf("abc DEF 123"));
+        assertEquals(2, multiple.indexOf("abcDEF123"));
+        assertEquals(-1, multiple.indexOf("abcDEF1234"));
+        assertEquals(-1, multiple.indexOf(null));
+        checkArray("match", new String[] { "abc", "DEF", "123" }, multiple.match("abc DEF 123"));
+        // surrogates are matched by the patterns
+        final RegexValidator any = new RegexValidator(new String[] { "^(.)$" }, true, true);
+        assertTrue(any.isValid("\ud83d\ude00"));
+        assertFalse(any.isValid("\ud83d\ude00\ud83d\ude00"));
+    }
+
+    /**
+     * Test patterns the automaton does not support fall back to trying the patterns.
+     */
+    @Test
+    void testAutomatonUnsupported() {
+        final String[] unsupported = { "(a)\\1", "a(?=b)b", "\\bab", "a++", "\\p{L}", "(?i)ab", "a$b", "[a&&b]", "(^a)" };
+        for (final String regex : unsupported) {
+            final RegexValidator validator = new RegexValidator(new String[] { regex, "^x$" }, true, true);
+            assertFalse(validator.isAutomaton(), regex);
+            assertTrue(validator.isValid("x"), regex);
+        }
+        final RegexValidator insensitive = new RegexValidator(MULTIPLE_REGEX, false, true);
+        assertFalse(insensitive.isAutomaton());
+        assertTrue(insensitive.isValid("AAC FDE 321"));
+    }
+
+    /**
+     * Test concurrent use of the pooled matchers.
+     */
+    @Test
+    void testConcurrent() throws Exception {
+        final RegexValidator validator = new RegexValidator(MULTIPLE_REGEX);
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            final List<Future<Boolean>> results = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                final int offset = t;
+                results.add(executor.submit(() -> {
+                    for (int i = 0; i < 10000; i++) {
+                        final int n = i + offset;
+                        final String digits = "" + (char) ('1' + n % 3) + (char) ('1' + n / 3 % 3) + (char) ('1' + n / 9 % 3);
+                        final String value = "abc-DEF-" + digits;
+                        if (!("abcDEF" + digits).equals(validator.validate(value)) || validator.isValid("abc-DEF-" + i + "x")) {
+                            return false;
+                        }
+                    }
+                    return true;
+                }));
+            }
+            for (final Future<Boolean> result : results) {
+                assertTrue(result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
     /**
      * Test exceptions
      */
@@ -222,6 +319,44 @@ class RegexValidatorTest {
         checkArray("match one", new String[] { "ABC" }, new RegexValidator("^([A-Z]*)$").match("ABC"));
     }
 
+    /**
+     * Test validate appending to a buffer.
+     */
+    @Test
+    void testValidateBuffer() {
+        final RegexValidator multiple = new RegexValidator(MULTIPLE_REGEX);
+        final StringBuilder buffer = new StringBuilder("x");
+        assertTrue(multiple.validate("aac FDE 321", buffer));
+        assertEquals("xaacFDE321", buffer.toString());
+        assertFalse(multiple.validate("AAC*FDE*321", buffer));
+        assertFalse(multiple.validate(null, buffer));
+        assertEquals("xaacFDE321", buffer.toString());
+        buffer.setLength(0);
+        assertTrue(new RegexValidator("^(a)?(b)$").validate("b", buffer));
+        assertEquals("b", buffer.toString());
+    }
+
+    /**
+     * Test validate returning a view of the groups.
+     */
+    @Test
+    void testValidateView() {
+        final RegexValidator multiple = new RegexValidator(MULTIPLE_REGEX);
+        final RegexValidator combined = new RegexValidator(MULTIPLE_REGEX, true, true);
+        for (final String value : new String[] { "aac FDE 321", "aac-FDE-321", "aacFDE321", "AAC*FDE*321", "" }) {
+            final String expected = multiple.validate(value);
+            final CharSequence view = multiple.validateView(value);
+            assertEquals(expected, view == null ? null : view.toString(), value);
+            final CharSequence combinedView = combined.validateView(value);
+            assertEquals(expected, combinedView == null ? null : combinedView.toString(), value);
+        }
+        assertNull(multiple.validateView(null));
+        final String value = "abc";
+        assertSame(value, new RegexValidator("^([a-z]*)$").validateView(value));
+        assertNull(new RegexValidator("^(x)?[a-z]*$").validateView(value));
+        assertNull(new RegexValidator("^(x)?[a-z]*$").validate(value));
+    }
+
     /**
      * Test toString() method
      */
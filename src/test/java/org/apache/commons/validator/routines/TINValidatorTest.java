@@ -20,10 +20,13 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
+import java.util.regex.PatternSyntaxException;
+
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.junit.jupiter.api.Test;
@@ -161,6 +164,22 @@ public class TINValidatorTest {
         assertNotNull(VALIDATOR.getValidator("DE").getRegexValidator().getPatterns(), "DE");
     }
 
+    @Test
+    public void testPreload() {
+        final TINValidator.Validator xx = new TINValidator.Validator("XX", 11, "\\d{11}", null);
+        final TINValidator.Validator yy = new TINValidator.Validator("YY", 11, "\\d{11}", null);
+        final TINValidator validator = new TINValidator(new TINValidator.Validator[] { xx, yy });
+        validator.preload("XX", "ZZ");
+        final RegexValidator compiled = xx.getRegexValidator();
+        validator.preload();
+        assertSame(compiled, xx.getRegexValidator(), "compiled once");
+        assertSame(yy.getRegexValidator(), yy.getRegexValidator(), "compiled once");
+        assertTrue(yy.getRegexValidator().isValid("12345678901"));
+        // a malformed format still fails when it is defined
+        assertThrows(PatternSyntaxException.class, () -> new TINValidator.Validator("XX", 11, "[0-9", null));
+        assertThrows(IllegalArgumentException.class, () -> new TINValidator.Validator("XX", 11, "", null));
+    }
+
     @Test
     public void testGetValidator() {
         assertNotNull(VALIDATOR.getValidator("HR"), "HR");
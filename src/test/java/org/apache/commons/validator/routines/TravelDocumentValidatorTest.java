@@ -20,9 +20,12 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.regex.PatternSyntaxException;
+
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.apache.commons.validator.routines.TravelDocumentValidator.Type;
@@ -137,6 +140,16 @@ public class TravelDocumentValidatorTest {
         assertTrue(TravelDocumentValidator.ICAO.isIcaoCountry("XXX"));
         assertTrue(TravelDocumentValidator.ICAO.isIcaoCountry("UTO"));
         assertFalse(TravelDocumentValidator.ICAO.isIcaoCountry("IAO"));
+        assertTrue(TravelDocumentValidator.ICAO.isIcaoCountry("GBP"));
+        assertFalse(TravelDocumentValidator.ICAO.isIcaoCountry("ATA"));
+        assertFalse(TravelDocumentValidator.ICAO.isIcaoCountry("abw"));
+        assertFalse(TravelDocumentValidator.ICAO.isIcaoCountry("AB"));
+        assertFalse(TravelDocumentValidator.ICAO.isIcaoCountry(null));
+        assertTrue(TravelDocumentValidator.ICAO.isIcaoCountry("P<D<<MUSTERMANN", 2));
+        assertTrue(TravelDocumentValidator.ICAO.isIcaoCountry("P<UTOERIKSSON", 2));
+        assertFalse(TravelDocumentValidator.ICAO.isIcaoCountry("P<DEUMUSTERMANN", 2));
+        assertFalse(TravelDocumentValidator.ICAO.isIcaoCountry("P<<<<", 2));
+        assertFalse(TravelDocumentValidator.ICAO.isIcaoCountry("P<UT", 2));
     }
 
     @Test
@@ -144,6 +157,41 @@ public class TravelDocumentValidatorTest {
         assertNotNull(VALIDATOR.getValidator(Type.P, "USA").getRegexValidator().getPatterns(), "USA");
     }
 
+    @Test
+    public void testSetValidator() {
+        final TravelDocumentValidator validator = new TravelDocumentValidator();
+        assertNotNull(validator.getValidator(Type.P, "D"), "D");
+        assertNull(validator.getValidator(Type.P, "D<<"), "D<<");
+        assertNull(validator.getValidator(Type.P, "DEU"), "DEU");
+        assertNull(validator.getValidator(Type.V, "USA"), "V USA");
+        assertNull(validator.setValidator(Type.V, "USA", 10, "\\d{10}", Modulus10_731CheckDigit.getInstance()), "no previous V USA");
+        assertNotNull(validator.getValidator(Type.V, "USA"), "V USA");
+        assertNotNull(validator.getValidator(Type.P, "USA"), "P USA");
+        assertNotNull(validator.setValidator(Type.P, "D", -1, null, null), "removed P D");
+        assertNull(validator.getValidator(Type.P, "D"), "P D");
+        assertNotNull(validator.getValidator(Type.ID, "D"), "ID D");
+        assertNull(validator.setValidator(Type.P, "1", -1, null, null), "invalid country");
+        // the singleton is not affected
+        assertNotNull(VALIDATOR.getValidator(Type.P, "D"), "singleton P D");
+        assertNull(VALIDATOR.getValidator(Type.V, "USA"), "singleton V USA");
+    }
+
+    @Test
+    public void testPreload() {
+        final TravelDocumentValidator.Validator p = new TravelDocumentValidator.Validator(Type.P, "XXA", 10, "\\d{10}", null);
+        final TravelDocumentValidator.Validator id = new TravelDocumentValidator.Validator(Type.ID, "XXA", 10, "\\d{10}", null);
+        final TravelDocumentValidator.Validator utopia = new TravelDocumentValidator.Validator(Type.P, "UTO", 10, "\\d{10}", null);
+        final TravelDocumentValidator validator = new TravelDocumentValidator(new TravelDocumentValidator.Validator[] { p, id, utopia });
+        validator.preload("XXA", "ZZZ");
+        final RegexValidator compiled = p.getRegexValidator();
+        validator.preload();
+        assertSame(compiled, p.getRegexValidator(), "compiled once");
+        assertSame(utopia.getRegexValidator(), utopia.getRegexValidator(), "compiled once");
+        assertTrue(id.getRegexValidator().isValid("1234567890"));
+        // a malformed format still fails when it is defined
+        assertThrows(PatternSyntaxException.class, () -> new TravelDocumentValidator.Validator(Type.P, "XXA", 10, "[0-9", null));
+    }
+
     @Test
     public void testGetValidator() {
         assertNotNull(VALIDATOR.getValidator(Type.P, "USA"), "USA");
@@ -25,6 +25,7 @@ import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 
 import org.apache.commons.validator.ResultPair;
 import org.junit.jupiter.api.BeforeEach;
@@ -252,6 +253,43 @@ public class UrlValidatorTest {
 
     }
 
+    @Test
+    void testScanner() {
+        final String[] schemes = { "http", "HTTP", "file", "ftp", "h_ttp", "1a", "", "x-y.z+w" };
+        final String[] separators = { "://", ":/", ":", "//" };
+        final String[] userInfos = { "", "u@", "u:p@", ":p@", "u:@", "@", "u%41@", "u p@" };
+        final String[] hosts = { "apache.org", "127.0.0.1", "256.0.0.1", "localhost", "a_b.com", "b\u00fccher.ch", "[::1]", "", "www.apache.org.",
+            "-a.com", "a..org" };
+        final String[] ports = { "", ":", ":80", ":0065535", ":65536", ":99999999999", ":8a", ":80:80" };
+        final String[] paths = { "", "/", "/a", "//a", "/a//b", "/..", "/../a", "/a/..", "/a/../..", "/./..", "/a/./../../b", "/...", "/%41", "/%4",
+            "/a b", "/\u00e4", "/a:b;c=d", "/a|b", "/a/" };
+        final String[] queries = { "", "?", "?a=b&c=d", "?a b", "?%zz", "?\u00e4", "?[x]/?", "?a\"b" };
+        final String[] fragments = { "", "#", "#f", "#f#g", "#\u00e4", "#a/b?c" };
+        final long[] optionSets = { 0, UrlValidator.ALLOW_2_SLASHES, UrlValidator.NO_FRAGMENTS, UrlValidator.ALLOW_ALL_SCHEMES,
+            UrlValidator.ALLOW_LOCAL_URLS + UrlValidator.ALLOW_2_SLASHES };
+        final String alphabet = "a/.:@?#%[]\\ 9";
+        final Random random = new Random(42);
+        for (final long options : optionSets) {
+            final UrlValidator scanner = new UrlValidator(new String[] { "http", "file", "ftp", "X-Y.Z+W" }, options);
+            // a subclass validates with java.net.URI
+            final UrlValidator reference = new UrlValidator(new String[] { "http", "file", "ftp", "X-Y.Z+W" }, options) {
+                private static final long serialVersionUID = 1L;
+            };
+            for (int i = 0; i < 20000; i++) {
+                final StringBuilder builder = new StringBuilder();
+                builder.append(schemes[random.nextInt(schemes.length)]).append(separators[random.nextInt(separators.length)]);
+                builder.append(userInfos[random.nextInt(userInfos.length)]).append(hosts[random.nextInt(hosts.length)]);
+                builder.append(ports[random.nextInt(ports.length)]).append(paths[random.nextInt(paths.length)]);
+                builder.append(queries[random.nextInt(queries.length)]).append(fragments[random.nextInt(fragments.length)]);
+                if (random.nextInt(4) == 0) {
+                    builder.insert(random.nextInt(builder.length() + 1), alphabet.charAt(random.nextInt(alphabet.length())));
+                }
+                final String url = builder.toString();
+                assertEquals(reference.isValid(url), scanner.isValid(url), url);
+            }
+        }
+    }
+
     @Test
     void testValidateUrl() {
         assertTrue(true);
@@ -20,14 +20,18 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.regex.PatternSyntaxException;
 
 import org.apache.commons.validator.routines.VATINValidator.Validator;
+import org.apache.commons.validator.routines.checkdigit.LuhnCheckDigit;
 import org.junit.jupiter.api.Test;
 
 /**
@@ -175,6 +179,37 @@ public class VATINValidatorTest {
         assertNotNull(VALIDATOR.getValidator("DE").getRegexValidator().getPatterns(), "DE");
     }
 
+    @Test
+    public void testPrefixAndSuffix() {
+        final VATINValidator myValidator = new VATINValidator();
+        // Sweden with a routine which does not know the trailing "01"
+        assertNotNull(myValidator.setValidator(new Validator("SE", 14, "SE[1-9]\\d{9}01", LuhnCheckDigit.getInstance(), 2, 2)));
+        assertTrue(myValidator.isValid("SE556188840401"));
+        assertFalse(myValidator.isValid("SE556188840501"));
+        // same number with a prefix letter, routine gets the digits only
+        assertNull(myValidator.setValidator(new Validator("XX", 14, "XXS[1-9]\\d{9}", LuhnCheckDigit.getInstance(), 3, 0)));
+        assertTrue(myValidator.isValid("XXS5561888404"));
+        assertFalse(myValidator.isValid("XXS5561888405"));
+        assertThrows(IllegalArgumentException.class, () -> new Validator("XX", 12, "XX\\d{10}", LuhnCheckDigit.getInstance(), 1, 0));
+        assertThrows(IllegalArgumentException.class, () -> new Validator("XX", 12, "XX\\d{10}", LuhnCheckDigit.getInstance(), 2, 10));
+    }
+
+    @Test
+    public void testPreload() {
+        final Validator xx = new Validator("XX", 11, "XX\\d{9}", null);
+        final Validator yy = new Validator("YY", 11, "YY\\d{9}", null);
+        final VATINValidator validator = new VATINValidator(new Validator[] { xx, yy });
+        validator.preload("XX", "ZZ");
+        final RegexValidator compiled = xx.getRegexValidator();
+        validator.preload();
+        assertSame(compiled, xx.getRegexValidator(), "compiled once");
+        assertSame(yy.getRegexValidator(), yy.getRegexValidator(), "compiled once");
+        assertTrue(yy.getRegexValidator().isValid("YY123456789"));
+        // a malformed format still fails when it is defined
+        assertThrows(PatternSyntaxException.class, () -> new Validator("XX", 11, "XX[0-9", null));
+        assertThrows(PatternSyntaxException.class, () -> new Validator("XX", 11, "XX[0-9", null, 3, 0));
+    }
+
     @Test
     public void testGetValidator() {
         assertNotNull(VALIDATOR.getValidator("FI"), "FI");
@@ -262,6 +297,35 @@ public class VATINValidatorTest {
         });
     }
 
+    @Test
+    public void testValidateAll() {
+        final List<String> codes = new ArrayList<>(VALID_VATIN_FIXTURES);
+        codes.addAll(INVALID_VATIN_FIXTURES);
+        codes.add(null);
+        codes.add("X");
+        codes.add("de136695976");
+        for (final boolean parallel : new boolean[] { false, true }) {
+            final VATINValidator.BulkResult result = VALIDATOR.validateAll(codes, parallel);
+            assertEquals(codes.size(), result.size());
+            int valid = 0;
+            for (int i = 0; i < codes.size(); i++) {
+                assertEquals(VALIDATOR.isValid(codes.get(i)), result.isValid(i), codes.get(i));
+                valid += result.isValid(i) ? 1 : 0;
+            }
+            assertEquals(valid, result.getValidCount());
+            assertEquals(codes.size() - valid, result.getInvalidCount());
+            final long unknown = codes.stream().filter(code -> VATINValidator.BulkResult.countryIndex(code) == VATINValidator.BulkResult.COUNTRIES).count();
+            assertTrue(unknown >= 3);
+            assertEquals(unknown, result.getUnknownCount());
+            int perCountry = 0;
+            for (final String cc : result.getCountryCodes()) {
+                perCountry += result.getValidCount(cc) + result.getInvalidCount(cc);
+            }
+            assertEquals(codes.size() - unknown, perCountry);
+            assertEquals(VALID_VATIN_FIXTURES.stream().filter(code -> code.startsWith("DE")).count(), result.getValidCount("DE"));
+        }
+    }
+
     @Test
     public void testAddValididator() {
         final String code = "GB888851256";
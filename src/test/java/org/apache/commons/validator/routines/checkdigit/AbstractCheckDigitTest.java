@@ -270,6 +270,51 @@ public abstract class AbstractCheckDigitTest {
         }
     }
 
+    /**
+     * Test isValid() for a part of a code.
+     */
+    @Test
+    public void testIsValidRange() {
+        for (int i = 0; i < valid.length; i++) {
+            assertTrue(routine.isValid("XX" + valid[i] + "01", 2, valid[i].length()), "valid[" + i + "]: " + valid[i]);
+        }
+        final String[] invalidCheckDigits = createInvalidCodes(valid);
+        for (int i = 0; i < invalidCheckDigits.length; i++) {
+            final String code = "XX" + invalidCheckDigits[i] + "01";
+            assertEquals(routine.isValid(invalidCheckDigits[i]), routine.isValid(code, 2, invalidCheckDigits[i].length()),
+                    "invalid check digit[" + i + "]: " + invalidCheckDigits[i]);
+        }
+        for (int i = 0; i < invalid.length; i++) {
+            if (invalid[i] != null && !invalid[i].isEmpty()) {
+                assertEquals(routine.isValid(invalid[i]), routine.isValid("XX" + invalid[i] + "01", 2, invalid[i].length()),
+                        "invalid[" + i + "]: " + invalid[i]);
+            }
+        }
+        assertFalse(routine.isValid(null, 0, 0), "null");
+        assertFalse(routine.isValid("12", 1, 2), "out of range");
+    }
+
+    /**
+     * Test isValid() for a code in a character sequence.
+     */
+    @Test
+    public void testIsValidCharSequence() {
+        for (int i = 0; i < valid.length; i++) {
+            assertTrue(routine.isValid(new StringBuilder(valid[i])), "valid[" + i + "]: " + valid[i]);
+        }
+        for (int i = 0; i < invalid.length; i++) {
+            final CharSequence code = invalid[i] == null ? null : new StringBuilder(invalid[i]);
+            assertEquals(routine.isValid(invalid[i]), routine.isValid(code), "invalid[" + i + "]: " + invalid[i]);
+        }
+        final String[] invalidCheckDigits = createInvalidCodes(valid);
+        for (int i = 0; i < invalidCheckDigits.length; i++) {
+            assertEquals(routine.isValid(invalidCheckDigits[i]), routine.isValid(new StringBuilder(invalidCheckDigits[i])),
+                    "invalid check digit[" + i + "]: " + invalidCheckDigits[i]);
+        }
+        assertFalse(routine.isValid((CharSequence) null), "null");
+        assertFalse(routine.isValid(new StringBuilder()), "empty");
+    }
+
     /**
      * Test missing code
      */